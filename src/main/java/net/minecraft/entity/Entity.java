@@ -4,7 +4,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import com.google.common.collect.ImmutableList.Builder;
 import com.mojang.logging.LogUtils;
 import it.unimi.dsi.fastutil.objects.Object2DoubleArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
@@ -104,8 +103,10 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec2f;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
+import net.minecraft.util.shape.CollisionList;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
+import net.minecraft.world.BlockCollisionSpliterator;
 import net.minecraft.world.BlockLocating;
 import net.minecraft.world.BlockView;
 import net.minecraft.world.GameRules;
@@ -247,6 +248,7 @@ public abstract class Entity implements Nameable, EntityLike, CommandOutput, Att
 	 */
 	public static final int FREEZING_DAMAGE_INTERVAL = 40;
 	private static final Box NULL_BOX = new Box(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+	private static final ThreadLocal<CollisionList> COLLISION_LIST = ThreadLocal.withInitial(CollisionList::new);
 	private static final double SPEED_IN_WATER = 0.014;
 	private static final double SPEED_IN_LAVA_IN_NETHER = 0.007;
 	private static final double SPEED_IN_LAVA = 0.0023333333333333335;
@@ -323,6 +325,7 @@ public abstract class Entity implements Nameable, EntityLike, CommandOutput, Att
 	protected final Random random = Random.create();
 	public int age;
 	private int fireTicks = -this.getBurningDuration();
+	private long activeUntil;
 	protected boolean touchingWater;
 	protected Object2DoubleMap<TagKey<Fluid>> fluidHeight = new Object2DoubleArrayMap<>(2);
 	protected boolean submergedInWater;
@@ -660,6 +663,56 @@ public abstract class Entity implements Nameable, EntityLike, CommandOutput, Att
 		this.baseTick();
 	}
 
+	/**
+	 * Ticks this entity while it is outside the activation range of every player.
+	 * 
+	 * <p>This only updates the fire state and lets the entity fall. The entity's
+	 * {@link #age} is still advanced by the world.
+	 * 
+	 * @see net.minecraft.server.world.EntityActivationRange
+	 */
+	public void tickInactive() {
+		if (this.fireTicks > 0) {
+			if (this.isFireImmune()) {
+				this.setFireTicks(Math.max(0, this.fireTicks - 4));
+			} else {
+				if (this.fireTicks % 20 == 0) {
+					this.damage(this.getDamageSources().onFire(), 1.0F);
+				}
+
+				this.setFireTicks(this.fireTicks - 1);
+			}
+
+			this.setOnFire(this.fireTicks > 0);
+		}
+
+		if (!this.hasNoGravity() && !this.isOnGround()) {
+			this.setVelocity(this.getVelocity().add(0.0, -0.04, 0.0));
+			this.move(MovementType.SELF, this.getVelocity());
+			this.setVelocity(this.getVelocity().multiply(0.98));
+		}
+
+		this.attemptTickInVoid();
+	}
+
+	/**
+	 * Keeps this entity fully ticked for at least {@code ticks} ticks, even when no
+	 * player is within its activation range.
+	 * 
+	 * @see net.minecraft.server.world.EntityActivationRange
+	 */
+	public void markActive(int ticks) {
+		this.activeUntil = Math.max(this.activeUntil, this.getWorld().getTime() + (long)ticks);
+	}
+
+	/**
+	 * {@return whether this entity was {@linkplain #markActive marked active} and
+	 * still has to be fully ticked}
+	 */
+	public boolean isActivationForced() {
+		return this.getWorld().getTime() < this.activeUntil;
+	}
+
 	public void baseTick() {
 		this.getWorld().getProfiler().push("entityBaseTick");
 		this.blockStateAtPos = null;
@@ -1233,52 +1286,66 @@ public abstract class Entity implements Nameable, EntityLike, CommandOutput, Att
 	}
 
 	public static Vec3d adjustMovementForCollisions(@Nullable Entity entity, Vec3d movement, Box entityBoundingBox, World world, List<VoxelShape> collisions) {
-		Builder<VoxelShape> builder = ImmutableList.builderWithExpectedSize(collisions.size() + 1);
-		if (!collisions.isEmpty()) {
-			builder.addAll(collisions);
+		CollisionList collisionList = (CollisionList)COLLISION_LIST.get();
+		collisionList.clear();
+
+		for (int i = 0; i < collisions.size(); i++) {
+			collisionList.add((VoxelShape)collisions.get(i));
 		}
 
+		Box box = entityBoundingBox.stretch(movement);
 		WorldBorder worldBorder = world.getWorldBorder();
-		boolean bl = entity != null && worldBorder.canCollide(entity, entityBoundingBox.stretch(movement));
+		boolean bl = entity != null && worldBorder.canCollide(entity, box);
 		if (bl) {
-			builder.add(worldBorder.asVoxelShape());
+			collisionList.add(worldBorder.asVoxelShape());
 		}
 
-		builder.addAll(world.getBlockCollisions(entity, entityBoundingBox.stretch(movement)));
-		return adjustMovementForCollisions(movement, entityBoundingBox, builder.build());
+		BlockCollisionSpliterator.collect(world, entity, box, collisionList);
+		Vec3d vec3d = adjustMovementForCollisions(movement, entityBoundingBox, collisionList);
+		collisionList.clear();
+		return vec3d;
 	}
 
-	private static Vec3d adjustMovementForCollisions(Vec3d movement, Box entityBoundingBox, List<VoxelShape> collisions) {
+	private static Vec3d adjustMovementForCollisions(Vec3d movement, Box entityBoundingBox, CollisionList collisions) {
 		if (collisions.isEmpty()) {
 			return movement;
 		} else {
 			double d = movement.x;
 			double e = movement.y;
 			double f = movement.z;
+			double g = entityBoundingBox.minX;
+			double h = entityBoundingBox.minY;
+			double i = entityBoundingBox.minZ;
+			double j = entityBoundingBox.maxX;
+			double k = entityBoundingBox.maxY;
+			double l = entityBoundingBox.maxZ;
 			if (e != 0.0) {
-				e = VoxelShapes.calculateMaxOffset(Direction.Axis.Y, entityBoundingBox, collisions, e);
+				e = collisions.calculateMaxOffset(Direction.Axis.Y, g, h, i, j, k, l, e);
 				if (e != 0.0) {
-					entityBoundingBox = entityBoundingBox.offset(0.0, e, 0.0);
+					h += e;
+					k += e;
 				}
 			}
 
 			boolean bl = Math.abs(d) < Math.abs(f);
 			if (bl && f != 0.0) {
-				f = VoxelShapes.calculateMaxOffset(Direction.Axis.Z, entityBoundingBox, collisions, f);
+				f = collisions.calculateMaxOffset(Direction.Axis.Z, g, h, i, j, k, l, f);
 				if (f != 0.0) {
-					entityBoundingBox = entityBoundingBox.offset(0.0, 0.0, f);
+					i += f;
+					l += f;
 				}
 			}
 
 			if (d != 0.0) {
-				d = VoxelShapes.calculateMaxOffset(Direction.Axis.X, entityBoundingBox, collisions, d);
+				d = collisions.calculateMaxOffset(Direction.Axis.X, g, h, i, j, k, l, d);
 				if (!bl && d != 0.0) {
-					entityBoundingBox = entityBoundingBox.offset(d, 0.0, 0.0);
+					g += d;
+					j += d;
 				}
 			}
 
 			if (!bl && f != 0.0) {
-				f = VoxelShapes.calculateMaxOffset(Direction.Axis.Z, entityBoundingBox, collisions, f);
+				f = collisions.calculateMaxOffset(Direction.Axis.Z, g, h, i, j, k, l, f);
 			}
 
 			return new Vec3d(d, e, f);
@@ -4292,7 +4359,13 @@ public abstract class Entity implements Nameable, EntityLike, CommandOutput, Att
 	}
 
 	public final void setBoundingBox(Box boundingBox) {
+		Box box = this.boundingBox;
 		this.boundingBox = boundingBox;
+		if (!MathHelper.approximatelyEquals(box.getXLength(), boundingBox.getXLength())
+			|| !MathHelper.approximatelyEquals(box.getYLength(), boundingBox.getYLength())
+			|| !MathHelper.approximatelyEquals(box.getZLength(), boundingBox.getZLength())) {
+			this.changeListener.updateEntityPosition();
+		}
 	}
 
 	protected float getEyeHeight(EntityPose pose, EntityDimensions dimensions) {
@@ -14,7 +14,6 @@ import net.minecraft.network.packet.s2c.play.ExperienceOrbSpawnS2CPacket;
 import net.minecraft.registry.tag.FluidTags;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
-import net.minecraft.util.TypeFilter;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
@@ -128,9 +127,9 @@ public class ExperienceOrbEntity extends Entity {
 			this.target = this.getWorld().getClosestPlayer(this, 8.0);
 		}
 
-		if (this.getWorld() instanceof ServerWorld) {
-			for (ExperienceOrbEntity experienceOrbEntity : this.getWorld()
-				.getEntitiesByType(TypeFilter.instanceOf(ExperienceOrbEntity.class), this.getBoundingBox().expand(0.5), this::isMergeable)) {
+		if (this.getWorld() instanceof ServerWorld serverWorld) {
+			for (ExperienceOrbEntity experienceOrbEntity : serverWorld.getExperienceOrbMergeIndex()
+				.getCandidates(this, this.getBoundingBox().expand(0.5), this::isMergeable)) {
 				this.merge(experienceOrbEntity);
 			}
 		}
@@ -149,7 +148,7 @@ public class ExperienceOrbEntity extends Entity {
 	private static boolean wasMergedIntoExistingOrb(ServerWorld world, Vec3d pos, int amount) {
 		Box box = Box.of(pos, 1.0, 1.0, 1.0);
 		int i = world.getRandom().nextInt(40);
-		List<ExperienceOrbEntity> list = world.getEntitiesByType(TypeFilter.instanceOf(ExperienceOrbEntity.class), box, orb -> isMergeable(orb, i, amount));
+		List<ExperienceOrbEntity> list = world.getExperienceOrbMergeIndex().getCandidates(amount, null, box, orb -> isMergeable(orb, i, amount));
 		if (!list.isEmpty()) {
 			ExperienceOrbEntity experienceOrbEntity = (ExperienceOrbEntity)list.get(0);
 			experienceOrbEntity.pickingCount++;
@@ -1,5 +1,6 @@
 package net.minecraft.entity;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import net.minecraft.entity.damage.DamageSource;
@@ -19,6 +20,7 @@ import net.minecraft.sound.SoundCategory;
 import net.minecraft.stat.Stats;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
@@ -182,8 +184,12 @@ public class ItemEntity extends Entity implements Ownable {
 
 	private void tryMerge() {
 		if (this.canMerge()) {
-			for (ItemEntity itemEntity : this.getWorld()
-				.getEntitiesByClass(ItemEntity.class, this.getBoundingBox().expand(0.5, 0.0, 0.5), otherItemEntity -> otherItemEntity != this && otherItemEntity.canMerge())) {
+			Box box = this.getBoundingBox().expand(0.5, 0.0, 0.5);
+			List<ItemEntity> list = this.getWorld() instanceof ServerWorld serverWorld
+				? serverWorld.getItemMergeIndex().getCandidates(this, box, otherItemEntity -> otherItemEntity.canMerge())
+				: this.getWorld().getEntitiesByClass(ItemEntity.class, box, otherItemEntity -> otherItemEntity != this && otherItemEntity.canMerge());
+
+			for (ItemEntity itemEntity : list) {
 				if (itemEntity.canMerge()) {
 					this.tryMerge(itemEntity);
 					if (this.isRemoved()) {
@@ -371,6 +377,9 @@ public class ItemEntity extends Entity implements Ownable {
 		super.onTrackedDataSet(data);
 		if (STACK.equals(data)) {
 			this.getStack().setHolder(this);
+			if (this.getWorld() instanceof ServerWorld serverWorld) {
+				serverWorld.getItemMergeIndex().update(this);
+			}
 		}
 	}
 
@@ -93,6 +93,7 @@ import net.minecraft.registry.tag.ItemTags;
 import net.minecraft.registry.tag.TagKey;
 import net.minecraft.scoreboard.Team;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.EntityActivationRange;
 import net.minecraft.server.world.ServerChunkManager;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.BlockSoundGroup;
@@ -1187,6 +1188,7 @@ public abstract class LivingEntity extends Entity implements Attackable {
 				amount *= 5.0F;
 			}
 
+			this.markActive(EntityActivationRange.WAKE_UP_TICKS);
 			this.limbAnimator.setSpeed(1.5F);
 			boolean bl2 = true;
 			if ((float)this.timeUntilRegen > 10.0F && !source.isIn(DamageTypeTags.BYPASSES_COOLDOWN)) {
@@ -2816,7 +2818,7 @@ public abstract class LivingEntity extends Entity implements Attackable {
 				.getEntitiesByType(TypeFilter.instanceOf(PlayerEntity.class), this.getBoundingBox(), EntityPredicates.canBePushedBy(this))
 				.forEach(this::pushAway);
 		} else {
-			List<Entity> list = this.getWorld().getOtherEntities(this, this.getBoundingBox(), EntityPredicates.canBePushedBy(this));
+			List<Entity> list = ((ServerWorld)this.getWorld()).getCollisionBroadphase().getOtherEntities(this, this.getBoundingBox(), EntityPredicates.canBePushedBy(this));
 			if (!list.isEmpty()) {
 				int i = this.getWorld().getGameRules().getInt(GameRules.MAX_ENTITY_CRAMMING);
 				if (i > 0 && list.size() > i - 1 && this.random.nextInt(4) == 0) {
@@ -2936,10 +2938,14 @@ public abstract class LivingEntity extends Entity implements Attackable {
 		} else {
 			Vec3d vec3d = new Vec3d(this.getX(), this.getEyeY(), this.getZ());
 			Vec3d vec3d2 = new Vec3d(entity.getX(), entity.getEyeY(), entity.getZ());
-			return vec3d2.distanceTo(vec3d) > 128.0
-				? false
-				: this.getWorld().raycast(new RaycastContext(vec3d, vec3d2, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, this)).getType()
-					== HitResult.Type.MISS;
+			if (vec3d2.distanceTo(vec3d) > 128.0) {
+				return false;
+			} else {
+				return this.getWorld() instanceof ServerWorld serverWorld
+					? serverWorld.getVisibilityCache().canSee(this, vec3d, vec3d2)
+					: this.getWorld().raycast(new RaycastContext(vec3d, vec3d2, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, this)).getType()
+						== HitResult.Type.MISS;
+			}
 		}
 	}
 
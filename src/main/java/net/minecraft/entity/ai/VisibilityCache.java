@@ -0,0 +1,121 @@
+package net.minecraft.entity.ai;
+
+import com.google.common.collect.Maps;
+import java.util.Locale;
+import java.util.Map;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.GameRules;
+import net.minecraft.world.LineOfSightRaycaster;
+
+/**
+ * Answers the line of sight checks of {@link LivingEntity#canSee} of a server world.
+ *
+ * <p>Every check casts its ray with a {@link LineOfSightRaycaster}. When
+ * {@link GameRules#SHARED_LINE_OF_SIGHT} is enabled, the results are also shared
+ * between all entities within a tick: a hostile mob checking a player and the
+ * mobs around it checking the same eye positions, in either direction, only cast
+ * one ray. The result is then that of the first entity checking, so blocks whose
+ * collision shape depends on the entity, such as scaffolding and powder snow, are
+ * not taken into account for the others.
+ *
+ * <p>The results are dropped at the start of every tick, and a result is dropped as
+ * soon as a block changes in the chunk sections spanned by the two eye positions.
+ */
+public class VisibilityCache {
+	private final ServerWorld world;
+	private final Map<VisibilityCache.Key, Boolean> results = Maps.<VisibilityCache.Key, Boolean>newHashMap();
+	private long time = Long.MIN_VALUE;
+	private long raycasts;
+	private long sharedResults;
+
+	public VisibilityCache(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * {@return whether no block obstructs the line between the eye positions
+	 * {@code start} of {@code entity} and {@code end}}
+	 */
+	public boolean canSee(LivingEntity entity, Vec3d start, Vec3d end) {
+		if (!this.world.getGameRules().getBoolean(GameRules.SHARED_LINE_OF_SIGHT)) {
+			this.raycasts++;
+			return !LineOfSightRaycaster.isObstructed(this.world, start, end, entity);
+		} else {
+			long l = this.world.getTime();
+			if (l != this.time) {
+				this.time = l;
+				this.results.clear();
+			}
+
+			VisibilityCache.Key key = VisibilityCache.Key.of(start, end);
+			Boolean boolean_ = (Boolean)this.results.get(key);
+			if (boolean_ != null) {
+				this.sharedResults++;
+				return boolean_;
+			} else {
+				this.raycasts++;
+				boolean bl = !LineOfSightRaycaster.isObstructed(this.world, start, end, entity);
+				this.results.put(key, bl);
+				return bl;
+			}
+		}
+	}
+
+	/**
+	 * Drops the results of the rays that may pass the chunk section of {@code pos}.
+	 */
+	public void onBlockChanged(BlockPos pos) {
+		if (!this.results.isEmpty()) {
+			int i = ChunkSectionPos.getSectionCoord(pos.getX());
+			int j = ChunkSectionPos.getSectionCoord(pos.getY());
+			int k = ChunkSectionPos.getSectionCoord(pos.getZ());
+			this.results.keySet().removeIf(key -> key.spans(i, j, k));
+		}
+	}
+
+	public String getDebugString() {
+		return String.format(Locale.ROOT, "results: %d, raycasts: %d, shared: %d", this.results.size(), this.raycasts, this.sharedResults);
+	}
+
+	/**
+	 * A pair of eye positions, ordered so that both directions of a check share the
+	 * same key, together with the chunk sections the ray between them may pass.
+	 */
+	static record Key(Vec3d first, Vec3d second, int minSectionX, int minSectionY, int minSectionZ, int maxSectionX, int maxSectionY, int maxSectionZ) {
+		public static VisibilityCache.Key of(Vec3d start, Vec3d end) {
+			Vec3d vec3d = isOrdered(start, end) ? start : end;
+			Vec3d vec3d2 = vec3d == start ? end : start;
+			return new VisibilityCache.Key(
+				vec3d,
+				vec3d2,
+				ChunkSectionPos.getSectionCoord(Math.min(start.x, end.x) - 1.0),
+				ChunkSectionPos.getSectionCoord(Math.min(start.y, end.y) - 1.0),
+				ChunkSectionPos.getSectionCoord(Math.min(start.z, end.z) - 1.0),
+				ChunkSectionPos.getSectionCoord(Math.max(start.x, end.x) + 1.0),
+				ChunkSectionPos.getSectionCoord(Math.max(start.y, end.y) + 1.0),
+				ChunkSectionPos.getSectionCoord(Math.max(start.z, end.z) + 1.0)
+			);
+		}
+
+		private static boolean isOrdered(Vec3d first, Vec3d second) {
+			if (first.x != second.x) {
+				return first.x < second.x;
+			} else {
+				return first.y != second.y ? first.y < second.y : first.z <= second.z;
+			}
+		}
+
+		public boolean spans(int sectionX, int sectionY, int sectionZ) {
+			return sectionX >= this.minSectionX
+				&& sectionX <= this.maxSectionX
+				&& sectionY >= this.minSectionY
+				&& sectionY <= this.maxSectionY
+				&& sectionZ >= this.minSectionZ
+				&& sectionZ <= this.maxSectionZ;
+		}
+	}
+}
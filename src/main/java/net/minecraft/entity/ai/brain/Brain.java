@@ -3,6 +3,7 @@ package net.minecraft.entity.ai.brain;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.ImmutableList.Builder;
@@ -15,7 +16,10 @@ import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.MapLike;
 import com.mojang.serialization.RecordBuilder;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -75,8 +79,14 @@ public class Brain<E extends LivingEntity> {
 	private final Supplier<Codec<Brain<E>>> codecSupplier;
 	//无用,意义不明
 	private static final int ACTIVITY_REFRESH_COOLDOWN = 20;
-	//MAP 存储Memory,Key:MemoryModuleType<?>类型 Value:记忆内容
-	private final Map<MemoryModuleType<?>, Optional<? extends Memory<?>>> memories = Maps.<MemoryModuleType<?>, Optional<? extends Memory<?>>>newHashMap();
+	/**
+	 * 存储Memory的数组,下标为 {@link MemoryModuleType#getIndex},没有值的记忆为null
+	 */
+	private Memory<?>[] memories;
+	//已注册的记忆类型,下标同上,未注册的为null
+	private MemoryModuleType<?>[] memoryTypes;
+	//已注册的记忆类型的下标,按注册顺序
+	private final int[] memoryIndices;
 	//MAP 存储传感器Sensor, Key:SensorType<? extends Sensor<? super E>>类型 Value:传感器实例
 	private final Map<SensorType<? extends Sensor<? super E>>, Sensor<? super E>> sensors = Maps.<SensorType<? extends Sensor<? super E>>, Sensor<? super E>>newLinkedHashMap();
 	/**
@@ -86,6 +96,16 @@ public class Brain<E extends LivingEntity> {
 	 * Set<Task<? super E>>:动下的任务集合
 	 */
 	private final Map<Integer, Map<Activity, Set<Task<? super E>>>> tasks = Maps.newTreeMap();
+	/**
+	 * 按 {@link #tasks} 的遍历顺序预编译的活动和任务数组,每个活动对应一组任务
+	 * 修改任务后置为null,下次使用时重新编译
+	 */
+	@Nullable
+	private Activity[] compiledActivities;
+	@Nullable
+	private Task<? super E>[][] compiledTasks;
+	//updateTasks 复用的列表
+	private final List<Task<? super E>> runningTasks = new ObjectArrayList<>();
 
 	//活动日程安排,并初始化IDLE状态
 	private Schedule schedule = Schedule.EMPTY;
@@ -245,11 +265,14 @@ public class Brain<E extends LivingEntity> {
 		Supplier<Codec<Brain<E>>> codecSupplier
 	) {
 		this.codecSupplier = codecSupplier;
+		this.memories = new Memory[MemoryModuleType.getCount()];
+		this.memoryTypes = new MemoryModuleType[MemoryModuleType.getCount()];
+		IntList intList = new IntArrayList();
 
 		//遍历记忆
 		for (MemoryModuleType<?> memoryModuleType : memories) {
 			//初始化，放进去
-			this.memories.put(memoryModuleType, Optional.empty());
+			this.registerMemory(memoryModuleType, intList);
 		}
 
 		//遍历传感器
@@ -264,10 +287,12 @@ public class Brain<E extends LivingEntity> {
 			//sensor.getOutputMemoryModules()获取记忆类型
 			for (MemoryModuleType<?> memoryModuleType2 : sensor.getOutputMemoryModules()) {
 				//添加，初始化
-				this.memories.put(memoryModuleType2, Optional.empty());
+				this.registerMemory(memoryModuleType2, intList);
 			}
 		}
 
+		this.memoryIndices = intList.toIntArray();
+
 		//应用，初始化记忆
 		for (MemoryEntry<?> memoryEntry : memoryEntries) {
 			//遍历后初始化
@@ -275,6 +300,31 @@ public class Brain<E extends LivingEntity> {
 		}
 	}
 
+	/**
+	 * 注册记忆类型,值为空
+	 * 数组按构造时的 {@link MemoryModuleType#getCount} 分配,之后才创建的记忆类型需要扩容
+	 */
+	private void registerMemory(MemoryModuleType<?> type, IntList indices) {
+		int i = type.getIndex();
+		if (i >= this.memoryTypes.length) {
+			this.memories = (Memory<?>[])Arrays.copyOf(this.memories, i + 1);
+			this.memoryTypes = (MemoryModuleType<?>[])Arrays.copyOf(this.memoryTypes, i + 1);
+		}
+
+		if (this.memoryTypes[i] == null) {
+			this.memoryTypes[i] = type;
+			indices.add(i);
+		}
+	}
+
+	/**
+	 * 记忆类型是否已注册
+	 */
+	private boolean isRegistered(MemoryModuleType<?> type) {
+		int i = type.getIndex();
+		return i < this.memoryTypes.length && this.memoryTypes[i] == type;
+	}
+
 	/**
 	 * 编码
 	 * @param ops DynamicOps<T>->DataResult<T>
@@ -290,10 +340,7 @@ public class Brain<E extends LivingEntity> {
 	 * @return Stream<MemoryEntry<?>>
 	 */
 	Stream<MemoryEntry<?>> streamMemories() {
-		return this.memories
-			.entrySet()
-			.stream()
-			.map(entry -> MemoryEntry.of((MemoryModuleType)entry.getKey(), (Optional<? extends Memory<?>>)entry.getValue()));
+		return Arrays.stream(this.memoryIndices).<MemoryEntry<?>>mapToObj(index -> MemoryEntry.of(this.memoryTypes[index], Optional.ofNullable(this.memories[index])));
 	}
 
 
@@ -310,8 +357,10 @@ public class Brain<E extends LivingEntity> {
 	 * 所有记忆清空
 	 */
 	public void forgetAll() {
-		//遍历所有key，清空后放回去
-		this.memories.keySet().forEach(type -> this.memories.put(type, Optional.empty()));
+		//遍历所有已注册的记忆，清空
+		for (int i : this.memoryIndices) {
+			this.memories[i] = null;
+		}
 	}
 
 	/**
@@ -364,14 +413,14 @@ public class Brain<E extends LivingEntity> {
 	 */
 	<U> void setMemory(MemoryModuleType<U> type, Optional<? extends Memory<?>> memory) {
 		//这个类型存在吗？
-		if (this.memories.containsKey(type)) {
+		if (this.isRegistered(type)) {
 			//存在 且 为空集合
 			if (memory.isPresent() && this.isEmptyCollection(((Memory)memory.get()).getValue())) {
 				//移除
 				this.forget(type);
 			} else {
 				//放进去
-				this.memories.put(type, memory);
+				this.memories[type.getIndex()] = (Memory<?>)memory.orElse(null);
 			}
 		}
 	}
@@ -384,16 +433,13 @@ public class Brain<E extends LivingEntity> {
 	 * @param <U> U
 	 */
 	public <U> Optional<U> getOptionalRegisteredMemory(MemoryModuleType<U> type) {
-		//通过类型获取
-		Optional<? extends Memory<?>> optional = (Optional<? extends Memory<?>>)this.memories.get(type);
-		//为空吗？
-		if (optional == null) {
-			//空的，报错
+		//未注册吗？
+		if (!this.isRegistered(type)) {
+			//未注册，报错
 			throw new IllegalStateException("Unregistered memory fetched: " + type);
 		} else {
-			//原为:return optional.map(Memory::getValue); 类型不匹配修改
-			//不是空的 输出Value
-			return (Optional<U>) optional.map(Memory::getValue);
+			//已注册 输出Value
+			return this.getMemoryValue(type);
 		}
 	}
 
@@ -405,11 +451,17 @@ public class Brain<E extends LivingEntity> {
 	 */
 	@Nullable //可能为null
 	public <U> Optional<U> getOptionalMemory(MemoryModuleType<U> type) {
-		//通过类型获取
-		Optional<? extends Memory<?>> optional = (Optional<? extends Memory<?>>)this.memories.get(type);
-		//是null？直接返回null
-		//不是？返回Value
-		return optional == null ? null : optional.map(Memory::getValue);
+		//未注册？直接返回null
+		//已注册？返回Value
+		return !this.isRegistered(type) ? null : this.getMemoryValue(type);
+	}
+
+	/**
+	 * 已注册记忆的值
+	 */
+	private <U> Optional<U> getMemoryValue(MemoryModuleType<U> type) {
+		Memory<U> memory = (Memory<U>)this.memories[type.getIndex()];
+		return memory == null ? Optional.empty() : Optional.ofNullable(memory.getValue());
 	}
 
 	/**
@@ -420,10 +472,9 @@ public class Brain<E extends LivingEntity> {
 	 */
 	public <U> long getMemoryExpiry(MemoryModuleType<U> type) {
 		//根据类型获取
-		Optional<? extends Memory<?>> optional = (Optional<? extends Memory<?>>)this.memories.get(type);
-		//获取
-		//orElse(0L); 获取不到就返回0
-		return (Long)optional.map(Memory::getExpiry).orElse(0L);
+		Memory<?> memory = this.isRegistered(type) ? this.memories[type.getIndex()] : null;
+		//获取不到就返回0
+		return memory == null ? 0L : memory.getExpiry();
 	}
 
 	/**
@@ -433,7 +484,14 @@ public class Brain<E extends LivingEntity> {
 	@Deprecated
 	@Debug
 	public Map<MemoryModuleType<?>, Optional<? extends Memory<?>>> getMemories() {
-		return this.memories;
+		//按注册顺序生成一个Map,仅用于调试
+		Map<MemoryModuleType<?>, Optional<? extends Memory<?>>> map = Maps.<MemoryModuleType<?>, Optional<? extends Memory<?>>>newLinkedHashMap();
+
+		for (int i : this.memoryIndices) {
+			map.put(this.memoryTypes[i], Optional.ofNullable(this.memories[i]));
+		}
+
+		return map;
 	}
 
 	/**
@@ -461,12 +519,14 @@ public class Brain<E extends LivingEntity> {
 	 * @return
 	 */
 	public boolean isMemoryInState(MemoryModuleType<?> type, MemoryModuleState state) {
-		Optional<? extends Memory<?>> optional = (Optional<? extends Memory<?>>)this.memories.get(type);
-		return optional == null
-			? false
-			: state == MemoryModuleState.REGISTERED
-				|| state == MemoryModuleState.VALUE_PRESENT && optional.isPresent()
-				|| state == MemoryModuleState.VALUE_ABSENT && !optional.isPresent();
+		if (!this.isRegistered(type)) {
+			return false;
+		} else {
+			boolean bl = this.memories[type.getIndex()] != null;
+			return state == MemoryModuleState.REGISTERED
+				|| state == MemoryModuleState.VALUE_PRESENT && bl
+				|| state == MemoryModuleState.VALUE_ABSENT && !bl;
+		}
 	}
 
 	/**
@@ -512,18 +572,44 @@ public class Brain<E extends LivingEntity> {
 	public List<Task<? super E>> getRunningTasks() {
 		//创建列表
 		List<Task<? super E>> list = new ObjectArrayList<>();
+		this.collectRunningTasks(list);
+		return list;
+	}
 
-		for (Map<Activity, Set<Task<? super E>>> map : this.tasks.values()) {
-			for (Set<Task<? super E>> set : map.values()) {
-				for (Task<? super E> task : set) {
-					if (task.getStatus() == MultiTickTask.Status.RUNNING) {
-						list.add(task);
-					}
+	/**
+	 * 按任务的顺序收集正在执行的任务
+	 * @param list 任务列表
+	 */
+	private void collectRunningTasks(List<Task<? super E>> list) {
+		this.compileTasks();
+
+		for (Task<? super E>[] tasks : this.compiledTasks) {
+			for (Task<? super E> task : tasks) {
+				if (task.getStatus() == MultiTickTask.Status.RUNNING) {
+					list.add(task);
 				}
 			}
 		}
+	}
 
-		return list;
+	/**
+	 * 预编译任务数组,与 {@link #tasks} 的遍历顺序相同
+	 */
+	private void compileTasks() {
+		if (this.compiledTasks == null) {
+			List<Activity> list = Lists.<Activity>newArrayList();
+			List<Task<? super E>[]> list2 = Lists.<Task<? super E>[]>newArrayList();
+
+			for (Map<Activity, Set<Task<? super E>>> map : this.tasks.values()) {
+				for (Entry<Activity, Set<Task<? super E>>> entry : map.entrySet()) {
+					list.add((Activity)entry.getKey());
+					list2.add((Task<? super E>[])((Set)entry.getValue()).toArray(new Task[0]));
+				}
+			}
+
+			this.compiledActivities = (Activity[])list.toArray(new Activity[0]);
+			this.compiledTasks = (Task<? super E>[][])list2.toArray(new Task[0][]);
+		}
 	}
 
 	/**
@@ -720,6 +806,9 @@ public class Brain<E extends LivingEntity> {
 	) {
 		//把对应任务的条件添加到requiredActivityMemories
 		this.requiredActivityMemories.put(activity, requiredMemories);
+		//任务变了,需要重新编译
+		this.compiledActivities = null;
+		this.compiledTasks = null;
 		//如果不为空
 		if (!forgettingMemories.isEmpty()) {
 			//存进去
@@ -744,6 +833,8 @@ public class Brain<E extends LivingEntity> {
 	@VisibleForTesting
 	public void clear() {
 		this.tasks.clear();
+		this.compiledActivities = null;
+		this.compiledTasks = null;
 	}
 
 	/**
@@ -761,12 +852,17 @@ public class Brain<E extends LivingEntity> {
 	 * @return result
 	 */
 	public Brain<E> copy() {
-		Brain<E> brain = new Brain<>(this.memories.keySet(), this.sensors.keySet(), ImmutableList.of(), this.codecSupplier);
+		List<MemoryModuleType<?>> list = Lists.<MemoryModuleType<?>>newArrayListWithCapacity(this.memoryIndices.length);
 
-		for (Entry<MemoryModuleType<?>, Optional<? extends Memory<?>>> entry : this.memories.entrySet()) {
-			MemoryModuleType<?> memoryModuleType = (MemoryModuleType<?>)entry.getKey();
-			if (((Optional)entry.getValue()).isPresent()) {
-				brain.memories.put(memoryModuleType, (Optional)entry.getValue());
+		for (int i : this.memoryIndices) {
+			list.add(this.memoryTypes[i]);
+		}
+
+		Brain<E> brain = new Brain<>(list, this.sensors.keySet(), ImmutableList.of(), this.codecSupplier);
+
+		for (int i : this.memoryIndices) {
+			if (this.memories[i] != null) {
+				brain.memories[i] = this.memories[i];
 			}
 		}
 
@@ -805,18 +901,18 @@ public class Brain<E extends LivingEntity> {
 	 * 更新记忆的状态
 	 */
 	private void tickMemories() {
-		//遍历所有记忆的kv
-		for (Entry<MemoryModuleType<?>, Optional<? extends Memory<?>>> entry : this.memories.entrySet()) {
+		//遍历所有已注册的记忆
+		for (int i : this.memoryIndices) {
+			//获取记忆的value Memory<?>
+			Memory<?> memory = this.memories[i];
 			//检查value是否为空
-			if (((Optional)entry.getValue()).isPresent()) {
+			if (memory != null) {
 				//存在值
 
-				//获取记忆的value Memory<?>
-				Memory<?> memory = (Memory<?>)((Optional)entry.getValue()).get();
 				//过期了？
 				if (memory.isExpired()) {
 					//忘记他
-					this.forget((MemoryModuleType)entry.getKey());
+					this.forget(this.memoryTypes[i]);
 				}
 
 				//没过期，更新即可
@@ -849,15 +945,15 @@ public class Brain<E extends LivingEntity> {
 	//TODO 详细解释
 	private void startTasks(ServerWorld world, E entity) {
 		long l = world.getTime();
-
-		for (Map<Activity, Set<Task<? super E>>> map : this.tasks.values()) {
-			for (Entry<Activity, Set<Task<? super E>>> entry : map.entrySet()) {
-				Activity activity = (Activity)entry.getKey();
-				if (this.possibleActivities.contains(activity)) {
-					for (Task<? super E> task : (Set)entry.getValue()) {
-						if (task.getStatus() == MultiTickTask.Status.STOPPED) {
-							task.tryStarting(world, entity, l);
-						}
+		this.compileTasks();
+		Activity[] activities = this.compiledActivities;
+		Task<? super E>[][] tasks = this.compiledTasks;
+
+		for (int i = 0; i < activities.length; i++) {
+			if (this.possibleActivities.contains(activities[i])) {
+				for (Task<? super E> task : tasks[i]) {
+					if (task.getStatus() == MultiTickTask.Status.STOPPED) {
+						task.tryStarting(world, entity, l);
 					}
 				}
 			}
@@ -872,9 +968,16 @@ public class Brain<E extends LivingEntity> {
 	//TODO 详细解释
 	private void updateTasks(ServerWorld world, E entity) {
 		long l = world.getTime();
+		List<Task<? super E>> list = this.runningTasks;
+		list.clear();
+		this.collectRunningTasks(list);
 
-		for (Task<? super E> task : this.getRunningTasks()) {
-			task.tick(world, entity, l);
+		try {
+			for (int i = 0; i < list.size(); i++) {
+				((Task)list.get(i)).tick(world, entity, l);
+			}
+		} finally {
+			list.clear();
 		}
 	}
 
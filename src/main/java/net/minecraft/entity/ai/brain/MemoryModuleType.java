@@ -256,11 +256,32 @@ public class MemoryModuleType<U> {
 	public static final MemoryModuleType<Boolean> SNIFFER_HAPPY = register("sniffer_happy");
 
 
+	//已创建的记忆类型数量
+	private static int count;
 	private final Optional<Codec<Memory<U>>> codec;
+	//记忆类型的编号,大脑用它作为记忆数组的下标
+	private final int index;
 
 	@VisibleForTesting
 	public MemoryModuleType(Optional<Codec<U>> codec) {
 		this.codec = codec.map(Memory::createCodec);
+		this.index = count++;
+	}
+
+	/**
+	 * {@return the index of this memory module type}, which brains use to store
+	 * their memories in arrays
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * {@return the number of memory module types created so far}, which is greater
+	 * than the {@linkplain #getIndex index} of each of them
+	 */
+	public static int getCount() {
+		return count;
 	}
 
 	public String toString() {
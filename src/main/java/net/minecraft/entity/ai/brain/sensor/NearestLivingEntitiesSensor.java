@@ -20,7 +20,8 @@ public class NearestLivingEntitiesSensor<T extends LivingEntity> extends Sensor<
 	protected void sense(ServerWorld world, T entity) {
 
 		Box box = entity.getBoundingBox().expand((double)this.getHorizontalExpansion(), (double)this.getHeightExpansion(), (double)this.getHorizontalExpansion());
-		List<LivingEntity> list = world.getEntitiesByClass(LivingEntity.class, box, e -> e != entity && e.isAlive());
+		//从共享缓存中过滤,同一tick内相同区段范围只查询一次世界
+		List<LivingEntity> list = world.getSharedSensorCache().getLivingEntities(entity, box);
 		list.sort(Comparator.comparingDouble(entity::squaredDistanceTo));
 		Brain<?> brain = entity.getBrain();
 		brain.remember(MemoryModuleType.MOBS, list);
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.Set;
+import net.minecraft.block.Block;
 import net.minecraft.entity.ai.brain.Brain;
 import net.minecraft.entity.ai.brain.MemoryModuleType;
 import net.minecraft.entity.passive.VillagerEntity;
@@ -23,23 +24,31 @@ public class SecondaryPointsOfInterestSensor extends Sensor<VillagerEntity> {
 	}
 
 	protected void sense(ServerWorld serverWorld, VillagerEntity villagerEntity) {
+		Brain<?> brain = villagerEntity.getBrain();
+		ImmutableSet<Block> immutableSet = villagerEntity.getVillagerData().getProfession().secondaryJobSites();
+		//大部分职业没有第二工作方块,无需扫描
+		if (immutableSet.isEmpty()) {
+			brain.forget(MemoryModuleType.SECONDARY_JOB_SITE);
+			return;
+		}
+
 		RegistryKey<World> registryKey = serverWorld.getRegistryKey();
 		BlockPos blockPos = villagerEntity.getBlockPos();
 		List<GlobalPos> list = Lists.<GlobalPos>newArrayList();
+		BlockPos.Mutable mutable = new BlockPos.Mutable();
 		int i = 4;
 
 		for (int j = -4; j <= 4; j++) {
 			for (int k = -2; k <= 2; k++) {
 				for (int l = -4; l <= 4; l++) {
-					BlockPos blockPos2 = blockPos.add(j, k, l);
-					if (villagerEntity.getVillagerData().getProfession().secondaryJobSites().contains(serverWorld.getBlockState(blockPos2).getBlock())) {
-						list.add(GlobalPos.create(registryKey, blockPos2));
+					mutable.set(blockPos, j, k, l);
+					if (immutableSet.contains(serverWorld.getBlockState(mutable).getBlock())) {
+						list.add(GlobalPos.create(registryKey, mutable.toImmutable()));
 					}
 				}
 			}
 		}
 
-		Brain<?> brain = villagerEntity.getBrain();
 		if (!list.isEmpty()) {
 			brain.remember(MemoryModuleType.SECONDARY_JOB_SITE, list);
 		} else {
@@ -0,0 +1,119 @@
+package net.minecraft.entity.ai.brain.sensor;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * Shares the living entity queries of sensors between the mobs of a server world
+ * within a tick.
+ *
+ * <p>Every mob running a {@link NearestLivingEntitiesSensor} queries the living
+ * entities around it, so in crowded places such as villager trading halls the
+ * same chunk sections are collected over and over. This cache collects the living
+ * entities of a range of chunk sections once per tick, and every query visiting
+ * exactly that range only filters the shared list by its own box. The list keeps
+ * the order in which the world visits the entities, so the result is the same as
+ * that of {@link net.minecraft.world.World#getEntitiesByClass}.
+ *
+ * <p>The lists are dropped at the start of every tick, and a list is dropped as
+ * soon as a living entity enters or leaves one of its sections, or the tracking
+ * status of one of its sections changes.
+ */
+public class SharedSensorCache {
+	private final ServerWorld world;
+	private final Map<SharedSensorCache.SectionRange, List<LivingEntity>> livingEntities = Maps.<SharedSensorCache.SectionRange, List<LivingEntity>>newHashMap();
+	private long time = Long.MIN_VALUE;
+
+	public SharedSensorCache(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * {@return the living entities other than {@code entity} that are alive and
+	 * intersect {@code box}}, in the order of {@link net.minecraft.world.World#getEntitiesByClass}.
+	 */
+	public List<LivingEntity> getLivingEntities(LivingEntity entity, Box box) {
+		long l = this.world.getTime();
+		if (l != this.time) {
+			this.time = l;
+			this.livingEntities.clear();
+		}
+
+		List<LivingEntity> list = (List<LivingEntity>)this.livingEntities.computeIfAbsent(SharedSensorCache.SectionRange.of(box), this::collect);
+		List<LivingEntity> list2 = Lists.<LivingEntity>newArrayList();
+
+		for (int i = 0; i < list.size(); i++) {
+			LivingEntity livingEntity = (LivingEntity)list.get(i);
+			if (livingEntity != entity && livingEntity.getBoundingBox().intersects(box) && livingEntity.isAlive()) {
+				list2.add(livingEntity);
+			}
+		}
+
+		return list2;
+	}
+
+	private List<LivingEntity> collect(SharedSensorCache.SectionRange range) {
+		return this.world.getEntitiesByClass(LivingEntity.class, range.getBox(), entity -> range.contains(entity.getBlockPos()));
+	}
+
+	/**
+	 * Drops the lists of the section ranges containing the section at {@code sectionPos}.
+	 */
+	public void onSectionChanged(long sectionPos) {
+		if (!this.livingEntities.isEmpty()) {
+			int i = ChunkSectionPos.unpackX(sectionPos);
+			int j = ChunkSectionPos.unpackY(sectionPos);
+			int k = ChunkSectionPos.unpackZ(sectionPos);
+			this.livingEntities.keySet().removeIf(range -> range.contains(i, j, k));
+		}
+	}
+
+	/**
+	 * The chunk sections {@link net.minecraft.world.entity.SectionedEntityCache#forEachInBox}
+	 * visits for a box.
+	 */
+	static record SectionRange(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		public static SharedSensorCache.SectionRange of(Box box) {
+			return new SharedSensorCache.SectionRange(
+				ChunkSectionPos.getSectionCoord(box.minX - 2.0),
+				ChunkSectionPos.getSectionCoord(box.minY - 4.0),
+				ChunkSectionPos.getSectionCoord(box.minZ - 2.0),
+				ChunkSectionPos.getSectionCoord(box.maxX + 2.0),
+				ChunkSectionPos.getSectionCoord(box.maxY + 0.0),
+				ChunkSectionPos.getSectionCoord(box.maxZ + 2.0)
+			);
+		}
+
+		public boolean contains(int sectionX, int sectionY, int sectionZ) {
+			return sectionX >= this.minX && sectionX <= this.maxX && sectionY >= this.minY && sectionY <= this.maxY && sectionZ >= this.minZ && sectionZ <= this.maxZ;
+		}
+
+		public boolean contains(BlockPos pos) {
+			return this.contains(
+				ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getY()), ChunkSectionPos.getSectionCoord(pos.getZ())
+			);
+		}
+
+		/**
+		 * {@return a box intersecting the bounding box of every entity positioned in
+		 * these sections}
+		 */
+		public Box getBox() {
+			return new Box(
+				(double)ChunkSectionPos.getBlockCoord(this.minX) - 1.0,
+				(double)ChunkSectionPos.getBlockCoord(this.minY) - 1.0,
+				(double)ChunkSectionPos.getBlockCoord(this.minZ) - 1.0,
+				(double)ChunkSectionPos.getBlockCoord(this.maxX + 1) + 1.0,
+				(double)ChunkSectionPos.getBlockCoord(this.maxY + 1) + 1.0,
+				(double)ChunkSectionPos.getBlockCoord(this.maxZ + 1) + 1.0
+			);
+		}
+	}
+}
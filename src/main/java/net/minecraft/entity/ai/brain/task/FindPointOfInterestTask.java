@@ -21,10 +21,16 @@ import net.minecraft.util.math.random.Random;
 import net.minecraft.world.poi.PointOfInterestStorage;
 import net.minecraft.world.poi.PointOfInterestType;
 import org.apache.commons.lang3.mutable.MutableLong;
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.jetbrains.annotations.Nullable;
 
 public class FindPointOfInterestTask {
 	public static final int POI_SORTING_RADIUS = 48;
+	/**
+	 * How far the entity can move from where a search found no point of interest
+	 * before it has to search again, even if no point of interest changed.
+	 */
+	private static final int WATCH_SLACK = 16;
 
 	public static Task<PathAwareEntity> create(
 		Predicate<RegistryEntry<PointOfInterestType>> poiPredicate, MemoryModuleType<GlobalPos> poiPosModule, boolean onlyRunIfChild, Optional<Byte> entityStatus
@@ -42,6 +48,7 @@ public class FindPointOfInterestTask {
 		int i = 5;
 		int j = 20;
 		MutableLong mutableLong = new MutableLong(0L);
+		MutableObject<PointOfInterestStorage.Watch> mutableObject = new MutableObject<>();
 		Long2ObjectMap<RetryMarker> long2ObjectMap = new Long2ObjectOpenHashMap<>();
 		SingleTickTask<PathAwareEntity> singleTickTask = TaskTriggerer.task(
 			taskContext -> taskContext.group(taskContext.queryMemoryAbsent(potentialPoiPosModule))
@@ -58,6 +65,16 @@ public class FindPointOfInterestTask {
 								} else {
 									mutableLong.setValue(time + 20L + (long)world.getRandom().nextInt(20));
 									PointOfInterestStorage pointOfInterestStorage = world.getPointOfInterestStorage();
+									PointOfInterestStorage.Watch watch = mutableObject.getValue();
+									if (watch != null) {
+										if (entity.getBlockPos().isWithinDistance(watch.center(), (double)WATCH_SLACK) && !pointOfInterestStorage.hasChanged(watch)) {
+											pointOfInterestStorage.onQuerySkipped();
+											return true;
+										}
+
+										mutableObject.setValue(null);
+									}
+
 									long2ObjectMap.long2ObjectEntrySet().removeIf(entry -> !((RetryMarker)entry.getValue()).isAttempting(time));
 									Predicate<BlockPos> predicate2 = pos -> {
 										RetryMarker retryMarker = long2ObjectMap.get(pos.asLong());
@@ -85,6 +102,12 @@ public class FindPointOfInterestTask {
 											long2ObjectMap.clear();
 											DebugInfoSender.sendPointOfInterest(world, blockPos);
 										});
+									} else if (set.isEmpty()) {
+										BlockPos blockPos = entity.getBlockPos();
+										int k = 48 + WATCH_SLACK;
+										if (pointOfInterestStorage.count(poiPredicate, blockPos, k, PointOfInterestStorage.OccupationStatus.HAS_SPACE) == 0L) {
+											mutableObject.setValue(pointOfInterestStorage.watch(blockPos, k));
+										}
 									} else {
 										for (Pair<RegistryEntry<PointOfInterestType>, BlockPos> pair : set) {
 											long2ObjectMap.computeIfAbsent(
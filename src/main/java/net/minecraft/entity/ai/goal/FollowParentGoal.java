@@ -51,6 +51,17 @@ public class FollowParentGoal extends Goal {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>Looking for a parent searches the entities around the animal, so a baby only
+	 * looks again as often as a following baby updates its path to the parent.
+	 */
+	@Override
+	public int getStartCheckInterval() {
+		return this.getTickCount(10);
+	}
+
 	@Override
 	public boolean shouldContinue() {
 		if (this.animal.getBreedingAge() >= 0) {
@@ -5,6 +5,7 @@ import net.minecraft.util.math.MathHelper;
 
 public abstract class Goal {
 	private final EnumSet<Control> controls = EnumSet.noneOf(Control.class);
+	private int controlBits;
 
 	public abstract boolean canStart();
 
@@ -38,9 +39,31 @@ public abstract class Goal {
 	public void tick() {
 	}
 
+	/**
+	 * {@return the number of goal selector updates between two calls to
+	 * {@link #canStart()} while this goal is not running}
+	 * 
+	 * <p>This returns {@code 1} by default, which checks the goal on every update.
+	 * Goals whose start condition only changes slowly can return a larger interval,
+	 * at the cost of starting up to that many updates late. Note that this also
+	 * changes how often a randomized start condition is rolled.
+	 */
+	public int getStartCheckInterval() {
+		return 1;
+	}
+
 	public void setControls(EnumSet<Control> controls) {
 		this.controls.clear();
 		this.controls.addAll(controls);
+		this.controlBits = Control.toBits(controls);
+	}
+
+	/**
+	 * {@return the {@linkplain Control#getBit bits} of the controls set by
+	 * {@link #setControls}}
+	 */
+	public int getControlBits() {
+		return this.controlBits;
 	}
 
 	public String toString() {
@@ -67,5 +90,21 @@ public abstract class Goal {
 		LOOK,
 		JUMP,
 		TARGET;
+
+		private final int bit = 1 << this.ordinal();
+
+		public int getBit() {
+			return this.bit;
+		}
+
+		public static int toBits(EnumSet<Control> controls) {
+			int i = 0;
+
+			for (Control control : controls) {
+				i |= control.bit;
+			}
+
+			return i;
+		}
 	}
 }
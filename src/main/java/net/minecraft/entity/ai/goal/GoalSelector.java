@@ -3,12 +3,7 @@ package net.minecraft.entity.ai.goal;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import com.mojang.logging.LogUtils;
-import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
-import java.util.Map.Entry;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -27,6 +22,10 @@ import org.slf4j.Logger;
  * <p>If two goals have the same priority and are competing for the same control, then one
  * goal cannot replace the other if it's running. The goal selector tries to run goals in the order
  * they were added.
+ * 
+ * <p>Controls are tracked as {@linkplain Goal#getControlBits bits}, and a goal that is not
+ * running is only checked every {@linkplain Goal#getStartCheckInterval start check interval}
+ * updates.
  */
 public class GoalSelector {
 	private static final Logger LOGGER = LogUtils.getLogger();
@@ -41,10 +40,13 @@ public class GoalSelector {
 			return false;
 		}
 	};
-	private final Map<Goal.Control, PrioritizedGoal> goalsByControl = new EnumMap(Goal.Control.class);
+	/**
+	 * The goal holding each control, indexed by the ordinal of the control.
+	 */
+	private final PrioritizedGoal[] goalsByControl = new PrioritizedGoal[Goal.Control.values().length];
 	private final Set<PrioritizedGoal> goals = Sets.<PrioritizedGoal>newLinkedHashSet();
 	private final Supplier<Profiler> profiler;
-	private final EnumSet<Goal.Control> disabledControls = EnumSet.noneOf(Goal.Control.class);
+	private int disabledControls;
 	private int field_30212;
 	private int timeInterval = 3;
 
@@ -70,21 +72,21 @@ public class GoalSelector {
 		this.goals.removeIf(prioritizedGoal -> prioritizedGoal.getGoal() == goal);
 	}
 
-	private static boolean usesAny(PrioritizedGoal goal, EnumSet<Goal.Control> controls) {
-		for (Goal.Control control : goal.getControls()) {
-			if (controls.contains(control)) {
-				return true;
-			}
-		}
-
-		return false;
+	private static boolean usesAny(PrioritizedGoal goal, int controls) {
+		return (goal.getControlBits() & controls) != 0;
 	}
 
-	private static boolean canReplaceAll(PrioritizedGoal goal, Map<Goal.Control, PrioritizedGoal> goalsByControl) {
-		for (Goal.Control control : goal.getControls()) {
-			if (!((PrioritizedGoal)goalsByControl.getOrDefault(control, REPLACEABLE_GOAL)).canBeReplacedBy(goal)) {
+	private static boolean canReplaceAll(PrioritizedGoal goal, PrioritizedGoal[] goalsByControl) {
+		int i = goal.getControlBits();
+
+		while (i != 0) {
+			int j = Integer.numberOfTrailingZeros(i);
+			PrioritizedGoal prioritizedGoal = goalsByControl[j];
+			if (!(prioritizedGoal != null ? prioritizedGoal : REPLACEABLE_GOAL).canBeReplacedBy(goal)) {
 				return false;
 			}
+
+			i &= i - 1;
 		}
 
 		return true;
@@ -100,12 +102,10 @@ public class GoalSelector {
 			}
 		}
 
-		Iterator<Entry<Goal.Control, PrioritizedGoal>> iterator = this.goalsByControl.entrySet().iterator();
-
-		while (iterator.hasNext()) {
-			Entry<Goal.Control, PrioritizedGoal> entry = (Entry<Goal.Control, PrioritizedGoal>)iterator.next();
-			if (!((PrioritizedGoal)entry.getValue()).isRunning()) {
-				iterator.remove();
+		for (int i = 0; i < this.goalsByControl.length; i++) {
+			PrioritizedGoal prioritizedGoal = this.goalsByControl[i];
+			if (prioritizedGoal != null && !prioritizedGoal.isRunning()) {
+				this.goalsByControl[i] = null;
 			}
 		}
 
@@ -116,11 +116,19 @@ public class GoalSelector {
 			if (!prioritizedGoalx.isRunning()
 				&& !usesAny(prioritizedGoalx, this.disabledControls)
 				&& canReplaceAll(prioritizedGoalx, this.goalsByControl)
+				&& prioritizedGoalx.isStartCheckDue()
 				&& prioritizedGoalx.canStart()) {
-				for (Goal.Control control : prioritizedGoalx.getControls()) {
-					PrioritizedGoal prioritizedGoal2 = (PrioritizedGoal)this.goalsByControl.getOrDefault(control, REPLACEABLE_GOAL);
-					prioritizedGoal2.stop();
-					this.goalsByControl.put(control, prioritizedGoalx);
+				int j = prioritizedGoalx.getControlBits();
+
+				while (j != 0) {
+					int k = Integer.numberOfTrailingZeros(j);
+					PrioritizedGoal prioritizedGoal2 = this.goalsByControl[k];
+					if (prioritizedGoal2 != null) {
+						prioritizedGoal2.stop();
+					}
+
+					this.goalsByControl[k] = prioritizedGoalx;
+					j &= j - 1;
 				}
 
 				prioritizedGoalx.start();
@@ -157,11 +165,11 @@ public class GoalSelector {
 	}
 
 	public void disableControl(Goal.Control control) {
-		this.disabledControls.add(control);
+		this.disabledControls |= control.getBit();
 	}
 
 	public void enableControl(Goal.Control control) {
-		this.disabledControls.remove(control);
+		this.disabledControls &= ~control.getBit();
 	}
 
 	public void setControlEnabled(Goal.Control control, boolean enabled) {
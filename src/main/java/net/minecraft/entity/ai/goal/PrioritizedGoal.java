@@ -7,6 +7,7 @@ public class PrioritizedGoal extends Goal {
 	private final Goal goal;
 	private final int priority;
 	private boolean running;
+	private int startCheckCooldown;
 
 	public PrioritizedGoal(int priority, Goal goal) {
 		this.priority = priority;
@@ -73,6 +74,29 @@ public class PrioritizedGoal extends Goal {
 		return this.goal.getControls();
 	}
 
+	@Override
+	public int getControlBits() {
+		return this.goal.getControlBits();
+	}
+
+	@Override
+	public int getStartCheckInterval() {
+		return this.goal.getStartCheckInterval();
+	}
+
+	/**
+	 * {@return whether {@link #canStart()} should be called in this update}, counting
+	 * down the {@linkplain Goal#getStartCheckInterval start check interval} of the goal.
+	 */
+	public boolean isStartCheckDue() {
+		if (--this.startCheckCooldown > 0) {
+			return false;
+		} else {
+			this.startCheckCooldown = this.goal.getStartCheckInterval();
+			return true;
+		}
+	}
+
 	public boolean isRunning() {
 		return this.running;
 	}
@@ -25,6 +25,7 @@ public class AmphibiousPathNodeMaker extends LandPathNodeMaker {
 		entity.setPathfindingPenalty(PathNodeType.WALKABLE, 6.0F);
 		this.oldWaterBorderPenalty = entity.getPathfindingPenalty(PathNodeType.WATER_BORDER);
 		entity.setPathfindingPenalty(PathNodeType.WATER_BORDER, 4.0F);
+		this.captureEntityState();
 	}
 
 	@Override
@@ -108,7 +109,7 @@ public class AmphibiousPathNodeMaker extends LandPathNodeMaker {
 
 			return PathNodeType.WATER;
 		} else {
-			return getLandNodeType(world, mutable);
+			return this.getCachedLandNodeType(world, mutable);
 		}
 	}
 }
@@ -0,0 +1,101 @@
+package net.minecraft.entity.ai.pathing;
+
+import com.mojang.logging.LogUtils;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.SnapshotChunkCache;
+import org.slf4j.Logger;
+
+/**
+ * Runs path searches of a server world on the worker executor.
+ *
+ * <p>A search reads the blocks of a {@link SnapshotChunkCache} taken when it was
+ * submitted and the state of the mob captured then, the pathfinding hooks of the
+ * mob running on the server thread, and its path is applied by the submitting
+ * {@link EntityNavigation} on a later tick. The latency of the searches and the number of searches
+ * submitted, completed, applied and discarded are written to the world's debug
+ * dump.
+ *
+ * @see net.minecraft.world.GameRules#ASYNC_PATHFINDING
+ */
+public class AsyncPathfinder {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong totalSearchNanos = new AtomicLong();
+	private final SnapshotChunkCache.Snapshots snapshots = new SnapshotChunkCache.Snapshots();
+	private long submitted;
+	private long applied;
+	private long discarded;
+	private long totalAppliedTicks;
+
+	/**
+	 * Creates a snapshot of the blocks between {@code minPos} and {@code maxPos} for a
+	 * search, sharing the copies of the chunk sections with the other snapshots
+	 * created in the same tick.
+	 */
+	public SnapshotChunkCache createChunkCache(World world, BlockPos minPos, BlockPos maxPos) {
+		return new SnapshotChunkCache(world, minPos, maxPos, this.snapshots);
+	}
+
+	/**
+	 * Submits a search with its own node navigator, which must not be used by
+	 * anything else until the returned future completes. The search is prepared
+	 * on the calling thread, which must be the one ticking {@code mob}.
+	 * 
+	 * @see PathNodeNavigator#prepareSearch
+	 */
+	public CompletableFuture<Path> submit(
+		PathNodeNavigator navigator, SnapshotChunkCache world, MobEntity mob, Set<BlockPos> positions, float followRange, int distance, float rangeMultiplier
+	) {
+		this.submitted++;
+		Supplier<Path> supplier = navigator.prepareSearch(world, mob, positions, followRange, distance, rangeMultiplier);
+		return CompletableFuture.supplyAsync(() -> {
+			long l = Util.getMeasuringTimeNano();
+			Path path = (Path)supplier.get();
+			this.totalSearchNanos.addAndGet(Util.getMeasuringTimeNano() - l);
+			this.completed.incrementAndGet();
+			return path;
+		}, Util.getMainWorkerExecutor()).exceptionally(throwable -> {
+			LOGGER.error("Failed to find path for {}", mob, throwable);
+			return null;
+		});
+	}
+
+	/**
+	 * Records that the path of a search was applied the given number of ticks
+	 * after it was submitted.
+	 */
+	public void onApplied(long ticks) {
+		this.applied++;
+		this.totalAppliedTicks += ticks;
+	}
+
+	/**
+	 * Records that a search was superseded before its path could be applied.
+	 */
+	public void onDiscarded() {
+		this.discarded++;
+	}
+
+	public String getDebugString() {
+		long l = this.completed.get();
+		return String.format(
+			Locale.ROOT,
+			"submitted: %d, completed: %d, applied: %d, discarded: %d, avg search: %.3f ms, avg latency: %.2f ticks, %s",
+			this.submitted,
+			l,
+			this.applied,
+			this.discarded,
+			l == 0L ? 0.0 : (double)this.totalSearchNanos.get() / (double)l / 1000000.0,
+			this.applied == 0L ? 0.0 : (double)this.totalAppliedTicks / (double)this.applied,
+			this.snapshots.getDebugString()
+		);
+	}
+}
@@ -25,6 +25,7 @@ public class BirdPathNodeMaker extends LandPathNodeMaker {
 		super.init(cachedWorld, entity);
 		this.pathNodes.clear();
 		entity.onStartPathfinding();
+		this.captureEntityState();
 	}
 
 	@Override
@@ -1,7 +1,11 @@
 package net.minecraft.entity.ai.pathing;
 
 import com.google.common.collect.ImmutableSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.minecraft.block.BlockState;
@@ -10,20 +14,24 @@ import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.server.network.DebugInfoSender;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.RaycastContext;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkCache;
+import net.minecraft.world.chunk.SnapshotChunkCache;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class EntityNavigation {
 	private static final int RECALCULATE_COOLDOWN = 20;
 	private static final int field_41545 = 100;
 	private static final float field_41546 = 0.25F;
+	private static final int MIN_ROUTED_DISTANCE = 32;
 	protected final MobEntity entity;
 	protected final World world;
 	@Nullable
@@ -50,6 +58,11 @@ public abstract class EntityNavigation {
 	private float rangeMultiplier = 1.0F;
 	private final PathNodeNavigator pathNodeNavigator;
 	private boolean nearPathStartPos;
+	@Nullable
+	private CompletableFuture<Path> pendingPath;
+	private long pendingPathTime;
+	private int pendingPathDistance;
+	private boolean submittingAsyncRequest;
 
 	public EntityNavigation(MobEntity entity, World world) {
 		this.entity = entity;
@@ -80,8 +93,24 @@ public abstract class EntityNavigation {
 	public void recalculatePath() {
 		if (this.world.getTime() - this.lastRecalculateTime > 20L) {
 			if (this.currentTarget != null) {
-				this.currentPath = null;
-				this.currentPath = this.findPathTo(this.currentTarget, this.currentDistance);
+				if (this.shouldPathfindAsync()) {
+					this.submittingAsyncRequest = true;
+
+					Path path;
+					try {
+						path = this.findPathTo(this.currentTarget, this.currentDistance);
+					} finally {
+						this.submittingAsyncRequest = false;
+					}
+
+					if (this.pendingPath == null) {
+						this.currentPath = path;
+					}
+				} else {
+					this.currentPath = null;
+					this.currentPath = this.findPathTo(this.currentTarget, this.currentDistance);
+				}
+
 				this.lastRecalculateTime = this.world.getTime();
 				this.inRecalculationCooldown = false;
 			}
@@ -133,14 +162,29 @@ public abstract class EntityNavigation {
 			return null;
 		} else if (!this.isAtValidPosition()) {
 			return null;
-		} else if (this.currentPath != null && !this.currentPath.isFinished() && positions.contains(this.currentTarget)) {
+		} else if (!this.submittingAsyncRequest && this.currentPath != null && !this.currentPath.isFinished() && positions.contains(this.currentTarget)) {
 			return this.currentPath;
 		} else {
 			this.world.getProfiler().push("pathfind");
 			BlockPos blockPos = useHeadPos ? this.entity.getBlockPos().up() : this.entity.getBlockPos();
 			int i = (int)(followRange + (float)range);
-			ChunkCache chunkCache = new ChunkCache(this.world, blockPos.add(-i, -i, -i), blockPos.add(i, i, i));
-			Path path = this.pathNodeNavigator.findPathToAny(chunkCache, this.entity, positions, followRange, distance, this.rangeMultiplier);
+			if (this.submittingAsyncRequest) {
+				this.submitAsyncRequest((ServerWorld)this.world, blockPos, i, positions, followRange, distance);
+				this.world.getProfiler().pop();
+				return null;
+			}
+
+			Path path;
+			if (this.world instanceof ServerWorld serverWorld) {
+				path = this.findRoutedPath(serverWorld, blockPos, i, positions, followRange);
+				if (path == null) {
+					path = this.findPathToAny(serverWorld, blockPos, i, positions, followRange, distance);
+				}
+			} else {
+				path = this.pathNodeNavigator
+					.findPathToAny(new ChunkCache(this.world, blockPos.add(-i, -i, -i), blockPos.add(i, i, i)), this.entity, positions, followRange, distance, this.rangeMultiplier);
+			}
+
 			this.world.getProfiler().pop();
 			if (path != null && path.getTarget() != null) {
 				this.currentTarget = path.getTarget();
@@ -152,6 +196,131 @@ public abstract class EntityNavigation {
 		}
 	}
 
+	/**
+	 * Finds a path through the {@linkplain ServerWorld#getPathCache path cache} of
+	 * {@code world}, running the search only if no recent path of the same search
+	 * is cached.
+	 */
+	@Nullable
+	private Path findPathToAny(ServerWorld world, BlockPos start, int range, Set<BlockPos> positions, float followRange, int distance) {
+		PathCache pathCache = world.getPathCache();
+		PathCache.Key key = PathCache.createKey(
+			this.entity, this.nodeMaker, this.pathNodeNavigator.getRange(), positions, followRange, distance, this.rangeMultiplier
+		);
+		if (key != null) {
+			Path path = pathCache.get(key, world.getTime());
+			if (path != null) {
+				return path;
+			}
+		}
+
+		ChunkCache chunkCache = new ChunkCache(world, start.add(-range, -range, -range), start.add(range, range, range));
+		Path path2 = this.pathNodeNavigator.findPathToAny(chunkCache, this.entity, positions, followRange, distance, this.rangeMultiplier);
+		if (key != null && path2 != null) {
+			LongSet longSet = new LongOpenHashSet();
+			this.pathNodeNavigator.collectSweptSections(longSet);
+			pathCache.put(key, path2, longSet, world.getTime());
+		}
+
+		return path2;
+	}
+
+	/**
+	 * Finds a path towards a single far away target along a route of the world's
+	 * {@link SectionPortalGraph}, searching the blocks only up to the furthest
+	 * waypoint of the route within three quarters of {@code followRange}.
+	 * 
+	 * @return a path that does not reach the target, or {@code null} if the target
+	 * is not routed or no path to the waypoint was found
+	 */
+	@Nullable
+	private Path findRoutedPath(ServerWorld world, BlockPos start, int range, Set<BlockPos> positions, float followRange) {
+		if (positions.size() == 1
+			&& world.getGameRules().getBoolean(GameRules.HIERARCHICAL_PATHFINDING)
+			&& this.nodeMaker.getClass() == LandPathNodeMaker.class
+			&& !this.entity.hasVehicle()) {
+			BlockPos blockPos = (BlockPos)positions.iterator().next();
+			if (this.entity.getBlockPos().isWithinDistance(blockPos, (double)MIN_ROUTED_DISTANCE)) {
+				return null;
+			} else {
+				List<BlockPos> list = world.getSectionPortalGraph().findRoute(this.entity.getBlockPos(), blockPos);
+				if (list == null) {
+					return null;
+				} else {
+					double d = (double)(followRange * 0.75F);
+					BlockPos blockPos2 = null;
+
+					for (BlockPos blockPos3 : list) {
+						if (blockPos3.isWithinDistance(this.entity.getPos(), d)) {
+							blockPos2 = blockPos3;
+						}
+					}
+
+					if (blockPos2 != null && !blockPos2.equals(blockPos)) {
+						Path path = this.findPathToAny(world, start, range, ImmutableSet.of(blockPos2), followRange, 1);
+						return path != null && path.reachesTarget() ? path.toPartialPath(blockPos) : null;
+					} else {
+						return null;
+					}
+				}
+			}
+		} else {
+			return null;
+		}
+	}
+
+	private boolean shouldPathfindAsync() {
+		return this.world instanceof ServerWorld serverWorld
+			&& serverWorld.getGameRules().getBoolean(GameRules.ASYNC_PATHFINDING)
+			&& this.nodeMaker.getClass() == LandPathNodeMaker.class
+			&& !this.entity.hasVehicle();
+	}
+
+	/**
+	 * Submits the search for a path to {@code positions} to the world's {@link AsyncPathfinder},
+	 * with a node navigator of its own, a snapshot of the blocks in range and of the
+	 * state of the entity. The path is applied by {@link #tick} once the search completes.
+	 */
+	private void submitAsyncRequest(ServerWorld world, BlockPos start, int range, Set<BlockPos> positions, float followRange, int distance) {
+		this.discardPendingPath();
+		LandPathNodeMaker landPathNodeMaker = new LandPathNodeMaker();
+		landPathNodeMaker.setCanEnterOpenDoors(this.nodeMaker.canEnterOpenDoors());
+		landPathNodeMaker.setCanOpenDoors(this.nodeMaker.canOpenDoors());
+		landPathNodeMaker.setCanSwim(this.nodeMaker.canSwim());
+		landPathNodeMaker.setCanWalkOverFences(this.nodeMaker.canWalkOverFences());
+		PathNodeNavigator pathNodeNavigator = new PathNodeNavigator(landPathNodeMaker, this.pathNodeNavigator.getRange());
+		AsyncPathfinder asyncPathfinder = world.getAsyncPathfinder();
+		SnapshotChunkCache snapshotChunkCache = asyncPathfinder.createChunkCache(world, start.add(-range, -range, -range), start.add(range, range, range));
+		this.pendingPath = asyncPathfinder
+			.submit(pathNodeNavigator, snapshotChunkCache, this.entity, ImmutableSet.copyOf(positions), followRange, distance, this.rangeMultiplier);
+		this.pendingPathTime = world.getTime();
+		this.pendingPathDistance = distance;
+	}
+
+	/**
+	 * Applies the path of the pending search, if it has completed.
+	 */
+	private void applyPendingPath() {
+		if (this.pendingPath != null && this.pendingPath.isDone()) {
+			Path path = (Path)this.pendingPath.join();
+			this.pendingPath = null;
+			((ServerWorld)this.world).getAsyncPathfinder().onApplied(this.world.getTime() - this.pendingPathTime);
+			this.currentPath = path;
+			if (path != null && path.getTarget() != null) {
+				this.currentTarget = path.getTarget();
+				this.currentDistance = this.pendingPathDistance;
+				this.resetNode();
+			}
+		}
+	}
+
+	private void discardPendingPath() {
+		if (this.pendingPath != null) {
+			this.pendingPath = null;
+			((ServerWorld)this.world).getAsyncPathfinder().onDiscarded();
+		}
+	}
+
 	public boolean startMovingTo(double x, double y, double z, double speed) {
 		return this.startMovingAlong(this.findPathTo(x, y, z, 1), speed);
 	}
@@ -163,10 +332,12 @@ public abstract class EntityNavigation {
 
 	public boolean startMovingAlong(@Nullable Path path, double speed) {
 		if (path == null) {
+			this.discardPendingPath();
 			this.currentPath = null;
 			return false;
 		} else {
 			if (!path.equalsPath(this.currentPath)) {
+				this.discardPendingPath();
 				this.currentPath = path;
 			}
 
@@ -194,6 +365,7 @@ public abstract class EntityNavigation {
 
 	public void tick() {
 		this.tickCount++;
+		this.applyPendingPath();
 		if (this.inRecalculationCooldown) {
 			this.recalculatePath();
 		}
@@ -323,6 +495,7 @@ public abstract class EntityNavigation {
 	}
 
 	public void stop() {
+		this.discardPendingPath();
 		this.currentPath = null;
 	}
 
@@ -15,38 +15,103 @@ import net.minecraft.block.CampfireBlock;
 import net.minecraft.block.DoorBlock;
 import net.minecraft.block.FenceGateBlock;
 import net.minecraft.block.LeavesBlock;
+import net.minecraft.block.ShapeContext;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.fluid.Fluids;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.function.BooleanBiFunction;
 import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import net.minecraft.world.BlockCollisionSpliterator;
 import net.minecraft.world.BlockView;
+import net.minecraft.world.border.WorldBorder;
 import net.minecraft.world.chunk.ChunkCache;
 import org.jetbrains.annotations.Nullable;
 
 public class LandPathNodeMaker extends PathNodeMaker {
 	public static final double Y_OFFSET = 0.5;
 	private static final double MIN_STEP_HEIGHT = 1.125;
+	private static final PathNodeType[] NODE_TYPES = PathNodeType.values();
 	private final Long2ObjectMap<PathNodeType> nodeTypes = new Long2ObjectOpenHashMap<>();
 	private final Object2BooleanMap<Box> collidedBoxes = new Object2BooleanOpenHashMap<>();
+	@Nullable
+	private PathNodeTypeCache nodeTypeCache;
+	private final float[] entityPathfindingPenalties = new float[NODE_TYPES.length];
+	private BlockPos entityBlockPos = BlockPos.ORIGIN;
+	private Vec3d entityPos = Vec3d.ZERO;
+	private Box entityBoundingBox = new Box(BlockPos.ORIGIN);
+	private float entityWidth;
+	private float entityHeight;
+	private float entityStepHeight;
+	private int entitySafeFallDistance;
+	private ShapeContext entityShapeContext = ShapeContext.absent();
+	private boolean entityPathfindingFinished;
 
 	@Override
 	public void init(ChunkCache cachedWorld, MobEntity entity) {
 		super.init(cachedWorld, entity);
 		entity.onStartPathfinding();
+		if (entity.getWorld() instanceof ServerWorld serverWorld && serverWorld.getServer().isOnThread()) {
+			this.nodeTypeCache = serverWorld.getPathNodeTypeCache();
+		} else {
+			this.nodeTypeCache = null;
+		}
+
+		this.captureEntityState();
+	}
+
+	/**
+	 * Captures the state of the entity read while searching, once it has started
+	 * pathfinding. Node makers changing the entity in {@link #init} capture it again
+	 * afterwards.
+	 */
+	protected void captureEntityState() {
+		for (PathNodeType pathNodeType : NODE_TYPES) {
+			this.entityPathfindingPenalties[pathNodeType.ordinal()] = this.entity.getPathfindingPenalty(pathNodeType);
+		}
+
+		this.entityBlockPos = this.entity.getBlockPos();
+		this.entityPos = this.entity.getPos();
+		this.entityBoundingBox = this.entity.getBoundingBox();
+		this.entityWidth = this.entity.getWidth();
+		this.entityHeight = this.entity.getHeight();
+		this.entityStepHeight = this.entity.getStepHeight();
+		this.entitySafeFallDistance = this.entity.getSafeFallDistance();
+		this.entityShapeContext = ShapeContext.of(this.entity);
+	}
+
+	/**
+	 * Lets the entity finish pathfinding before the successors are searched, so that
+	 * the search can go on on another thread while the entity keeps ticking. The
+	 * search then reads the state captured by {@link #init}, and {@link #clear} no
+	 * longer touches the entity. The search also stops using the node type cache of
+	 * the world, which only the server thread may read and write, and computes the
+	 * node types from the blocks of the chunk cache instead.
+	 */
+	public void finishEntityPathfinding() {
+		this.entity.onFinishPathfinding();
+		this.entityPathfindingFinished = true;
+		this.nodeTypeCache = null;
 	}
 
 	@Override
 	public void clear() {
-		this.entity.onFinishPathfinding();
+		if (!this.entityPathfindingFinished) {
+			this.entity.onFinishPathfinding();
+		}
+
+		this.entityPathfindingFinished = false;
 		this.nodeTypes.clear();
 		this.collidedBoxes.clear();
+		this.nodeTypeCache = null;
 		super.clear();
 	}
 
@@ -107,13 +172,13 @@ public class LandPathNodeMaker extends PathNodeMaker {
 	protected PathNode getStart(BlockPos pos) {
 		PathNode pathNode = this.getNode(pos);
 		pathNode.type = this.getNodeType(this.entity, pathNode.getBlockPos());
-		pathNode.penalty = this.entity.getPathfindingPenalty(pathNode.type);
+		pathNode.penalty = this.getPathfindingPenalty(pathNode.type);
 		return pathNode;
 	}
 
 	protected boolean canPathThrough(BlockPos pos) {
 		PathNodeType pathNodeType = this.getNodeType(this.entity, pos);
-		return pathNodeType != PathNodeType.OPEN && this.entity.getPathfindingPenalty(pathNodeType) >= 0.0F;
+		return pathNodeType != PathNodeType.OPEN && this.getPathfindingPenalty(pathNodeType) >= 0.0F;
 	}
 
 	@Override
@@ -127,8 +192,8 @@ public class LandPathNodeMaker extends PathNodeMaker {
 		int j = 0;
 		PathNodeType pathNodeType = this.getNodeType(this.entity, node.x, node.y + 1, node.z);
 		PathNodeType pathNodeType2 = this.getNodeType(this.entity, node.x, node.y, node.z);
-		if (this.entity.getPathfindingPenalty(pathNodeType) >= 0.0F && pathNodeType2 != PathNodeType.STICKY_HONEY) {
-			j = MathHelper.floor(Math.max(1.0F, this.entity.getStepHeight()));
+		if (this.getPathfindingPenalty(pathNodeType) >= 0.0F && pathNodeType2 != PathNodeType.STICKY_HONEY) {
+			j = MathHelper.floor(Math.max(1.0F, this.entityStepHeight));
 		}
 
 		double d = this.getFeetY(new BlockPos(node.x, node.y, node.z));
@@ -187,7 +252,7 @@ public class LandPathNodeMaker extends PathNodeMaker {
 		} else if (xDiagNode.y > xNode.y || zNode.y > xNode.y) {
 			return false;
 		} else if (zNode.type != PathNodeType.WALKABLE_DOOR && xDiagNode.type != PathNodeType.WALKABLE_DOOR && zDiagNode.type != PathNodeType.WALKABLE_DOOR) {
-			boolean bl = xDiagNode.type == PathNodeType.FENCE && zNode.type == PathNodeType.FENCE && (double)this.entity.getWidth() < 0.5;
+			boolean bl = xDiagNode.type == PathNodeType.FENCE && zNode.type == PathNodeType.FENCE && (double)this.entityWidth < 0.5;
 			return zDiagNode.penalty >= 0.0F && (xDiagNode.y < xNode.y || xDiagNode.penalty >= 0.0F || bl) && (zNode.y < xNode.y || zNode.penalty >= 0.0F || bl);
 		} else {
 			return false;
@@ -199,11 +264,11 @@ public class LandPathNodeMaker extends PathNodeMaker {
 	}
 
 	private boolean isBlocked(PathNode node) {
-		Box box = this.entity.getBoundingBox();
+		Box box = this.entityBoundingBox;
 		Vec3d vec3d = new Vec3d(
-			(double)node.x - this.entity.getX() + box.getXLength() / 2.0,
-			(double)node.y - this.entity.getY() + box.getYLength() / 2.0,
-			(double)node.z - this.entity.getZ() + box.getZLength() / 2.0
+			(double)node.x - this.entityPos.x + box.getXLength() / 2.0,
+			(double)node.y - this.entityPos.y + box.getYLength() / 2.0,
+			(double)node.z - this.entityPos.z + box.getZLength() / 2.0
 		);
 		int i = MathHelper.ceil(vec3d.length() / box.getAverageSideLength());
 		vec3d = vec3d.multiply((double)(1.0F / (float)i));
@@ -243,8 +308,8 @@ public class LandPathNodeMaker extends PathNodeMaker {
 			return null;
 		} else {
 			PathNodeType pathNodeType = this.getNodeType(this.entity, x, y, z);
-			float f = this.entity.getPathfindingPenalty(pathNodeType);
-			double e = (double)this.entity.getWidth() / 2.0;
+			float f = this.getPathfindingPenalty(pathNodeType);
+			double e = (double)this.entityWidth / 2.0;
 			if (f >= 0.0F) {
 				pathNode = this.getNodeWith(x, y, z, pathNodeType, f);
 			}
@@ -261,7 +326,7 @@ public class LandPathNodeMaker extends PathNodeMaker {
 					&& pathNodeType != PathNodeType.TRAPDOOR
 					&& pathNodeType != PathNodeType.POWDER_SNOW) {
 					pathNode = this.getPathNode(x, y + 1, z, maxYStep - 1, prevFeetY, direction, nodeType);
-					if (pathNode != null && (pathNode.type == PathNodeType.OPEN || pathNode.type == PathNodeType.WALKABLE) && this.entity.getWidth() < 1.0F) {
+					if (pathNode != null && (pathNode.type == PathNodeType.OPEN || pathNode.type == PathNodeType.WALKABLE) && this.entityWidth < 1.0F) {
 						double g = (double)(x - direction.getOffsetX()) + 0.5;
 						double h = (double)(z - direction.getOffsetZ()) + 0.5;
 						Box box = new Box(
@@ -269,7 +334,7 @@ public class LandPathNodeMaker extends PathNodeMaker {
 							this.getFeetY(mutable.set(g, (double)(y + 1), h)) + 0.001,
 							h - e,
 							g + e,
-							(double)this.entity.getHeight() + this.getFeetY(mutable.set((double)pathNode.x, (double)pathNode.y, (double)pathNode.z)) - 0.002,
+							(double)this.entityHeight + this.getFeetY(mutable.set((double)pathNode.x, (double)pathNode.y, (double)pathNode.z)) - 0.002,
 							h + e
 						);
 						if (this.checkBoxCollision(box)) {
@@ -283,13 +348,13 @@ public class LandPathNodeMaker extends PathNodeMaker {
 						return pathNode;
 					}
 
-					while (y > this.entity.getWorld().getBottomY()) {
+					while (y > this.cachedWorld.getBottomY()) {
 						pathNodeType = this.getNodeType(this.entity, x, --y, z);
 						if (pathNodeType != PathNodeType.WATER) {
 							return pathNode;
 						}
 
-						pathNode = this.getNodeWith(x, y, z, pathNodeType, this.entity.getPathfindingPenalty(pathNodeType));
+						pathNode = this.getNodeWith(x, y, z, pathNodeType, this.getPathfindingPenalty(pathNodeType));
 					}
 				}
 
@@ -298,16 +363,16 @@ public class LandPathNodeMaker extends PathNodeMaker {
 					int j = y;
 
 					while (pathNodeType == PathNodeType.OPEN) {
-						if (--y < this.entity.getWorld().getBottomY()) {
+						if (--y < this.cachedWorld.getBottomY()) {
 							return this.getBlockedNode(x, j, z);
 						}
 
-						if (i++ >= this.entity.getSafeFallDistance()) {
+						if (i++ >= this.entitySafeFallDistance) {
 							return this.getBlockedNode(x, y, z);
 						}
 
 						pathNodeType = this.getNodeType(this.entity, x, y, z);
-						f = this.entity.getPathfindingPenalty(pathNodeType);
+						f = this.getPathfindingPenalty(pathNodeType);
 						if (pathNodeType != PathNodeType.OPEN && f >= 0.0F) {
 							pathNode = this.getNodeWith(x, y, z, pathNodeType, f);
 							break;
@@ -334,7 +399,11 @@ public class LandPathNodeMaker extends PathNodeMaker {
 	}
 
 	private double getStepHeight() {
-		return Math.max(1.125, (double)this.entity.getStepHeight());
+		return Math.max(1.125, (double)this.entityStepHeight);
+	}
+
+	private float getPathfindingPenalty(PathNodeType nodeType) {
+		return this.entityPathfindingPenalties[nodeType.ordinal()];
 	}
 
 	private PathNode getNodeWith(int x, int y, int z, PathNodeType type, float penalty) {
@@ -352,14 +421,49 @@ public class LandPathNodeMaker extends PathNodeMaker {
 	}
 
 	private boolean checkBoxCollision(Box box) {
-		return this.collidedBoxes.computeIfAbsent(box, (Object2BooleanFunction<? super Box>)(box2 -> !this.cachedWorld.isSpaceEmpty(this.entity, box)));
+		return this.collidedBoxes.computeIfAbsent(box, (Object2BooleanFunction<? super Box>)(box2 -> !this.isSpaceEmpty(box)));
+	}
+
+	/**
+	 * {@return whether {@code box} is free of block collisions and the world border}
+	 * for the entity, like {@link ChunkCache#isSpaceEmpty(net.minecraft.entity.Entity, Box)}
+	 * but with its state captured by {@link #init}.
+	 */
+	private boolean isSpaceEmpty(Box box) {
+		BlockCollisionSpliterator<VoxelShape> blockCollisionSpliterator = new BlockCollisionSpliterator<>(
+			this.cachedWorld, this.entityShapeContext, box, false, (pos, voxelShape) -> voxelShape
+		);
+
+		while (blockCollisionSpliterator.hasNext()) {
+			if (!blockCollisionSpliterator.next().isEmpty()) {
+				return false;
+			}
+		}
+
+		WorldBorder worldBorder = this.cachedWorld.getWorldBorder();
+		return !worldBorder.canCollide(this.entityPos.x, this.entityPos.z, box)
+			|| !VoxelShapes.matchesAnywhere(worldBorder.asVoxelShape(), VoxelShapes.cuboid(box), BooleanBiFunction.AND);
 	}
 
 	@Override
 	public PathNodeType getNodeType(BlockView world, int x, int y, int z, MobEntity mob) {
+		if (mob == this.entity) {
+			return this.getNodeType(world, x, y, z, this.entityBlockPos, this.entityPathfindingPenalties);
+		} else {
+			float[] fs = new float[NODE_TYPES.length];
+
+			for (PathNodeType pathNodeType : NODE_TYPES) {
+				fs[pathNodeType.ordinal()] = mob.getPathfindingPenalty(pathNodeType);
+			}
+
+			return this.getNodeType(world, x, y, z, mob.getBlockPos(), fs);
+		}
+	}
+
+	private PathNodeType getNodeType(BlockView world, int x, int y, int z, BlockPos pos, float[] pathfindingPenalties) {
 		EnumSet<PathNodeType> enumSet = EnumSet.noneOf(PathNodeType.class);
 		PathNodeType pathNodeType = PathNodeType.BLOCKED;
-		pathNodeType = this.findNearbyNodeTypes(world, x, y, z, enumSet, pathNodeType, mob.getBlockPos());
+		pathNodeType = this.findNearbyNodeTypes(world, x, y, z, enumSet, pathNodeType, pos);
 		if (enumSet.contains(PathNodeType.FENCE)) {
 			return PathNodeType.FENCE;
 		} else if (enumSet.contains(PathNodeType.UNPASSABLE_RAIL)) {
@@ -368,16 +472,16 @@ public class LandPathNodeMaker extends PathNodeMaker {
 			PathNodeType pathNodeType2 = PathNodeType.BLOCKED;
 
 			for (PathNodeType pathNodeType3 : enumSet) {
-				if (mob.getPathfindingPenalty(pathNodeType3) < 0.0F) {
+				if (pathfindingPenalties[pathNodeType3.ordinal()] < 0.0F) {
 					return pathNodeType3;
 				}
 
-				if (mob.getPathfindingPenalty(pathNodeType3) >= mob.getPathfindingPenalty(pathNodeType2)) {
+				if (pathfindingPenalties[pathNodeType3.ordinal()] >= pathfindingPenalties[pathNodeType2.ordinal()]) {
 					pathNodeType2 = pathNodeType3;
 				}
 			}
 
-			return pathNodeType == PathNodeType.OPEN && mob.getPathfindingPenalty(pathNodeType2) == 0.0F && this.entityBlockXSize <= 1
+			return pathNodeType == PathNodeType.OPEN && pathfindingPenalties[pathNodeType2.ordinal()] == 0.0F && this.entityBlockXSize <= 1
 				? PathNodeType.OPEN
 				: pathNodeType2;
 		}
@@ -438,7 +542,17 @@ public class LandPathNodeMaker extends PathNodeMaker {
 
 	@Override
 	public PathNodeType getDefaultNodeType(BlockView world, int x, int y, int z) {
-		return getLandNodeType(world, new BlockPos.Mutable(x, y, z));
+		return this.getCachedLandNodeType(world, new BlockPos.Mutable(x, y, z));
+	}
+
+	/**
+	 * {@return the land node type at {@code pos}}, read from the world's
+	 * {@link PathNodeTypeCache} when searching the cached world on the server thread.
+	 */
+	protected PathNodeType getCachedLandNodeType(BlockView world, BlockPos.Mutable pos) {
+		return this.nodeTypeCache != null && world == this.cachedWorld
+			? this.nodeTypeCache.getLandNodeType(this.cachedWorld, pos)
+			: getLandNodeType(world, pos);
 	}
 
 	public static PathNodeType getLandNodeType(BlockView world, BlockPos.Mutable pos) {
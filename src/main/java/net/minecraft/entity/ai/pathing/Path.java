@@ -29,6 +29,28 @@ public class Path {
 		this.reachesTarget = reachesTarget;
 	}
 
+	/**
+	 * {@return a copy of this path with copies of its nodes}, starting at its
+	 * first node.
+	 */
+	public Path copy() {
+		List<PathNode> list = Lists.<PathNode>newArrayListWithCapacity(this.nodes.size());
+
+		for (PathNode pathNode : this.nodes) {
+			list.add(pathNode.copyWithNewPosition(pathNode.x, pathNode.y, pathNode.z));
+		}
+
+		return new Path(list, this.target, this.reachesTarget);
+	}
+
+	/**
+	 * {@return a path along the same nodes towards {@code target}}, which it does
+	 * not reach.
+	 */
+	public Path toPartialPath(BlockPos target) {
+		return new Path(this.nodes, target, false);
+	}
+
 	public void next() {
 		this.currentNodeIndex++;
 	}
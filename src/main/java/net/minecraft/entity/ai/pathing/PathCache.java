@@ -0,0 +1,191 @@
+package net.minecraft.entity.ai.pathing;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.item.Item;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shares recently found paths between the mobs of a server world.
+ *
+ * <p>Mobs of a farm or a raid often path to the same target from the same block
+ * within a few ticks of each other. A path found by {@link EntityNavigation} is kept
+ * for up to {@value #MAX_AGE} ticks, keyed by everything the search of a
+ * {@link LandPathNodeMaker} depends on: the mob's type, size and pathfinding
+ * penalties, the items it has equipped, which decide block collisions such as
+ * walking on powder snow in leather boots or through scaffolding held in hand, the
+ * capabilities of the node maker, the start position and the targets and limits of
+ * the search. A later request with the same key, including
+ * one from the same tick, receives a copy of the path instead of running the search
+ * again.
+ *
+ * <p>A path is dropped as soon as a block changes in one of the chunk sections its
+ * search swept, that is the sections around every node the search created.
+ */
+public class PathCache {
+	public static final int MAX_AGE = 20;
+	private final Map<PathCache.Key, PathCache.Entry> entries = Maps.<PathCache.Key, PathCache.Entry>newHashMap();
+	private final Long2ObjectMap<List<PathCache.Entry>> entriesBySection = new Long2ObjectOpenHashMap<>();
+	private long lastCleanupTime;
+
+	/**
+	 * {@return the key of a search for {@code mob}, or {@code null} if its search
+	 * cannot be shared}
+	 */
+	@Nullable
+	public static PathCache.Key createKey(
+		MobEntity mob, PathNodeMaker nodeMaker, int maxVisitedNodes, Set<BlockPos> positions, float followRange, int distance, float rangeMultiplier
+	) {
+		if (nodeMaker.getClass() != LandPathNodeMaker.class || mob.hasVehicle() || !mob.isOnGround() && !mob.isTouchingWater()) {
+			return null;
+		} else {
+			Box box = mob.getBoundingBox();
+			EnumMap<PathNodeType, Float> enumMap = new EnumMap<>(PathNodeType.class);
+			enumMap.putAll(mob.getPathfindingPenalties());
+			Item[] items = new Item[EquipmentSlot.values().length];
+
+			for (EquipmentSlot equipmentSlot : EquipmentSlot.values()) {
+				items[equipmentSlot.ordinal()] = mob.getEquippedStack(equipmentSlot).getItem();
+			}
+
+			return new PathCache.Key(
+				mob.getType(),
+				mob.getWidth(),
+				mob.getHeight(),
+				mob.getStepHeight(),
+				mob.getSafeFallDistance(),
+				(nodeMaker.canEnterOpenDoors() ? 1 : 0)
+					| (nodeMaker.canOpenDoors() ? 2 : 0)
+					| (nodeMaker.canSwim() ? 4 : 0)
+					| (nodeMaker.canWalkOverFences() ? 8 : 0)
+					| (mob.isOnGround() ? 16 : 0)
+					| (mob.isTouchingWater() ? 32 : 0)
+					| (mob.isDescending() ? 64 : 0),
+				mob.getBlockPos(),
+				MathHelper.floor(mob.getY() + 0.5),
+				MathHelper.floor(box.minX),
+				MathHelper.floor(box.minZ),
+				MathHelper.floor(box.maxX),
+				MathHelper.floor(box.maxZ),
+				enumMap,
+				List.of(items),
+				ImmutableSet.copyOf(positions),
+				maxVisitedNodes,
+				followRange,
+				distance,
+				rangeMultiplier
+			);
+		}
+	}
+
+	/**
+	 * {@return a copy of the path cached for {@code key}, or {@code null} if there is
+	 * none that is recent enough}
+	 */
+	@Nullable
+	public Path get(PathCache.Key key, long time) {
+		this.removeExpired(time);
+		PathCache.Entry entry = (PathCache.Entry)this.entries.get(key);
+		return entry == null ? null : entry.path().copy();
+	}
+
+	public void put(PathCache.Key key, Path path, LongSet sweptSections, long time) {
+		this.removeExpired(time);
+		PathCache.Entry entry = new PathCache.Entry(key, path.copy(), sweptSections.toLongArray(), time);
+		PathCache.Entry entry2 = (PathCache.Entry)this.entries.put(key, entry);
+		if (entry2 != null) {
+			this.unlink(entry2);
+		}
+
+		for (long l : entry.sections()) {
+			((List)this.entriesBySection.computeIfAbsent(l, sectionPos -> Lists.newArrayList())).add(entry);
+		}
+	}
+
+	/**
+	 * Drops the paths whose search swept the chunk section of {@code pos}.
+	 */
+	public void onBlockChanged(BlockPos pos) {
+		List<PathCache.Entry> list = this.entriesBySection.remove(ChunkSectionPos.toLong(pos));
+		if (list != null) {
+			for (PathCache.Entry entry : list) {
+				if (this.entries.remove(entry.key(), entry)) {
+					this.unlink(entry);
+				}
+			}
+		}
+	}
+
+	private void removeExpired(long time) {
+		if (time != this.lastCleanupTime) {
+			this.lastCleanupTime = time;
+			Iterator<PathCache.Entry> iterator = this.entries.values().iterator();
+
+			while (iterator.hasNext()) {
+				PathCache.Entry entry = (PathCache.Entry)iterator.next();
+				if (time - entry.time() > (long)MAX_AGE) {
+					iterator.remove();
+					this.unlink(entry);
+				}
+			}
+		}
+	}
+
+	private void unlink(PathCache.Entry entry) {
+		for (long l : entry.sections()) {
+			List<PathCache.Entry> list = this.entriesBySection.get(l);
+			if (list != null) {
+				list.remove(entry);
+				if (list.isEmpty()) {
+					this.entriesBySection.remove(l);
+				}
+			}
+		}
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	static record Entry(PathCache.Key key, Path path, long[] sections, long time) {
+	}
+
+	public static record Key(
+		EntityType<?> type,
+		float width,
+		float height,
+		float stepHeight,
+		int safeFallDistance,
+		int flags,
+		BlockPos origin,
+		int startY,
+		int boxMinX,
+		int boxMinZ,
+		int boxMaxX,
+		int boxMaxZ,
+		Map<PathNodeType, Float> penalties,
+		List<Item> equipment,
+		Set<BlockPos> positions,
+		int maxVisitedNodes,
+		float followRange,
+		int distance,
+		float rangeMultiplier
+	) {
+	}
+}
@@ -3,15 +3,18 @@ package net.minecraft.entity.ai.pathing;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.profiler.Profiler;
 import net.minecraft.util.profiler.SampleType;
 import net.minecraft.world.chunk.ChunkCache;
@@ -46,6 +49,37 @@ public class PathNodeNavigator {
 		}
 	}
 
+	/**
+	 * Prepares a search of a path for {@code mob} on the thread ticking it, and returns
+	 * the rest of the search, which can run on another thread while the mob keeps
+	 * ticking.
+	 * 
+	 * <p>The node maker, which must be a {@link LandPathNodeMaker}, is initialized,
+	 * the start and target nodes are made and the mob finishes pathfinding right away,
+	 * so that the pathfinding hooks of the mob run on its own thread. The returned
+	 * search only reads {@code world} and the state of the mob captured by the node
+	 * maker.
+	 */
+	public Supplier<Path> prepareSearch(ChunkCache world, MobEntity mob, Set<BlockPos> positions, float followRange, int distance, float rangeMultiplier) {
+		LandPathNodeMaker landPathNodeMaker = (LandPathNodeMaker)this.pathNodeMaker;
+		this.minHeap.clear();
+		landPathNodeMaker.init(world, mob);
+		PathNode pathNode = landPathNodeMaker.getStart();
+		if (pathNode == null) {
+			landPathNodeMaker.clear();
+			return () -> null;
+		} else {
+			Map<TargetPathNode, BlockPos> map = (Map<TargetPathNode, BlockPos>)positions.stream()
+				.collect(Collectors.toMap(pos -> landPathNodeMaker.getNode((double)pos.getX(), (double)pos.getY(), (double)pos.getZ()), Function.identity()));
+			landPathNodeMaker.finishEntityPathfinding();
+			return () -> {
+				Path path = this.findPathToAny(world.getProfiler(), pathNode, map, followRange, distance, rangeMultiplier);
+				landPathNodeMaker.clear();
+				return path;
+			};
+		}
+	}
+
 	@Nullable
 	private Path findPathToAny(
 		Profiler profiler, PathNode startNode, Map<TargetPathNode, BlockPos> positions, float followRange, int distance, float rangeMultiplier
@@ -114,6 +148,32 @@ public class PathNodeNavigator {
 		return !optional.isPresent() ? null : (Path)optional.get();
 	}
 
+	/**
+	 * Adds the chunk sections around every node created by the last search to
+	 * {@code sections}, which are the sections whose blocks can affect its result.
+	 */
+	public void collectSweptSections(LongSet sections) {
+		int i = Math.max(this.pathNodeMaker.entityBlockXSize, this.pathNodeMaker.entityBlockYSize) + 1;
+
+		for (PathNode pathNode : this.pathNodeMaker.pathNodeCache.values()) {
+			int j = ChunkSectionPos.getSectionCoord(pathNode.x + i);
+			int k = ChunkSectionPos.getSectionCoord(pathNode.y + i);
+			int l = ChunkSectionPos.getSectionCoord(pathNode.z + i);
+
+			for (int m = ChunkSectionPos.getSectionCoord(pathNode.x - i); m <= j; m++) {
+				for (int n = ChunkSectionPos.getSectionCoord(pathNode.y - i); n <= k; n++) {
+					for (int o = ChunkSectionPos.getSectionCoord(pathNode.z - i); o <= l; o++) {
+						sections.add(ChunkSectionPos.asLong(m, n, o));
+					}
+				}
+			}
+		}
+	}
+
+	public int getRange() {
+		return this.range;
+	}
+
 	protected float getDistance(PathNode a, PathNode b) {
 		return a.getDistance(b);
 	}
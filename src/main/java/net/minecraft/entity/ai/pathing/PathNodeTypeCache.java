@@ -0,0 +1,128 @@
+package net.minecraft.entity.ai.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.Locale;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.HeightLimitView;
+import net.minecraft.world.chunk.ChunkCache;
+
+/**
+ * Caches the {@linkplain LandPathNodeMaker#getLandNodeType land node types} of the
+ * blocks of a server world per chunk section.
+ *
+ * <p>The land node type of a block only depends on the block states within one
+ * block of it, so it is the same for every mob and every search until one of
+ * those blocks changes. The types of a chunk section are stored one byte per block,
+ * with {@code 0} for a type not computed yet, and are computed lazily by the
+ * searches reading them. Mob specific adjustments, such as doors and pathfinding
+ * penalties, are still applied on top by the node maker.
+ *
+ * <p>A type is only cached while every chunk its computation reads is loaded,
+ * since a missing chunk reads as void air. When a block changes, the types of the
+ * blocks within one block of it are dropped, and the sections of a chunk are
+ * dropped when it is unloaded.
+ */
+public class PathNodeTypeCache {
+	private static final PathNodeType[] TYPES = PathNodeType.values();
+	private final HeightLimitView world;
+	private final Long2ObjectMap<byte[]> sections = new Long2ObjectOpenHashMap<>();
+	private long hits;
+	private long misses;
+
+	public PathNodeTypeCache(HeightLimitView world) {
+		this.world = world;
+	}
+
+	/**
+	 * {@return the land node type at {@code pos}}, read from {@code world}. The
+	 * position is left unchanged.
+	 */
+	public PathNodeType getLandNodeType(ChunkCache world, BlockPos.Mutable pos) {
+		int i = pos.getX();
+		int j = pos.getY();
+		int k = pos.getZ();
+		if (!this.world.isOutOfHeightLimit(j) && isNeighborhoodLoaded(world, i, k)) {
+			long l = ChunkSectionPos.toLong(pos);
+			int m = getIndex(i, j, k);
+			byte[] bs = this.sections.get(l);
+			if (bs != null && bs[m] != 0) {
+				this.hits++;
+				return TYPES[bs[m] - 1];
+			} else {
+				this.misses++;
+				PathNodeType pathNodeType = LandPathNodeMaker.getLandNodeType(world, pos);
+				pos.set(i, j, k);
+				if (bs == null) {
+					bs = new byte[4096];
+					this.sections.put(l, bs);
+				}
+
+				bs[m] = (byte)(pathNodeType.ordinal() + 1);
+				return pathNodeType;
+			}
+		} else {
+			this.misses++;
+			PathNodeType pathNodeType = LandPathNodeMaker.getLandNodeType(world, pos);
+			pos.set(i, j, k);
+			return pathNodeType;
+		}
+	}
+
+	private static boolean isNeighborhoodLoaded(ChunkCache world, int x, int z) {
+		int i = ChunkSectionPos.getSectionCoord(x - 1);
+		int j = ChunkSectionPos.getSectionCoord(x + 1);
+		int k = ChunkSectionPos.getSectionCoord(z - 1);
+		int l = ChunkSectionPos.getSectionCoord(z + 1);
+
+		for (int m = i; m <= j; m++) {
+			for (int n = k; n <= l; n++) {
+				if (!world.hasChunk(m, n)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private static int getIndex(int x, int y, int z) {
+		return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+	}
+
+	/**
+	 * Drops the types of the blocks within one block of {@code pos}.
+	 */
+	public void onBlockChanged(BlockPos pos) {
+		if (!this.sections.isEmpty()) {
+			for (int i = -1; i <= 1; i++) {
+				for (int j = -1; j <= 1; j++) {
+					for (int k = -1; k <= 1; k++) {
+						int l = pos.getX() + i;
+						int m = pos.getY() + j;
+						int n = pos.getZ() + k;
+						byte[] bs = this.sections
+							.get(ChunkSectionPos.asLong(ChunkSectionPos.getSectionCoord(l), ChunkSectionPos.getSectionCoord(m), ChunkSectionPos.getSectionCoord(n)));
+						if (bs != null) {
+							bs[getIndex(l, m, n)] = 0;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	public void onChunkUnloaded(ChunkPos pos) {
+		if (!this.sections.isEmpty()) {
+			for (int i = this.world.getBottomSectionCoord(); i < this.world.getTopSectionCoord(); i++) {
+				this.sections.remove(ChunkSectionPos.asLong(pos.x, i, pos.z));
+			}
+		}
+	}
+
+	public String getDebugString() {
+		return String.format(Locale.ROOT, "sections: %d, hits: %d, misses: %d", this.sections.size(), this.hits, this.misses);
+	}
+}
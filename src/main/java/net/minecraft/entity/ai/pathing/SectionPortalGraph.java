@@ -0,0 +1,448 @@
+package net.minecraft.entity.ai.pathing;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import net.minecraft.block.BlockState;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A coarse graph over the walkable blocks of a server world, used to route
+ * long-distance searches.
+ *
+ * <p>The walkable blocks of every chunk section are grouped into regions that are
+ * connected within the section. These regions are the nodes of the graph, and one
+ * region leads to another where a walking mob can step up to one block or drop up
+ * to {@value #MAX_DROP} blocks from the one into the other, within a section or
+ * across its faces. {@link #findRoute} runs an A* search over the regions, and
+ * {@link EntityNavigation} hands the resulting waypoints to the regular search one
+ * stretch at a time. The regular search then only explores the nodes leading to the
+ * next waypoint, instead of spending its whole node budget on a target out of
+ * range.
+ *
+ * <p>A block is walkable if it and the block above it can be walked through and
+ * the block below it cannot, or if it holds water. This ignores the size and the
+ * penalties of a particular mob, which the regular search still accounts for. The
+ * regions of a section are computed lazily and only from loaded chunks, at most
+ * {@value #MAX_COMPUTED_SECTIONS_PER_TICK} sections per tick. Sections beyond that
+ * are treated like those of unloaded chunks until a later tick, so a route through
+ * an area not seen before fails and falls back to the regular search instead of
+ * computing the whole area at once. They are dropped when a block changes in or
+ * next to the section, or when its chunk is unloaded.
+ */
+public class SectionPortalGraph {
+	/**
+	 * The maximum number of regions a route search expands before giving up.
+	 */
+	public static final int MAX_EXPANDED_REGIONS = 512;
+	/**
+	 * The maximum number of sections whose regions are computed per tick.
+	 */
+	public static final int MAX_COMPUTED_SECTIONS_PER_TICK = 16;
+	private static final int MAX_DROP = 3;
+	private static final int[] REGION_Y_OFFSETS = new int[]{0, -1, 1};
+	private final ServerWorld world;
+	private final Long2ObjectMap<SectionPortalGraph.Section> sections = new Long2ObjectOpenHashMap<>();
+	private long routes;
+	private long failedRoutes;
+	private long expandedRegions;
+	private long computeTime = Long.MIN_VALUE;
+	private int computedSections;
+	private long deferredSections;
+
+	public SectionPortalGraph(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * {@return the waypoints of a route from {@code start} to {@code goal}}, ending
+	 * with {@code goal}, or {@code null} if no route was found.
+	 */
+	@Nullable
+	public List<BlockPos> findRoute(BlockPos start, BlockPos goal) {
+		this.routes++;
+		SectionPortalGraph.Region region = this.getRegion(start);
+		SectionPortalGraph.Region region2 = this.getRegion(goal);
+		if (region != null && region2 != null) {
+			BlockPos blockPos = this.getCenter(region2);
+			Object2FloatMap<SectionPortalGraph.Region> object2FloatMap = new Object2FloatOpenHashMap<>();
+			object2FloatMap.defaultReturnValue(Float.MAX_VALUE);
+			Map<SectionPortalGraph.Region, SectionPortalGraph.Region> map = Maps.<SectionPortalGraph.Region, SectionPortalGraph.Region>newHashMap();
+			PriorityQueue<SectionPortalGraph.Entry> priorityQueue = new PriorityQueue<>(Comparator.comparingDouble(SectionPortalGraph.Entry::weight));
+			object2FloatMap.put(region, 0.0F);
+			priorityQueue.add(new SectionPortalGraph.Entry(region, 0.0F, getDistance(this.getCenter(region), blockPos)));
+			int i = 0;
+
+			while (!priorityQueue.isEmpty()) {
+				SectionPortalGraph.Entry entry = (SectionPortalGraph.Entry)priorityQueue.poll();
+				if (!(entry.cost() > object2FloatMap.getFloat(entry.region()))) {
+					if (entry.region().equals(region2)) {
+						this.expandedRegions += (long)i;
+						List<BlockPos> list = Lists.<BlockPos>newArrayList();
+						list.add(goal.toImmutable());
+
+						for (SectionPortalGraph.Region region3 = (SectionPortalGraph.Region)map.get(region2);
+							region3 != null && !region3.equals(region);
+							region3 = (SectionPortalGraph.Region)map.get(region3)
+						) {
+							list.add(0, this.getCenter(region3));
+						}
+
+						return list;
+					}
+
+					if (++i > MAX_EXPANDED_REGIONS) {
+						break;
+					}
+
+					BlockPos blockPos2 = this.getCenter(entry.region());
+
+					for (SectionPortalGraph.Region region3 : this.getEdges(entry.region())) {
+						BlockPos blockPos3 = this.getCenter(region3);
+						float f = entry.cost() + getDistance(blockPos2, blockPos3);
+						if (f < object2FloatMap.getFloat(region3)) {
+							object2FloatMap.put(region3, f);
+							map.put(region3, entry.region());
+							priorityQueue.add(new SectionPortalGraph.Entry(region3, f, f + getDistance(blockPos3, blockPos)));
+						}
+					}
+				}
+			}
+
+			this.expandedRegions += (long)i;
+		}
+
+		this.failedRoutes++;
+		return null;
+	}
+
+	private static float getDistance(BlockPos a, BlockPos b) {
+		return (float)Math.sqrt(a.getSquaredDistance(b));
+	}
+
+	/**
+	 * {@return the region of the walkable block at, below or above {@code pos}}, or
+	 * {@code null} if there is none or its chunk is not loaded.
+	 */
+	@Nullable
+	private SectionPortalGraph.Region getRegion(BlockPos pos) {
+		for (int i : REGION_Y_OFFSETS) {
+			int j = pos.getY() + i;
+			long l = ChunkSectionPos.asLong(
+				ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(j), ChunkSectionPos.getSectionCoord(pos.getZ())
+			);
+			SectionPortalGraph.Section section = this.getSection(l);
+			if (section != null) {
+				int k = section.regions[getIndex(pos.getX(), j, pos.getZ())];
+				if (k != 0) {
+					return new SectionPortalGraph.Region(l, k - 1);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private BlockPos getCenter(SectionPortalGraph.Region region) {
+		return ((SectionPortalGraph.Section)this.sections.get(region.section())).centers[region.index()];
+	}
+
+	@Nullable
+	private SectionPortalGraph.Section getSection(long sectionPos) {
+		SectionPortalGraph.Section section = this.sections.get(sectionPos);
+		if (section == null) {
+			long l = this.world.getTime();
+			if (this.computeTime != l) {
+				this.computeTime = l;
+				this.computedSections = 0;
+			}
+
+			if (this.computedSections >= MAX_COMPUTED_SECTIONS_PER_TICK) {
+				this.deferredSections++;
+				return null;
+			}
+
+			section = this.computeSection(sectionPos);
+			if (section != null) {
+				this.computedSections++;
+				this.sections.put(sectionPos, section);
+			}
+		}
+
+		return section;
+	}
+
+	@Nullable
+	private SectionPortalGraph.Section computeSection(long sectionPos) {
+		int i = ChunkSectionPos.unpackX(sectionPos);
+		int j = ChunkSectionPos.unpackY(sectionPos);
+		int k = ChunkSectionPos.unpackZ(sectionPos);
+		if (j >= this.world.getBottomSectionCoord() && j < this.world.getTopSectionCoord()) {
+			WorldChunk worldChunk = this.world.getChunkManager().getWorldChunk(i, k);
+			if (worldChunk == null) {
+				return null;
+			} else {
+				int l = ChunkSectionPos.getBlockCoord(i);
+				int m = ChunkSectionPos.getBlockCoord(j);
+				int n = ChunkSectionPos.getBlockCoord(k);
+				boolean[] bls = new boolean[4096];
+				BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+				for (int o = 0; o < 4096; o++) {
+					bls[o] = isWalkable(worldChunk, mutable.set(l + (o & 15), m + (o >> 8 & 15), n + (o >> 4 & 15)));
+				}
+
+				short[] ss = new short[4096];
+				List<BlockPos> list = Lists.<BlockPos>newArrayList();
+				IntArrayFIFOQueue intArrayFIFOQueue = new IntArrayFIFOQueue();
+				IntArrayFIFOQueue intArrayFIFOQueue2 = new IntArrayFIFOQueue();
+
+				for (int p = 0; p < 4096; p++) {
+					if (bls[p] && ss[p] == 0) {
+						short s = (short)(list.size() + 1);
+						ss[p] = s;
+						intArrayFIFOQueue.enqueue(p);
+						long q = 0L;
+						long r = 0L;
+						long t = 0L;
+
+						while (!intArrayFIFOQueue.isEmpty()) {
+							int u = intArrayFIFOQueue.dequeueInt();
+							intArrayFIFOQueue2.enqueue(u);
+							int v = u & 15;
+							int w = u >> 8 & 15;
+							int x = u >> 4 & 15;
+							q += (long)v;
+							r += (long)w;
+							t += (long)x;
+
+							for (Direction direction : Direction.Type.HORIZONTAL) {
+								int y = v + direction.getOffsetX();
+								int z = x + direction.getOffsetZ();
+								if (y >= 0 && y < 16 && z >= 0 && z < 16) {
+									for (int aa = Math.max(w - 1, 0); aa <= Math.min(w + 1, 15); aa++) {
+										int ab = aa << 8 | z << 4 | y;
+										if (bls[ab] && ss[ab] == 0) {
+											ss[ab] = s;
+											intArrayFIFOQueue.enqueue(ab);
+										}
+									}
+								}
+							}
+						}
+
+						int ac = intArrayFIFOQueue2.size();
+						int ad = -1;
+						long ae = Long.MAX_VALUE;
+
+						while (!intArrayFIFOQueue2.isEmpty()) {
+							int af = intArrayFIFOQueue2.dequeueInt();
+							long ag = (long)(af & 15) * (long)ac - q;
+							long ah = (long)(af >> 8 & 15) * (long)ac - r;
+							long ai = (long)(af >> 4 & 15) * (long)ac - t;
+							long aj = ag * ag + ah * ah + ai * ai;
+							if (aj < ae) {
+								ae = aj;
+								ad = af;
+							}
+						}
+
+						list.add(new BlockPos(l + (ad & 15), m + (ad >> 8 & 15), n + (ad >> 4 & 15)));
+					}
+				}
+
+				return new SectionPortalGraph.Section(ss, (BlockPos[])list.toArray(new BlockPos[0]));
+			}
+		} else {
+			return null;
+		}
+	}
+
+	private static boolean isWalkable(WorldChunk chunk, BlockPos.Mutable pos) {
+		BlockState blockState = chunk.getBlockState(pos);
+		FluidState fluidState = blockState.getFluidState();
+		if (fluidState.isIn(FluidTags.WATER)) {
+			return true;
+		} else if (!fluidState.isIn(FluidTags.LAVA) && blockState.canPathfindThrough(chunk, pos, NavigationType.LAND)) {
+			int i = pos.getY();
+			boolean bl = chunk.getBlockState(pos.setY(i + 1)).canPathfindThrough(chunk, pos, NavigationType.LAND);
+			boolean bl2 = bl && !chunk.getBlockState(pos.setY(i - 1)).canPathfindThrough(chunk, pos, NavigationType.LAND);
+			pos.setY(i);
+			return bl2;
+		} else {
+			return false;
+		}
+	}
+
+	private static int getIndex(int x, int y, int z) {
+		return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+	}
+
+	/**
+	 * {@return the regions {@code region} leads to}, computing the edges of its section
+	 * if needed.
+	 */
+	private List<SectionPortalGraph.Region> getEdges(SectionPortalGraph.Region region) {
+		SectionPortalGraph.Section section = (SectionPortalGraph.Section)this.sections.get(region.section());
+		List<SectionPortalGraph.Region>[] lists = section.edges;
+		if (lists == null) {
+			lists = this.computeEdges(region.section(), section);
+		}
+
+		return lists[region.index()];
+	}
+
+	private List<SectionPortalGraph.Region>[] computeEdges(long sectionPos, SectionPortalGraph.Section section) {
+		int i = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(sectionPos));
+		int j = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(sectionPos));
+		int k = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(sectionPos));
+		List<SectionPortalGraph.Region>[] lists = new List[section.centers.length];
+		Set<SectionPortalGraph.Region>[] sets = new Set[section.centers.length];
+
+		for (int l = 0; l < lists.length; l++) {
+			lists[l] = Lists.<SectionPortalGraph.Region>newArrayList();
+			sets[l] = Sets.<SectionPortalGraph.Region>newHashSet();
+		}
+
+		boolean bl = true;
+
+		for (int m = 0; m < 4096; m++) {
+			int n = section.regions[m] - 1;
+			if (n >= 0) {
+				int o = i + (m & 15);
+				int p = j + (m >> 8 & 15);
+				int q = k + (m >> 4 & 15);
+
+				for (Direction direction : Direction.Type.HORIZONTAL) {
+					int r = o + direction.getOffsetX();
+					int s = q + direction.getOffsetZ();
+
+					for (int t = p - MAX_DROP; t <= p + 1; t++) {
+						long u = ChunkSectionPos.asLong(
+							ChunkSectionPos.getSectionCoord(r), ChunkSectionPos.getSectionCoord(t), ChunkSectionPos.getSectionCoord(s)
+						);
+						SectionPortalGraph.Section section2 = u == sectionPos ? section : this.getSection(u);
+						if (section2 == null) {
+							if (t >= this.world.getBottomY() && t < this.world.getTopY()) {
+								bl = false;
+							}
+						} else {
+							int v = section2.regions[getIndex(r, t, s)] - 1;
+							if (v >= 0 && (u != sectionPos || v != n)) {
+								SectionPortalGraph.Region region = new SectionPortalGraph.Region(u, v);
+								if (sets[n].add(region)) {
+									lists[n].add(region);
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+
+		if (bl) {
+			section.edges = lists;
+		}
+
+		return lists;
+	}
+
+	/**
+	 * Drops the regions whose walkable blocks can depend on the block at {@code pos}.
+	 */
+	public void onBlockChanged(BlockPos pos) {
+		if (!this.sections.isEmpty()) {
+			int i = ChunkSectionPos.getSectionCoord(pos.getX());
+			int j = ChunkSectionPos.getSectionCoord(pos.getZ());
+			int k = ChunkSectionPos.getSectionCoord(pos.getY() - 1);
+			int l = ChunkSectionPos.getSectionCoord(pos.getY() + 1);
+
+			for (int m = k; m <= l; m++) {
+				this.invalidate(i, m, j);
+			}
+		}
+	}
+
+	public void onChunkUnloaded(ChunkPos pos) {
+		if (!this.sections.isEmpty()) {
+			for (int i = this.world.getBottomSectionCoord(); i < this.world.getTopSectionCoord(); i++) {
+				this.invalidate(pos.x, i, pos.z);
+			}
+		}
+	}
+
+	/**
+	 * Drops the regions of a section, and the edges of the sections around it,
+	 * which refer to them.
+	 */
+	private void invalidate(int sectionX, int sectionY, int sectionZ) {
+		if (this.sections.remove(ChunkSectionPos.asLong(sectionX, sectionY, sectionZ)) != null) {
+			for (int i = -1; i <= 1; i++) {
+				for (int j = -1; j <= 1; j++) {
+					for (int k = -1; k <= 1; k++) {
+						SectionPortalGraph.Section section = this.sections.get(ChunkSectionPos.asLong(sectionX + i, sectionY + j, sectionZ + k));
+						if (section != null) {
+							section.edges = null;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	public String getDebugString() {
+		return String.format(
+			Locale.ROOT,
+			"sections: %d, deferred sections: %d, routes: %d, failed: %d, avg expanded: %.1f",
+			this.sections.size(),
+			this.deferredSections,
+			this.routes,
+			this.failedRoutes,
+			this.routes == 0L ? 0.0 : (double)this.expandedRegions / (double)this.routes
+		);
+	}
+
+	static record Entry(SectionPortalGraph.Region region, float cost, float weight) {
+	}
+
+	static record Region(long section, int index) {
+	}
+
+	static class Section {
+		/**
+		 * The region of every block of the section plus one, or {@code 0} for blocks
+		 * that are not walkable.
+		 */
+		final short[] regions;
+		/**
+		 * The walkable block of every region closest to its center.
+		 */
+		final BlockPos[] centers;
+		@Nullable
+		List<SectionPortalGraph.Region>[] edges;
+
+		Section(short[] regions, BlockPos[] centers) {
+			this.regions = regions;
+			this.centers = centers;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package net.minecraft.entity.mob;
 
 import com.google.common.collect.Maps;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -212,6 +213,14 @@ public abstract class MobEntity extends LivingEntity implements Targeter {
 		this.pathfindingPenalties.put(nodeType, penalty);
 	}
 
+	/**
+	 * {@return the pathfinding penalties set on this mob}, without the default
+	 * penalties of the node types.
+	 */
+	public Map<PathNodeType, Float> getPathfindingPenalties() {
+		return Collections.unmodifiableMap(this.pathfindingPenalties);
+	}
+
 	public void onStartPathfinding() {
 	}
 
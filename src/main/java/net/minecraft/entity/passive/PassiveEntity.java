@@ -144,6 +144,19 @@ public abstract class PassiveEntity extends PathAwareEntity {
 		}
 	}
 
+	@Override
+	public void tickInactive() {
+		super.tickInactive();
+		if (this.isAlive()) {
+			int i = this.getBreedingAge();
+			if (i < 0) {
+				this.setBreedingAge(++i);
+			} else if (i > 0) {
+				this.setBreedingAge(--i);
+			}
+		}
+	}
+
 	protected void onGrowUp() {
 		if (!this.isBaby() && this.hasVehicle() && this.getVehicle() instanceof BoatEntity boatEntity && !boatEntity.isSmallerThanBoat(this)) {
 			this.stopRiding();
@@ -5,6 +5,8 @@ import com.google.common.collect.LinkedHashMultiset;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Multisets;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.MapColor;
@@ -12,18 +14,23 @@ import net.minecraft.client.item.TooltipContext;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.fluid.FluidState;
+import net.minecraft.item.map.ExplorationMapResults;
+import net.minecraft.item.map.MapIcon;
 import net.minecraft.item.map.MapState;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.registry.tag.BiomeTags;
 import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Formatting;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Direction;
@@ -32,6 +39,7 @@ import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.gen.structure.Structure;
 import org.jetbrains.annotations.Nullable;
 
 public class FilledMapItem extends NetworkSyncedItem {
@@ -42,6 +50,8 @@ public class FilledMapItem extends NetworkSyncedItem {
 	public static final String MAP_SCALE_DIRECTION_KEY = "map_scale_direction";
 	public static final String MAP_TO_LOCK_KEY = "map_to_lock";
 
+	private static final String PENDING_EXPLORATION_KEY = "PendingExploration";
+
 	public FilledMapItem(Settings settings) {
 		super(settings);
 	}
@@ -52,6 +62,142 @@ public class FilledMapItem extends NetworkSyncedItem {
 		return itemStack;
 	}
 
+	/**
+	 * Creates an explorer map to the closest structure in {@code destination} around
+	 * {@code origin} that is still to be searched for with the world's {@link
+	 * net.minecraft.server.world.AsyncStructureLocator}. The map refers to its search
+	 * by an id, under which the world's {@link ExplorationMapResults} keep the search
+	 * and its result for good, so that the map and all its copies lead to the same
+	 * structure and map, whenever they are filled in. The map itself is filled in as
+	 * soon as the search finishes, wherever it is kept by then, and its copies the
+	 * first time they are in an inventory afterwards. If no structure was found, the
+	 * map is replaced by an empty map the first time it is in a player's inventory.
+	 * 
+	 * <p>This must be called on the server thread.
+	 * 
+	 * @see net.minecraft.world.GameRules#ASYNC_STRUCTURE_LOCATE
+	 */
+	public static ItemStack createPendingExplorationMap(
+		ServerWorld world,
+		TagKey<Structure> destination,
+		BlockPos origin,
+		int searchRadius,
+		boolean skipExistingChunks,
+		byte zoom,
+		MapIcon.Type decoration
+	) {
+		ItemStack itemStack = new ItemStack(Items.FILLED_MAP);
+		NbtCompound nbtCompound = itemStack.getOrCreateSubNbt("PendingExploration");
+		nbtCompound.putInt("Id", world.getExplorationMapResults().nextId());
+		nbtCompound.putString("Dimension", world.getRegistryKey().getValue().toString());
+		nbtCompound.putString("Destination", destination.id().toString());
+		nbtCompound.putInt("X", origin.getX());
+		nbtCompound.putInt("Y", origin.getY());
+		nbtCompound.putInt("Z", origin.getZ());
+		nbtCompound.putInt("SearchRadius", searchRadius);
+		nbtCompound.putBoolean("SkipExistingChunks", skipExistingChunks);
+		nbtCompound.putByte("Zoom", zoom);
+		nbtCompound.putByte("Decoration", decoration.getId());
+		locatePendingExplorationMap(world, nbtCompound).thenAccept(result -> {
+			if (result != null) {
+				resolvePendingExplorationMap(itemStack, result);
+			}
+		});
+		return itemStack;
+	}
+
+	/**
+	 * {@return a future of whether the search of the pending explorer map {@code
+	 * stack} found a structure}, completing with {@code null} if the search was
+	 * cancelled.
+	 * 
+	 * <p>This must be called on the server thread.
+	 */
+	public static CompletableFuture<Boolean> locatePendingExplorationMap(ServerWorld world, ItemStack stack) {
+		NbtCompound nbtCompound = stack.getSubNbt("PendingExploration");
+		if (nbtCompound == null) {
+			return CompletableFuture.completedFuture(true);
+		} else {
+			ServerWorld serverWorld = getPendingExplorationWorld(world, nbtCompound);
+			return serverWorld == null
+				? CompletableFuture.completedFuture(false)
+				: locatePendingExplorationMap(serverWorld, nbtCompound).thenApply(result -> result == null ? null : result.pos() != null);
+		}
+	}
+
+	@Nullable
+	private static ServerWorld getPendingExplorationWorld(ServerWorld world, NbtCompound pendingExploration) {
+		Identifier identifier = Identifier.tryParse(pendingExploration.getString("Dimension"));
+		return identifier == null ? null : world.getServer().getWorld(RegistryKey.of(RegistryKeys.WORLD, identifier));
+	}
+
+	/**
+	 * {@return the result of the search of a pending explorer map}, starting the search
+	 * unless it finished or is still running. The map the structure is found for is
+	 * created along with the result, so that all copies of the pending map share it.
+	 */
+	private static CompletableFuture<ExplorationMapResults.Result> locatePendingExplorationMap(ServerWorld world, NbtCompound pendingExploration) {
+		return world.getExplorationMapResults().getOrSearch(pendingExploration.getInt("Id"), () -> {
+			Identifier identifier = Identifier.tryParse(pendingExploration.getString("Destination"));
+			if (identifier == null) {
+				return CompletableFuture.completedFuture(ExplorationMapResults.Result.NOT_FOUND);
+			} else {
+				BlockPos blockPos = new BlockPos(pendingExploration.getInt("X"), pendingExploration.getInt("Y"), pendingExploration.getInt("Z"));
+				byte b = pendingExploration.getByte("Zoom");
+				return world.getAsyncStructureLocator()
+					.locateStructure(
+						TagKey.of(RegistryKeys.STRUCTURE, identifier), blockPos, pendingExploration.getInt("SearchRadius"), pendingExploration.getBoolean("SkipExistingChunks")
+					)
+					.handleAsync((pos, throwable) -> {
+						if (throwable instanceof CancellationException || throwable != null && throwable.getCause() instanceof CancellationException) {
+							return null;
+						} else if (pos == null) {
+							return ExplorationMapResults.Result.NOT_FOUND;
+						} else {
+							ItemStack itemStack = createMap(world, pos.getX(), pos.getZ(), b, true, true);
+							fillExplorationMap(world, itemStack);
+							return new ExplorationMapResults.Result(pos, getMapId(itemStack));
+						}
+					}, world.getServer());
+			}
+		});
+	}
+
+	/**
+	 * Fills in the pending explorer map {@code stack} with the map of {@code result},
+	 * unless no structure was found.
+	 */
+	private static void resolvePendingExplorationMap(ItemStack stack, ExplorationMapResults.Result result) {
+		NbtCompound nbtCompound = stack.getSubNbt("PendingExploration");
+		if (nbtCompound != null && result.pos() != null) {
+			stack.removeSubNbt("PendingExploration");
+			setMapId(stack, result.mapId());
+			MapState.addDecorationsNbt(stack, result.pos(), "+", MapIcon.Type.byId(nbtCompound.getByte("Decoration")));
+		}
+	}
+
+	private static void fillPendingExplorationMap(ServerWorld world, ItemStack stack, Entity entity, NbtCompound pendingExploration) {
+		ServerWorld serverWorld = getPendingExplorationWorld(world, pendingExploration);
+		if (serverWorld == null) {
+			stack.removeSubNbt("PendingExploration");
+		} else {
+			if (!pendingExploration.contains("Id", NbtElement.NUMBER_TYPE)) {
+				pendingExploration.putInt("Id", serverWorld.getExplorationMapResults().nextId());
+			}
+
+			CompletableFuture<ExplorationMapResults.Result> completableFuture = locatePendingExplorationMap(serverWorld, pendingExploration);
+			ExplorationMapResults.Result result = completableFuture.isDone() ? (ExplorationMapResults.Result)completableFuture.join() : null;
+			if (result != null) {
+				resolvePendingExplorationMap(stack, result);
+				if (result.pos() == null && entity instanceof PlayerEntity playerEntity) {
+					ItemStack itemStack = new ItemStack(Items.MAP, stack.getCount());
+					stack.setCount(0);
+					playerEntity.getInventory().offerOrDrop(itemStack);
+				}
+			}
+		}
+	}
+
 	@Nullable
 	public static MapState getMapState(@Nullable Integer id, World world) {
 		return id == null ? null : world.getMapState(getMapName(id));
@@ -293,6 +439,12 @@ public class FilledMapItem extends NetworkSyncedItem {
 	@Override
 	public void inventoryTick(ItemStack stack, World world, Entity entity, int slot, boolean selected) {
 		if (!world.isClient) {
+			NbtCompound nbtCompound = stack.getSubNbt("PendingExploration");
+			if (nbtCompound != null) {
+				fillPendingExplorationMap((ServerWorld)world, stack, entity, nbtCompound);
+				return;
+			}
+
 			MapState mapState = getMapState(stack, world);
 			if (mapState != null) {
 				if (entity instanceof PlayerEntity playerEntity) {
@@ -0,0 +1,119 @@
+package net.minecraft.item.map;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.PersistentState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The results of the structure searches of the pending explorer maps of a world,
+ * by the id of the search stored in the maps.
+ *
+ * <p>A result is kept for good once its search finished, so that every copy of a
+ * pending map, however late it is resolved and even after a restart, leads to the
+ * same structure and the same map, instead of searching again and, when skipping
+ * referenced structures, claiming another structure. Only searches that were
+ * cancelled leave no result, and are started again by the next map that needs them.
+ *
+ * <p>This must only be used on the server thread.
+ *
+ * @see net.minecraft.item.FilledMapItem#createPendingExplorationMap
+ */
+public class ExplorationMapResults extends PersistentState {
+	public static final String ID = "exploration_maps";
+	private static final String NEXT_ID_KEY = "NextId";
+	private static final String RESULTS_KEY = "Results";
+	private final Int2ObjectMap<ExplorationMapResults.Result> results = new Int2ObjectOpenHashMap<>();
+	private final Int2ObjectMap<CompletableFuture<ExplorationMapResults.Result>> searches = new Int2ObjectOpenHashMap<>();
+	private int nextId;
+
+	public static ExplorationMapResults fromNbt(NbtCompound nbt) {
+		ExplorationMapResults explorationMapResults = new ExplorationMapResults();
+		explorationMapResults.nextId = nbt.getInt("NextId");
+		NbtList nbtList = nbt.getList("Results", NbtElement.COMPOUND_TYPE);
+
+		for (int i = 0; i < nbtList.size(); i++) {
+			NbtCompound nbtCompound = nbtList.getCompound(i);
+			ExplorationMapResults.Result result = nbtCompound.contains("Map", NbtElement.NUMBER_TYPE)
+				? new ExplorationMapResults.Result(new BlockPos(nbtCompound.getInt("X"), nbtCompound.getInt("Y"), nbtCompound.getInt("Z")), nbtCompound.getInt("Map"))
+				: ExplorationMapResults.Result.NOT_FOUND;
+			explorationMapResults.results.put(nbtCompound.getInt("Id"), result);
+		}
+
+		return explorationMapResults;
+	}
+
+	@Override
+	public NbtCompound writeNbt(NbtCompound nbt) {
+		nbt.putInt("NextId", this.nextId);
+		NbtList nbtList = new NbtList();
+
+		for (Int2ObjectMap.Entry<ExplorationMapResults.Result> entry : this.results.int2ObjectEntrySet()) {
+			NbtCompound nbtCompound = new NbtCompound();
+			nbtCompound.putInt("Id", entry.getIntKey());
+			ExplorationMapResults.Result result = (ExplorationMapResults.Result)entry.getValue();
+			if (result.pos() != null) {
+				nbtCompound.putInt("X", result.pos().getX());
+				nbtCompound.putInt("Y", result.pos().getY());
+				nbtCompound.putInt("Z", result.pos().getZ());
+				nbtCompound.putInt("Map", result.mapId());
+			}
+
+			nbtList.add(nbtCompound);
+		}
+
+		nbt.put("Results", nbtList);
+		return nbt;
+	}
+
+	public int nextId() {
+		this.markDirty();
+		return this.nextId++;
+	}
+
+	/**
+	 * {@return the result of the search with the given {@code id}}, starting the search
+	 * with {@code search} unless it finished or is still running.
+	 *
+	 * <p>The future returned by {@code search} completes on the server thread, with
+	 * {@code null} if the search was cancelled. The future returned completes with
+	 * the result once it is kept, or with {@code null} if the search was cancelled.
+	 */
+	public CompletableFuture<ExplorationMapResults.Result> getOrSearch(int id, Supplier<CompletableFuture<ExplorationMapResults.Result>> search) {
+		ExplorationMapResults.Result result = this.results.get(id);
+		if (result != null) {
+			return CompletableFuture.completedFuture(result);
+		} else {
+			CompletableFuture<ExplorationMapResults.Result> completableFuture = this.searches.get(id);
+			if (completableFuture == null) {
+				completableFuture = ((CompletableFuture<ExplorationMapResults.Result>)search.get()).thenApply(resultx -> {
+					this.searches.remove(id);
+					if (resultx != null) {
+						this.results.put(id, resultx);
+						this.markDirty();
+					}
+
+					return resultx;
+				});
+				if (!completableFuture.isDone()) {
+					this.searches.put(id, completableFuture);
+				}
+			}
+
+			return completableFuture;
+		}
+	}
+
+	/**
+	 * The structure a search found and the map created for it, or {@link #NOT_FOUND}.
+	 */
+	public static record Result(@Nullable BlockPos pos, int mapId) {
+		public static final ExplorationMapResults.Result NOT_FOUND = new ExplorationMapResults.Result(null, -1);
+	}
+}
@@ -24,6 +24,7 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.gen.structure.Structure;
 import org.slf4j.Logger;
 
@@ -70,6 +71,12 @@ public class ExplorationMapLootFunction extends ConditionalLootFunction {
 			Vec3d vec3d = context.get(LootContextParameters.ORIGIN);
 			if (vec3d != null) {
 				ServerWorld serverWorld = context.getWorld();
+				if (serverWorld.getGameRules().getBoolean(GameRules.ASYNC_STRUCTURE_LOCATE)) {
+					return FilledMapItem.createPendingExplorationMap(
+						serverWorld, this.destination, BlockPos.ofFloored(vec3d), this.searchRadius, this.skipExistingChunks, this.zoom, this.decoration
+					);
+				}
+
 				BlockPos blockPos = serverWorld.locateStructure(this.destination, BlockPos.ofFloored(vec3d), this.searchRadius, this.skipExistingChunks);
 				if (blockPos != null) {
 					ItemStack itemStack = FilledMapItem.createMap(serverWorld, blockPos.getX(), blockPos.getZ(), this.zoom, true, true);
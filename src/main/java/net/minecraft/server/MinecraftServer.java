@@ -136,6 +136,7 @@ import net.minecraft.world.GameRules;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.SaveProperties;
+import net.minecraft.world.StructureIndex;
 import net.minecraft.world.WanderingTraderManager;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldProperties;
@@ -262,6 +263,8 @@ public abstract class MinecraftServer extends ReentrantThreadExecutor<ServerTask
 	private final StructureTemplateManager structureTemplateManager;
 	protected final SaveProperties saveProperties;
 	private volatile boolean saving;
+	private long worldgenContentsHash;
+	private boolean worldgenContentsHashed;
 
 	public static <S extends MinecraftServer> S startServer(Function<Thread, S> serverFactory) {
 		AtomicReference<S> atomicReference = new AtomicReference();
@@ -1914,6 +1917,21 @@ public abstract class MinecraftServer extends ReentrantThreadExecutor<ServerTask
 		return this.combinedDynamicRegistries.getCombinedRegistryManager();
 	}
 
+	/**
+	 * {@return the hash of the contents of world generation of this server}, computed
+	 * the first time it is needed
+	 * 
+	 * @see StructureIndex#hashWorldgenContents
+	 */
+	public long getWorldgenContentsHash() {
+		if (!this.worldgenContentsHashed) {
+			this.worldgenContentsHash = StructureIndex.hashWorldgenContents(this.getRegistryManager(), this.dataPackManager.getEnabledNames());
+			this.worldgenContentsHashed = true;
+		}
+
+		return this.worldgenContentsHash;
+	}
+
 	public CombinedDynamicRegistries<ServerDynamicRegistryType> getCombinedDynamicRegistries() {
 		return this.combinedDynamicRegistries;
 	}
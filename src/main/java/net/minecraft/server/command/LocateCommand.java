@@ -24,6 +24,7 @@ import net.minecraft.util.Formatting;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.gen.structure.Structure;
 import net.minecraft.world.poi.PointOfInterestStorage;
@@ -101,6 +102,20 @@ public class LocateCommand {
 		BlockPos blockPos = BlockPos.ofFloored(source.getPosition());
 		ServerWorld serverWorld = source.getWorld();
 		Stopwatch stopwatch = Stopwatch.createStarted(Util.TICKER);
+		if (serverWorld.getGameRules().getBoolean(GameRules.ASYNC_STRUCTURE_LOCATE)) {
+			serverWorld.getAsyncStructureLocator().locateStructure(registryEntryList, blockPos, 100, false).whenCompleteAsync((pairx, throwable) -> {
+				stopwatch.stop();
+				if (throwable != null) {
+					source.sendError(Text.translatable("command.failed"));
+				} else if (pairx == null) {
+					source.sendError(Texts.toText(STRUCTURE_NOT_FOUND_EXCEPTION.create(predicate.asString()).getRawMessage()));
+				} else {
+					sendCoordinates(source, predicate, blockPos, pairx, "commands.locate.structure.success", false, stopwatch.elapsed());
+				}
+			}, serverWorld.getServer());
+			return 0;
+		}
+
 		Pair<BlockPos, RegistryEntry<Structure>> pair = serverWorld.getChunkManager()
 			.getChunkGenerator()
 			.locateStructure(serverWorld, registryEntryList, blockPos, 100, false);
@@ -0,0 +1,183 @@
+package net.minecraft.server.world;
+
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.entry.RegistryEntryList;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.Structure;
+import org.slf4j.Logger;
+
+/**
+ * Runs the structure searches of {@code /locate structure} and of explorer maps of a
+ * server world on a small pool of threads shared by all worlds, so that searches
+ * with large radii do not stall the server thread.
+ *
+ * <p>The searches are those of {@link
+ * net.minecraft.world.gen.chunk.ChunkGenerator#locateStructure(ServerWorld,
+ * RegistryEntryList, BlockPos, int, boolean, java.util.function.BooleanSupplier)}.
+ * A search for the same structures, position and radius as an earlier one shares
+ * its result for {@value #RESULT_EXPIRY_TICKS} ticks, unless it skips referenced
+ * structures: such a search claims the structure it finds by referencing it, so
+ * each of them runs on its own and finds another structure than those before it.
+ * Searches still running are kept until they finish, however long they take, and
+ * are only cancelled when the world is closed. The explorer maps keep the results
+ * of their searches themselves, see {@link
+ * net.minecraft.item.map.ExplorationMapResults}. A search that fails or is cancelled completes
+ * its future exceptionally, the latter with a {@link CancellationException}.
+ *
+ * @see net.minecraft.world.GameRules#ASYNC_STRUCTURE_LOCATE
+ */
+public class AsyncStructureLocator {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final int RESULT_EXPIRY_TICKS = 6000;
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+		2, new ThreadFactoryBuilder().setNameFormat("Structure Locator #%d").setDaemon(true).build()
+	);
+	private final ServerWorld world;
+	private final Map<AsyncStructureLocator.Key, AsyncStructureLocator.Search> searches = Maps.<AsyncStructureLocator.Key, AsyncStructureLocator.Search>newHashMap();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong totalSearchNanos = new AtomicLong();
+	private long submitted;
+	private long shared;
+	private long cancelled;
+
+	public AsyncStructureLocator(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * Searches for the closest structure in {@code structureTag}, like {@link
+	 * ServerWorld#locateStructure}.
+	 *
+	 * @return a future of the position of the structure, completing with {@code null}
+	 * if no structure could be found within {@code radius}, and exceptionally if the
+	 * search failed or was cancelled
+	 */
+	public CompletableFuture<BlockPos> locateStructure(TagKey<Structure> structureTag, BlockPos pos, int radius, boolean skipReferencedStructures) {
+		if (!this.world.getServer().getSaveProperties().getGeneratorOptions().shouldGenerateStructures()) {
+			return CompletableFuture.completedFuture(null);
+		} else {
+			Optional<RegistryEntryList.Named<Structure>> optional = this.world.getRegistryManager().get(RegistryKeys.STRUCTURE).getEntryList(structureTag);
+			return optional.isEmpty()
+				? CompletableFuture.completedFuture(null)
+				: this.locateStructure((RegistryEntryList<Structure>)optional.get(), pos, radius, skipReferencedStructures)
+					.thenApply(pair -> pair != null ? (BlockPos)pair.getFirst() : null);
+		}
+	}
+
+	/**
+	 * Searches for the closest of {@code structures}.
+	 *
+	 * <p>This must be called on the server thread.
+	 *
+	 * @return a future of the position and the structure found, completing with
+	 * {@code null} if no structure could be found within {@code radius}, and
+	 * exceptionally if the search failed or was cancelled
+	 */
+	public CompletableFuture<Pair<BlockPos, RegistryEntry<Structure>>> locateStructure(
+		RegistryEntryList<Structure> structures, BlockPos center, int radius, boolean skipReferencedStructures
+	) {
+		long l = this.world.getTime();
+		this.removeExpiredSearches(l);
+		AsyncStructureLocator.Key key = new AsyncStructureLocator.Key(
+			structures.stream().toList(), center.toImmutable(), radius, skipReferencedStructures, skipReferencedStructures ? this.submitted : -1L
+		);
+		AsyncStructureLocator.Search search = (AsyncStructureLocator.Search)this.searches.get(key);
+		if (search != null) {
+			this.shared++;
+			return search.future;
+		} else {
+			this.submitted++;
+			AsyncStructureLocator.Search search2 = new AsyncStructureLocator.Search(l);
+			search2.future = CompletableFuture.supplyAsync(() -> {
+				long lx = Util.getMeasuringTimeNano();
+				Pair<BlockPos, RegistryEntry<Structure>> pair = this.world
+					.getChunkManager()
+					.getChunkGenerator()
+					.locateStructure(this.world, structures, key.center(), radius, skipReferencedStructures, () -> search2.cancelled);
+				this.totalSearchNanos.addAndGet(Util.getMeasuringTimeNano() - lx);
+				this.completed.incrementAndGet();
+				return pair;
+			}, EXECUTOR);
+			search2.future.whenComplete((pair, throwable) -> {
+				if (throwable != null && !(throwable.getCause() instanceof CancellationException)) {
+					LOGGER.error("Failed to locate structure {} around {}", structures, center, throwable);
+				}
+			});
+			this.searches.put(key, search2);
+			return search2.future;
+		}
+	}
+
+	private void removeExpiredSearches(long time) {
+		Iterator<AsyncStructureLocator.Search> iterator = this.searches.values().iterator();
+
+		while (iterator.hasNext()) {
+			AsyncStructureLocator.Search search = (AsyncStructureLocator.Search)iterator.next();
+			if (search.future.isDone() && (time - search.submitTime > 6000L || time < search.submitTime)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Cancels all searches.
+	 */
+	public void close() {
+		for (AsyncStructureLocator.Search search : this.searches.values()) {
+			if (!search.future.isDone()) {
+				search.cancelled = true;
+				this.cancelled++;
+			}
+		}
+
+		this.searches.clear();
+	}
+
+	public String getDebugString() {
+		long l = this.completed.get();
+		return String.format(
+			Locale.ROOT,
+			"searches: %d, submitted: %d, completed: %d, shared: %d, cancelled: %d, avg search: %.3f ms",
+			this.searches.size(),
+			this.submitted,
+			l,
+			this.shared,
+			this.cancelled,
+			l == 0L ? 0.0 : (double)this.totalSearchNanos.get() / (double)l / 1000000.0
+		);
+	}
+
+	/**
+	 * @param id the search a search skipping referenced structures is for, as each
+	 * of them claims the structure it finds and must not be shared, or {@code -1}
+	 */
+	static record Key(List<RegistryEntry<Structure>> structures, BlockPos center, int radius, boolean skipReferencedStructures, long id) {
+	}
+
+	static class Search {
+		final long submitTime;
+		volatile boolean cancelled;
+		CompletableFuture<Pair<BlockPos, RegistryEntry<Structure>>> future;
+
+		Search(long submitTime) {
+			this.submitTime = submitTime;
+		}
+	}
+}
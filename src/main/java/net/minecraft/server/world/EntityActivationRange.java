@@ -0,0 +1,265 @@
+package net.minecraft.server.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.entity.AreaEffectCloudEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ExperienceOrbEntity;
+import net.minecraft.entity.EyeOfEnderEntity;
+import net.minecraft.entity.FallingBlockEntity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.LightningEntity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.SpawnGroup;
+import net.minecraft.entity.TntEntity;
+import net.minecraft.entity.boss.WitherEntity;
+import net.minecraft.entity.boss.dragon.EnderDragonEntity;
+import net.minecraft.entity.mob.EvokerFangsEntity;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.passive.MerchantEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.projectile.ProjectileEntity;
+import net.minecraft.entity.raid.RaiderEntity;
+import net.minecraft.entity.vehicle.TntMinecartEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.GameRules;
+
+/**
+ * Decides whether an entity of a server world receives a full tick or only an
+ * {@linkplain Entity#tickInactive inactive tick}.
+ *
+ * <p>Each {@linkplain EntityActivationRange.Category category} of entities has an
+ * activation range configured by a game rule. An entity is active while a player
+ * is within that range, while it was recently {@linkplain Entity#markActive woken up},
+ * for example by taking damage, and while it takes part in something that must
+ * not be throttled, such as targeting another entity, riding or being part of a
+ * raid. A range of {@code 0} keeps every entity of the category active, which is
+ * the default.
+ *
+ * <p>Entities that only expire from within their full tick, such as lightning,
+ * area effect clouds, evoker fangs, items and experience orbs, are always active,
+ * so that they still expire without a player nearby.
+ *
+ * <p>The activation ranges and the positions of the players are read once per tick.
+ * Whether any player is within range of a chunk column is then decided once per tick
+ * for each chunk and category, so only entities in chunks with a player nearby are
+ * checked against the players one by one.
+ *
+ * <p>The number of full and inactive ticks is counted per category and written
+ * to the world's debug dump.
+ */
+public class EntityActivationRange {
+	/**
+	 * The number of ticks an entity is kept active for after taking damage.
+	 */
+	public static final int WAKE_UP_TICKS = 100;
+	private final ServerWorld world;
+	private final long[] fullTicks = new long[EntityActivationRange.Category.values().length];
+	private final long[] inactiveTicks = new long[EntityActivationRange.Category.values().length];
+	private final int[] ranges = new int[EntityActivationRange.Category.values().length];
+	private final Long2IntMap chunkStates = new Long2IntOpenHashMap();
+	private double[] playerPositions = new double[0];
+	private int playerCount;
+	private long time = Long.MIN_VALUE;
+
+	public EntityActivationRange(ServerWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * {@return whether {@code entity} should receive a full tick}, and counts the
+	 * tick towards the entity's category.
+	 */
+	public boolean shouldTick(Entity entity) {
+		this.update();
+		EntityActivationRange.Category category = EntityActivationRange.Category.of(entity);
+		boolean bl = this.isActive(entity, category);
+		if (bl) {
+			this.fullTicks[category.ordinal()]++;
+		} else {
+			this.inactiveTicks[category.ordinal()]++;
+		}
+
+		return bl;
+	}
+
+	/**
+	 * Reads the activation ranges and the positions of the players, once per tick.
+	 */
+	private void update() {
+		long l = this.world.getTime();
+		if (l != this.time) {
+			this.time = l;
+			this.chunkStates.clear();
+			GameRules gameRules = this.world.getGameRules();
+
+			for (EntityActivationRange.Category category : EntityActivationRange.Category.values()) {
+				this.ranges[category.ordinal()] = gameRules.getInt(category.rule);
+			}
+
+			List<ServerPlayerEntity> list = this.world.getPlayers();
+			if (this.playerPositions.length < list.size() * 3) {
+				this.playerPositions = new double[list.size() * 3];
+			}
+
+			this.playerCount = 0;
+
+			for (int i = 0; i < list.size(); i++) {
+				ServerPlayerEntity serverPlayerEntity = (ServerPlayerEntity)list.get(i);
+				if (!serverPlayerEntity.isSpectator()) {
+					int j = this.playerCount++ * 3;
+					this.playerPositions[j] = serverPlayerEntity.getX();
+					this.playerPositions[j + 1] = serverPlayerEntity.getY();
+					this.playerPositions[j + 2] = serverPlayerEntity.getZ();
+				}
+			}
+		}
+	}
+
+	private boolean isActive(Entity entity, EntityActivationRange.Category category) {
+		int i = this.ranges[category.ordinal()];
+		if (i <= 0 || entity.isActivationForced() || isExempt(entity)) {
+			return true;
+		} else if (!this.hasPlayerNearChunk(entity.getChunkPos(), category, i)) {
+			return false;
+		} else {
+			double d = (double)i * (double)i;
+
+			for (int j = 0; j < this.playerCount; j++) {
+				double e = this.playerPositions[j * 3] - entity.getX();
+				double f = this.playerPositions[j * 3 + 1] - entity.getY();
+				double g = this.playerPositions[j * 3 + 2] - entity.getZ();
+				if (e * e + f * f + g * g <= d) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * {@return whether any player is horizontally within {@code range} of the column
+	 * of the chunk at {@code chunkPos}}, deciding it once per tick for each chunk and
+	 * category. An entity whose chunk has no player within range is never within range
+	 * of a player either.
+	 */
+	private boolean hasPlayerNearChunk(ChunkPos chunkPos, EntityActivationRange.Category category, int range) {
+		long l = chunkPos.toLong();
+		int i = this.chunkStates.get(l);
+		int j = category.ordinal() * 2;
+		int k = i >> j & 3;
+		if (k == 0) {
+			k = 1;
+			double d = (double)range * (double)range;
+			double e = (double)chunkPos.getStartX();
+			double f = (double)chunkPos.getStartZ();
+
+			for (int m = 0; m < this.playerCount; m++) {
+				double g = this.playerPositions[m * 3];
+				double h = this.playerPositions[m * 3 + 2];
+				double n = Math.max(0.0, Math.max(e - g, g - (e + 16.0)));
+				double o = Math.max(0.0, Math.max(f - h, h - (f + 16.0)));
+				if (n * n + o * o <= d) {
+					k = 2;
+					break;
+				}
+			}
+
+			this.chunkStates.put(l, i | k << j);
+		}
+
+		return k == 2;
+	}
+
+	private static boolean isExempt(Entity entity) {
+		if (entity instanceof PlayerEntity
+			|| entity instanceof ProjectileEntity
+			|| entity instanceof EnderDragonEntity
+			|| entity instanceof WitherEntity
+			|| entity instanceof FallingBlockEntity
+			|| entity instanceof TntEntity
+			|| entity instanceof TntMinecartEntity) {
+			return true;
+		} else if (entity instanceof LightningEntity
+			|| entity instanceof AreaEffectCloudEntity
+			|| entity instanceof EvokerFangsEntity
+			|| entity instanceof EyeOfEnderEntity
+			|| entity instanceof ItemEntity
+			|| entity instanceof ExperienceOrbEntity) {
+			return true;
+		} else if (entity.hasPassengers() || entity.hasVehicle()) {
+			return true;
+		} else if (entity instanceof LivingEntity livingEntity && livingEntity.hurtTime > 0) {
+			return true;
+		} else if (entity instanceof MobEntity mobEntity && (mobEntity.getTarget() != null || mobEntity.isLeashed())) {
+			return true;
+		} else {
+			return entity instanceof RaiderEntity raiderEntity && raiderEntity.hasActiveRaid();
+		}
+	}
+
+	public long getFullTicks(EntityActivationRange.Category category) {
+		return this.fullTicks[category.ordinal()];
+	}
+
+	public long getInactiveTicks(EntityActivationRange.Category category) {
+		return this.inactiveTicks[category.ordinal()];
+	}
+
+	public String getDebugString() {
+		StringBuilder stringBuilder = new StringBuilder();
+
+		for (EntityActivationRange.Category category : EntityActivationRange.Category.values()) {
+			if (!stringBuilder.isEmpty()) {
+				stringBuilder.append(", ");
+			}
+
+			stringBuilder.append(
+				String.format(Locale.ROOT, "%s: %d full / %d inactive", category.getName(), this.getFullTicks(category), this.getInactiveTicks(category))
+			);
+		}
+
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * The categories entities are grouped in for their activation range.
+	 */
+	public static enum Category {
+		MONSTER("monster", GameRules.MONSTER_ACTIVATION_RANGE),
+		ANIMAL("animal", GameRules.ANIMAL_ACTIVATION_RANGE),
+		VILLAGER("villager", GameRules.VILLAGER_ACTIVATION_RANGE),
+		WATER("water", GameRules.WATER_ACTIVATION_RANGE),
+		MISC("misc", GameRules.MISC_ACTIVATION_RANGE);
+
+		private final String name;
+		final GameRules.Key<GameRules.IntRule> rule;
+
+		private Category(String name, GameRules.Key<GameRules.IntRule> rule) {
+			this.name = name;
+			this.rule = rule;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public static EntityActivationRange.Category of(Entity entity) {
+			if (entity instanceof MerchantEntity) {
+				return VILLAGER;
+			} else {
+				SpawnGroup spawnGroup = entity.getType().getSpawnGroup();
+				return switch (spawnGroup) {
+					case MONSTER -> MONSTER;
+					case CREATURE, AMBIENT -> ANIMAL;
+					case AXOLOTLS, UNDERGROUND_WATER_CREATURE, WATER_CREATURE, WATER_AMBIENT -> WATER;
+					case MISC -> MISC;
+				};
+			}
+		}
+	}
+}
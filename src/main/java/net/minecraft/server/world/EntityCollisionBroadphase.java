@@ -0,0 +1,151 @@
+package net.minecraft.server.world;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.vehicle.AbstractMinecartEntity;
+import net.minecraft.entity.vehicle.BoatEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A uniform grid of the tracked entities of a server world that can be pushed,
+ * used as the collision broadphase of {@link LivingEntity#tickCramming}.
+ *
+ * <p>Only entities whose class can ever report {@link Entity#isPushable} are
+ * indexed, and cells are {@value #CELL_SIZE} blocks wide, so crowded chunk
+ * sections full of items, orbs or projectiles are not scanned once per living
+ * entity. The grid is maintained incrementally from the entity manager's tracking
+ * and position callbacks, so a query always sees the current positions.
+ *
+ * <p>Entities are bucketed by their block position, and a query widens its box by
+ * the same margins as {@link net.minecraft.world.entity.SectionedEntityCache#forEachInBox}.
+ * Entities whose bounding box is too large for these margins are kept in a separate
+ * list that every query checks.
+ */
+public class EntityCollisionBroadphase {
+	private static final int CELL_SHIFT = 2;
+	private static final int CELL_SIZE = 1 << CELL_SHIFT;
+	private static final double HORIZONTAL_MARGIN = 2.0;
+	private static final double VERTICAL_MARGIN = 4.0;
+	private static final long OVERSIZED = Long.MAX_VALUE;
+	private final Long2ObjectMap<List<Entity>> cells = new Long2ObjectOpenHashMap<>();
+	private final Reference2LongMap<Entity> entityCells = new Reference2LongOpenHashMap<>();
+	private final List<Entity> oversized = Lists.<Entity>newArrayList();
+
+	/**
+	 * {@return whether {@code entity} may ever be pushed, and therefore needs to be indexed}
+	 */
+	public static boolean canEverBePushed(Entity entity) {
+		return entity instanceof LivingEntity || entity instanceof BoatEntity || entity instanceof AbstractMinecartEntity;
+	}
+
+	public void add(Entity entity) {
+		if (canEverBePushed(entity) && !this.entityCells.containsKey(entity)) {
+			long l = getCell(entity);
+			this.entityCells.put(entity, l);
+			this.getBucket(l).add(entity);
+		}
+	}
+
+	public void remove(Entity entity) {
+		if (this.entityCells.containsKey(entity)) {
+			this.removeFromBucket(entity, this.entityCells.removeLong(entity));
+		}
+	}
+
+	/**
+	 * Moves {@code entity} to the cell of its current position and size, if it
+	 * changed. This is called when the entity moves and when its bounding box is
+	 * resized, so that entities growing too large for the margins of a query move to
+	 * the list every query checks.
+	 */
+	public void update(Entity entity) {
+		if (this.entityCells.containsKey(entity)) {
+			long l = this.entityCells.getLong(entity);
+			long m = getCell(entity);
+			if (l != m) {
+				this.removeFromBucket(entity, l);
+				this.entityCells.put(entity, m);
+				this.getBucket(m).add(entity);
+			}
+		}
+	}
+
+	/**
+	 * Collects the indexed entities other than {@code except} whose bounding box
+	 * intersects {@code box} and that match {@code predicate}.
+	 *
+	 * <p>This is equivalent to {@link net.minecraft.world.World#getOtherEntities}
+	 * for predicates that only accept entities for which {@link #canEverBePushed}
+	 * holds.
+	 */
+	public List<Entity> getOtherEntities(@Nullable Entity except, Box box, Predicate<? super Entity> predicate) {
+		List<Entity> list = Lists.<Entity>newArrayList();
+		int i = MathHelper.floor(box.minX - HORIZONTAL_MARGIN) >> CELL_SHIFT;
+		int j = MathHelper.floor(box.minY - VERTICAL_MARGIN) >> CELL_SHIFT;
+		int k = MathHelper.floor(box.minZ - HORIZONTAL_MARGIN) >> CELL_SHIFT;
+		int l = MathHelper.floor(box.maxX + HORIZONTAL_MARGIN) >> CELL_SHIFT;
+		int m = MathHelper.floor(box.maxY) >> CELL_SHIFT;
+		int n = MathHelper.floor(box.maxZ + HORIZONTAL_MARGIN) >> CELL_SHIFT;
+
+		for (int o = i; o <= l; o++) {
+			for (int p = k; p <= n; p++) {
+				for (int q = j; q <= m; q++) {
+					List<Entity> list2 = this.cells.get(BlockPos.asLong(o, q, p));
+					if (list2 != null) {
+						collect(list2, except, box, predicate, list);
+					}
+				}
+			}
+		}
+
+		collect(this.oversized, except, box, predicate, list);
+		return list;
+	}
+
+	private static void collect(List<Entity> entities, @Nullable Entity except, Box box, Predicate<? super Entity> predicate, List<Entity> result) {
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = (Entity)entities.get(i);
+			if (entity != except && entity.getBoundingBox().intersects(box) && predicate.test(entity)) {
+				result.add(entity);
+			}
+		}
+	}
+
+	private List<Entity> getBucket(long cell) {
+		return cell == OVERSIZED ? this.oversized : this.cells.computeIfAbsent(cell, cellx -> Lists.newArrayList());
+	}
+
+	private void removeFromBucket(Entity entity, long cell) {
+		if (cell == OVERSIZED) {
+			this.oversized.remove(entity);
+		} else {
+			List<Entity> list = this.cells.get(cell);
+			if (list != null) {
+				list.remove(entity);
+				if (list.isEmpty()) {
+					this.cells.remove(cell);
+				}
+			}
+		}
+	}
+
+	private static long getCell(Entity entity) {
+		Box box = entity.getBoundingBox();
+		if (!(Math.max(box.getXLength(), box.getZLength()) > HORIZONTAL_MARGIN * 2.0) && !(box.getYLength() > VERTICAL_MARGIN)) {
+			BlockPos blockPos = entity.getBlockPos();
+			return BlockPos.asLong(blockPos.getX() >> CELL_SHIFT, blockPos.getY() >> CELL_SHIFT, blockPos.getZ() >> CELL_SHIFT);
+		} else {
+			return OVERSIZED;
+		}
+	}
+}
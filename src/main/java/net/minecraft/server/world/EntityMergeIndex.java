@@ -0,0 +1,179 @@
+package net.minecraft.server.world;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.ExperienceOrbEntity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of mergeable entities of a server world, keyed by block position and
+ * a merge key, used to find merge candidates without scanning every entity of
+ * the surrounding chunk sections.
+ *
+ * <p>Two entities can only merge if their merge keys are equal, so a query only
+ * visits the entities of the cells around the queried box that share the merge
+ * key of the querying entity. The index is maintained incrementally from the
+ * entity manager's tracking and position callbacks; entities whose merge key
+ * changes must call {@link #update} themselves.
+ *
+ * @see #forItems
+ * @see #forExperienceOrbs
+ */
+public class EntityMergeIndex<T extends Entity> {
+	private final Class<T> entityClass;
+	private final ToIntFunction<T> keyFunction;
+	private final double horizontalMargin;
+	private final double verticalMargin;
+	private final Long2ObjectMap<Int2ObjectMap<List<T>>> cells = new Long2ObjectOpenHashMap<>();
+	private final Reference2ObjectMap<T, EntityMergeIndex.Entry> entries = new Reference2ObjectOpenHashMap<>();
+
+	private EntityMergeIndex(Class<T> entityClass, EntityType<T> type, ToIntFunction<T> keyFunction) {
+		this.entityClass = entityClass;
+		this.keyFunction = keyFunction;
+		this.horizontalMargin = (double)type.getWidth() / 2.0;
+		this.verticalMargin = (double)type.getHeight();
+	}
+
+	/**
+	 * Creates an index of item entities keyed by their item and the hash of their
+	 * stack's NBT, the properties {@link ItemEntity#canMerge(ItemStack, ItemStack)}
+	 * requires to be equal.
+	 */
+	public static EntityMergeIndex<ItemEntity> forItems() {
+		return new EntityMergeIndex<>(ItemEntity.class, EntityType.ITEM, itemEntity -> {
+			ItemStack itemStack = itemEntity.getStack();
+			return 31 * Registries.ITEM.getRawId(itemStack.getItem()) + (itemStack.hasNbt() ? itemStack.getNbt().hashCode() : 0);
+		});
+	}
+
+	/**
+	 * Creates an index of experience orbs keyed by their amount of experience, which
+	 * needs to be equal for two orbs to merge.
+	 */
+	public static EntityMergeIndex<ExperienceOrbEntity> forExperienceOrbs() {
+		return new EntityMergeIndex<>(ExperienceOrbEntity.class, EntityType.EXPERIENCE_ORB, ExperienceOrbEntity::getExperienceAmount);
+	}
+
+	public void add(Entity entity) {
+		if (this.entityClass.isInstance(entity)) {
+			T entity2 = (T)this.entityClass.cast(entity);
+			if (!this.entries.containsKey(entity2)) {
+				EntityMergeIndex.Entry entry = new EntityMergeIndex.Entry(getCell(entity2), this.keyFunction.applyAsInt(entity2));
+				this.entries.put(entity2, entry);
+				this.getBucket(entry.cell(), entry.key()).add(entity2);
+			}
+		}
+	}
+
+	public void remove(Entity entity) {
+		EntityMergeIndex.Entry entry = this.entries.remove(entity);
+		if (entry != null) {
+			this.removeFromBucket((T)entity, entry);
+		}
+	}
+
+	/**
+	 * Moves {@code entity} to the bucket of its current position and merge key, if
+	 * either changed.
+	 */
+	public void update(Entity entity) {
+		EntityMergeIndex.Entry entry = this.entries.get(entity);
+		if (entry != null) {
+			T entity2 = (T)entity;
+			long l = getCell(entity2);
+			int i = this.keyFunction.applyAsInt(entity2);
+			if (l != entry.cell() || i != entry.key()) {
+				this.removeFromBucket(entity2, entry);
+				EntityMergeIndex.Entry entry2 = new EntityMergeIndex.Entry(l, i);
+				this.entries.put(entity2, entry2);
+				this.getBucket(l, i).add(entity2);
+			}
+		}
+	}
+
+	/**
+	 * Collects the indexed entities other than {@code entity} that share its merge
+	 * key, intersect {@code box} and match {@code predicate}.
+	 */
+	public List<T> getCandidates(T entity, Box box, Predicate<? super T> predicate) {
+		return this.getCandidates(this.keyFunction.applyAsInt(entity), entity, box, predicate);
+	}
+
+	/**
+	 * Collects the indexed entities other than {@code except} with the merge key
+	 * {@code key} that intersect {@code box} and match {@code predicate}.
+	 */
+	public List<T> getCandidates(int key, @Nullable T except, Box box, Predicate<? super T> predicate) {
+		List<T> list = Lists.<T>newArrayList();
+		int i = MathHelper.floor(box.minX - this.horizontalMargin);
+		int j = MathHelper.floor(box.minY - this.verticalMargin);
+		int k = MathHelper.floor(box.minZ - this.horizontalMargin);
+		int l = MathHelper.floor(box.maxX + this.horizontalMargin);
+		int m = MathHelper.floor(box.maxY);
+		int n = MathHelper.floor(box.maxZ + this.horizontalMargin);
+
+		for (int o = i; o <= l; o++) {
+			for (int p = k; p <= n; p++) {
+				for (int q = j; q <= m; q++) {
+					Int2ObjectMap<List<T>> int2ObjectMap = this.cells.get(BlockPos.asLong(o, q, p));
+					if (int2ObjectMap != null) {
+						List<T> list2 = int2ObjectMap.get(key);
+						if (list2 != null) {
+							for (int r = 0; r < list2.size(); r++) {
+								T entity = (T)list2.get(r);
+								if (entity != except && entity.getBoundingBox().intersects(box) && predicate.test(entity)) {
+									list.add(entity);
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+
+		return list;
+	}
+
+	private List<T> getBucket(long cell, int key) {
+		return this.cells.computeIfAbsent(cell, cellx -> new Int2ObjectOpenHashMap<>()).computeIfAbsent(key, keyx -> Lists.newArrayList());
+	}
+
+	private void removeFromBucket(T entity, EntityMergeIndex.Entry entry) {
+		Int2ObjectMap<List<T>> int2ObjectMap = this.cells.get(entry.cell());
+		if (int2ObjectMap != null) {
+			List<T> list = int2ObjectMap.get(entry.key());
+			if (list != null) {
+				list.remove(entity);
+				if (list.isEmpty()) {
+					int2ObjectMap.remove(entry.key());
+					if (int2ObjectMap.isEmpty()) {
+						this.cells.remove(entry.cell());
+					}
+				}
+			}
+		}
+	}
+
+	private static long getCell(Entity entity) {
+		return entity.getBlockPos().asLong();
+	}
+
+	static record Entry(long cell, int key) {
+	}
+}
@@ -0,0 +1,216 @@
+package net.minecraft.server.world;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Runs the feature decoration of the chunks of a server world on the worker
+ * executor, several chunks at once.
+ *
+ * <p>Decorating a chunk places blocks in the chunk and its eight neighbors, so the
+ * decoration of a chunk only starts once no other task running has any of these
+ * chunks in common with it. The light of a chunk is initialized through the
+ * scheduler as well, as a task holding only that chunk, so that it does not read
+ * the blocks of the chunk while the decoration of a neighbor places blocks in it.
+ * The tasks waiting start in the order they were submitted, as soon as their
+ * chunks are free and no task submitted earlier that is still waiting shares
+ * chunks with them, so that none of them waits forever. The waiting tasks are
+ * indexed by chunk, so that only those sharing chunks with a task that completed
+ * are checked again. Every chunk is still decorated with the random seeded by its
+ * own position, so which decorations happen to run at the same time does not
+ * matter.
+ *
+ * <p>The chunk region of a decoration still reaches as far as the task margin of
+ * {@link net.minecraft.world.chunk.ChunkStatus#FEATURES}, but only the blocks of
+ * the chunk and its eight neighbors are guarded. Beyond them, a decoration may only
+ * read what is settled before the chunks reach that status and no decoration
+ * changes, that is the structure starts and references, the biomes and the noise
+ * of the chunks; blocks, heightmaps and block entities there may be written by
+ * other decorations at the same time.
+ *
+ * @see net.minecraft.world.GameRules#PARALLEL_FEATURE_DECORATION
+ */
+public class FeatureDecorationScheduler {
+	private final LongSet lockedChunks = new LongOpenHashSet();
+	private final Long2ObjectMap<ArrayDeque<FeatureDecorationScheduler.Task<?>>> waitingByChunk = new Long2ObjectOpenHashMap<>();
+	private int waiting;
+	private int running;
+	private int maxRunning;
+	private long submitted;
+	private long completed;
+	private long deferred;
+
+	/**
+	 * Submits the decoration of the chunk at {@code pos}.
+	 *
+	 * @return a future completing once the decoration has run
+	 */
+	public CompletableFuture<Void> submit(ChunkPos pos, Runnable decoration) {
+		return this.submit(pos, 1, () -> CompletableFuture.runAsync(decoration, Util.getMainWorkerExecutor()));
+	}
+
+	/**
+	 * Submits a task that only reads or writes the chunk at {@code pos}, such as
+	 * initializing its light. The task is started on the thread that finds it free
+	 * to start, and holds the chunk until the future it returns completes.
+	 *
+	 * @return a future completing with the result of the task
+	 */
+	public <T> CompletableFuture<T> submitChunkTask(ChunkPos pos, Supplier<CompletableFuture<T>> task) {
+		return this.submit(pos, 0, task);
+	}
+
+	private <T> CompletableFuture<T> submit(ChunkPos pos, int radius, Supplier<CompletableFuture<T>> task) {
+		FeatureDecorationScheduler.Task<T> task2 = new FeatureDecorationScheduler.Task<>(pos, radius, task);
+		boolean bl;
+		synchronized (this) {
+			task2.id = this.submitted++;
+			this.waiting++;
+			this.forEachChunk(
+				task2,
+				chunkPos -> ((ArrayDeque)this.waitingByChunk.computeIfAbsent(chunkPos, chunkPosx -> new ArrayDeque())).addLast(task2)
+			);
+			bl = this.tryStart(task2);
+			if (!bl) {
+				this.deferred++;
+			}
+		}
+
+		if (bl) {
+			this.run(task2);
+		}
+
+		return task2.future;
+	}
+
+	/**
+	 * {@return whether {@code task} was free to start}, in which case its chunks are
+	 * now held by it.
+	 */
+	private boolean tryStart(FeatureDecorationScheduler.Task<?> task) {
+		for (int i = -task.radius; i <= task.radius; i++) {
+			for (int j = -task.radius; j <= task.radius; j++) {
+				long l = ChunkPos.toLong(task.pos.x + i, task.pos.z + j);
+				if (this.lockedChunks.contains(l) || ((ArrayDeque)this.waitingByChunk.get(l)).peekFirst() != task) {
+					return false;
+				}
+			}
+		}
+
+		this.forEachChunk(task, chunkPos -> {
+			ArrayDeque<FeatureDecorationScheduler.Task<?>> arrayDeque = (ArrayDeque<FeatureDecorationScheduler.Task<?>>)this.waitingByChunk.get(chunkPos);
+			arrayDeque.removeFirst();
+			if (arrayDeque.isEmpty()) {
+				this.waitingByChunk.remove(chunkPos);
+			}
+
+			this.lockedChunks.add(chunkPos);
+		});
+		this.waiting--;
+		this.running++;
+		this.maxRunning = Math.max(this.maxRunning, this.running);
+		return true;
+	}
+
+	/**
+	 * Starts the waiting tasks that were only held back by the chunks of {@code
+	 * task}, which just completed.
+	 *
+	 * @return the tasks started, to be run once the lock is released
+	 */
+	private List<FeatureDecorationScheduler.Task<?>> startWaitingTasks(FeatureDecorationScheduler.Task<?> task) {
+		List<FeatureDecorationScheduler.Task<?>> list = Lists.<FeatureDecorationScheduler.Task<?>>newArrayList();
+		this.forEachChunk(task, chunkPos -> {
+			ArrayDeque<FeatureDecorationScheduler.Task<?>> arrayDeque = (ArrayDeque<FeatureDecorationScheduler.Task<?>>)this.waitingByChunk.get(chunkPos);
+			if (arrayDeque != null && !list.contains(arrayDeque.peekFirst())) {
+				list.add((FeatureDecorationScheduler.Task)arrayDeque.peekFirst());
+			}
+		});
+		list.sort(Comparator.comparingLong(taskx -> taskx.id));
+		List<FeatureDecorationScheduler.Task<?>> list2 = Lists.<FeatureDecorationScheduler.Task<?>>newArrayList();
+
+		for (FeatureDecorationScheduler.Task<?> task2 : list) {
+			if (this.tryStart(task2)) {
+				list2.add(task2);
+			}
+		}
+
+		return list2;
+	}
+
+	private void forEachChunk(FeatureDecorationScheduler.Task<?> task, LongConsumer consumer) {
+		for (int i = -task.radius; i <= task.radius; i++) {
+			for (int j = -task.radius; j <= task.radius; j++) {
+				consumer.accept(ChunkPos.toLong(task.pos.x + i, task.pos.z + j));
+			}
+		}
+	}
+
+	private <T> void run(FeatureDecorationScheduler.Task<T> task) {
+		CompletableFuture<T> completableFuture;
+		try {
+			completableFuture = (CompletableFuture<T>)task.task.get();
+		} catch (Throwable var4) {
+			completableFuture = CompletableFuture.failedFuture(var4);
+		}
+
+		completableFuture.whenComplete((value, throwable) -> {
+			List<FeatureDecorationScheduler.Task<?>> list;
+			synchronized (this) {
+				this.forEachChunk(task, this.lockedChunks::remove);
+				this.running--;
+				this.completed++;
+				list = this.startWaitingTasks(task);
+			}
+
+			for (FeatureDecorationScheduler.Task<?> task2 : list) {
+				this.run(task2);
+			}
+
+			if (throwable != null) {
+				task.future.completeExceptionally(throwable);
+			} else {
+				task.future.complete(value);
+			}
+		});
+	}
+
+	public synchronized String getDebugString() {
+		return String.format(
+			Locale.ROOT,
+			"running: %d, waiting: %d, max running: %d, submitted: %d, completed: %d, deferred: %d",
+			this.running,
+			this.waiting,
+			this.maxRunning,
+			this.submitted,
+			this.completed,
+			this.deferred
+		);
+	}
+
+	static class Task<T> {
+		final ChunkPos pos;
+		final int radius;
+		final Supplier<CompletableFuture<T>> task;
+		final CompletableFuture<T> future = new CompletableFuture();
+		long id;
+
+		Task(ChunkPos pos, int radius, Supplier<CompletableFuture<T>> task) {
+			this.pos = pos;
+			this.radius = radius;
+			this.task = task;
+		}
+	}
+}
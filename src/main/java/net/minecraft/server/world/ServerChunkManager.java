@@ -34,6 +34,7 @@ import net.minecraft.world.SpawnDensityCapper;
 import net.minecraft.world.SpawnHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldProperties;
+import net.minecraft.world.biome.source.BiomeCache;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkManager;
 import net.minecraft.world.chunk.ChunkStatus;
@@ -432,6 +433,11 @@ public class ServerChunkManager extends ChunkManager {
 		return this.threadedAnvilChunkStorage.getNoiseConfig();
 	}
 
+	@Nullable
+	public BiomeCache getBiomeCache() {
+		return this.threadedAnvilChunkStorage.getBiomeCache();
+	}
+
 	@Override
 	public int getLoadedChunkCount() {
 		return this.threadedAnvilChunkStorage.getLoadedChunkCount();
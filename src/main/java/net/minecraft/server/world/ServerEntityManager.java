@@ -106,6 +106,7 @@ public class ServerEntityManager<T extends EntityLike> implements AutoCloseable
 			long l = ChunkSectionPos.toLong(entity.getBlockPos());
 			EntityTrackingSection<T> entityTrackingSection = this.cache.getTrackingSection(l);
 			entityTrackingSection.add(entity);
+			this.handler.updateSection(entity, l);
 			entity.setChangeListener(new ServerEntityManager.Listener(entity, l, entityTrackingSection));
 			if (!existing) {
 				this.handler.create(entity);
@@ -192,6 +193,12 @@ public class ServerEntityManager<T extends EntityLike> implements AutoCloseable
 			this.readIfFresh(l);
 		}
 
+		this.cache.getSections(l).forEach(sectionPos -> {
+			EntityTrackingSection<T> entityTrackingSection = this.cache.findTrackingSection(sectionPos);
+			if (entityTrackingSection != null) {
+				entityTrackingSection.stream().forEach(entity -> this.handler.updateSection(entity, sectionPos));
+			}
+		});
 		this.cache.getTrackingSections(l).forEach(group -> {
 			EntityTrackingStatus entityTrackingStatus2 = group.swapStatus(trackingStatus);
 			boolean bl = entityTrackingStatus2.shouldTrack();
@@ -433,6 +440,7 @@ public class ServerEntityManager<T extends EntityLike> implements AutoCloseable
 
 		@Override
 		public void updateEntityPosition() {
+			ServerEntityManager.this.handler.updatePosition(this.entity);
 			BlockPos blockPos = this.entity.getBlockPos();
 			long l = ChunkSectionPos.toLong(blockPos);
 			if (l != this.sectionPos) {
@@ -441,9 +449,11 @@ public class ServerEntityManager<T extends EntityLike> implements AutoCloseable
 					ServerEntityManager.LOGGER.warn("Entity {} wasn't found in section {} (moving to {})", this.entity, ChunkSectionPos.from(this.sectionPos), l);
 				}
 
+				ServerEntityManager.this.handler.updateSection(this.entity, this.sectionPos);
 				ServerEntityManager.this.entityLeftSection(this.sectionPos, this.section);
 				EntityTrackingSection<T> entityTrackingSection = ServerEntityManager.this.cache.getTrackingSection(l);
 				entityTrackingSection.add(this.entity);
+				ServerEntityManager.this.handler.updateSection(this.entity, l);
 				this.section = entityTrackingSection;
 				this.sectionPos = l;
 				this.updateLoadStatus(entityTrackingStatus, entityTrackingSection.getStatus());
@@ -486,6 +496,8 @@ public class ServerEntityManager<T extends EntityLike> implements AutoCloseable
 				ServerEntityManager.LOGGER.warn("Entity {} wasn't found in section {} (destroying due to {})", this.entity, ChunkSectionPos.from(this.sectionPos), reason);
 			}
 
+			ServerEntityManager.this.handler.updateSection(this.entity, this.sectionPos);
+
 			EntityTrackingStatus entityTrackingStatus = ServerEntityManager.getNeededLoadStatus(this.entity, this.section.getStatus());
 			if (entityTrackingStatus.shouldTick()) {
 				ServerEntityManager.this.stopTicking(this.entity);
@@ -41,12 +41,20 @@ import net.minecraft.block.SnowBlock;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityInteraction;
 import net.minecraft.entity.EntityType;
+import net.minecraft.entity.ExperienceOrbEntity;
 import net.minecraft.entity.InteractionObserver;
+import net.minecraft.entity.ItemEntity;
 import net.minecraft.entity.LightningEntity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.Npc;
 import net.minecraft.entity.SpawnGroup;
+import net.minecraft.entity.ai.VisibilityCache;
+import net.minecraft.entity.ai.brain.sensor.SharedSensorCache;
+import net.minecraft.entity.ai.pathing.AsyncPathfinder;
 import net.minecraft.entity.ai.pathing.EntityNavigation;
+import net.minecraft.entity.ai.pathing.PathCache;
+import net.minecraft.entity.ai.pathing.PathNodeTypeCache;
+import net.minecraft.entity.ai.pathing.SectionPortalGraph;
 import net.minecraft.entity.boss.dragon.EnderDragonEntity;
 import net.minecraft.entity.boss.dragon.EnderDragonFight;
 import net.minecraft.entity.boss.dragon.EnderDragonPart;
@@ -58,6 +66,7 @@ import net.minecraft.entity.passive.AnimalEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.fluid.Fluid;
 import net.minecraft.fluid.FluidState;
+import net.minecraft.item.map.ExplorationMapResults;
 import net.minecraft.item.map.MapState;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.s2c.play.BlockBreakingProgressS2CPacket;
@@ -124,10 +133,12 @@ import net.minecraft.world.LocalDifficulty;
 import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.PortalForcer;
 import net.minecraft.world.SpawnHelper;
+import net.minecraft.world.StructureIndex;
 import net.minecraft.world.StructureLocator;
 import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.BiomeCache;
 import net.minecraft.world.chunk.BlockEntityTickInvoker;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkSection;
@@ -197,6 +208,18 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 	private final StructureLocator structureLocator;
 	private final boolean shouldTickTime;
 	private final RandomSequencesState randomSequences;
+	private final EntityCollisionBroadphase collisionBroadphase = new EntityCollisionBroadphase();
+	private final EntityMergeIndex<ItemEntity> itemMergeIndex = EntityMergeIndex.forItems();
+	private final EntityMergeIndex<ExperienceOrbEntity> experienceOrbMergeIndex = EntityMergeIndex.forExperienceOrbs();
+	private final EntityActivationRange activationRange = new EntityActivationRange(this);
+	private final SharedSensorCache sharedSensorCache = new SharedSensorCache(this);
+	private final PathCache pathCache = new PathCache();
+	private final AsyncPathfinder asyncPathfinder = new AsyncPathfinder();
+	private final PathNodeTypeCache pathNodeTypeCache = new PathNodeTypeCache(this);
+	private final SectionPortalGraph sectionPortalGraph = new SectionPortalGraph(this);
+	private final VisibilityCache visibilityCache = new VisibilityCache(this);
+	private final AsyncStructureLocator asyncStructureLocator = new AsyncStructureLocator(this);
+	private final FeatureDecorationScheduler featureDecorationScheduler = new FeatureDecorationScheduler();
 
 	public ServerWorld(
 		MinecraftServer server,
@@ -258,6 +281,7 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 		}
 
 		long l = server.getSaveProperties().getGeneratorOptions().getSeed();
+		long m = StructureIndex.hashContents(this.getRegistryManager(), server.getWorldgenContentsHash(), chunkGenerator);
 		this.structureLocator = new StructureLocator(
 			this.chunkManager.getChunkIoWorker(),
 			this.getRegistryManager(),
@@ -268,7 +292,13 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 			this,
 			chunkGenerator.getBiomeSource(),
 			l,
-			dataFixer
+			dataFixer,
+			this.getPersistentStateManager()
+				.getOrCreate(
+					nbt -> StructureIndex.fromNbt(this.getRegistryManager().get(RegistryKeys.STRUCTURE), l, m, nbt),
+					() -> new StructureIndex(this.getRegistryManager().get(RegistryKeys.STRUCTURE), l, m),
+					StructureIndex.ID
+				)
 		);
 		this.structureAccessor = new StructureAccessor(this, server.getSaveProperties().getGeneratorOptions(), this.structureLocator);
 		if (this.getRegistryKey() == World.END && this.getDimensionEntry().matchesKey(DimensionTypes.THE_END)) {
@@ -321,6 +351,58 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 			.getBiome(biomeX, biomeY, biomeZ, this.getChunkManager().getNoiseConfig().getMultiNoiseSampler());
 	}
 
+	public EntityCollisionBroadphase getCollisionBroadphase() {
+		return this.collisionBroadphase;
+	}
+
+	public EntityActivationRange getActivationRange() {
+		return this.activationRange;
+	}
+
+	public AsyncPathfinder getAsyncPathfinder() {
+		return this.asyncPathfinder;
+	}
+
+	public AsyncStructureLocator getAsyncStructureLocator() {
+		return this.asyncStructureLocator;
+	}
+
+	public ExplorationMapResults getExplorationMapResults() {
+		return this.getPersistentStateManager().getOrCreate(ExplorationMapResults::fromNbt, ExplorationMapResults::new, ExplorationMapResults.ID);
+	}
+
+	public FeatureDecorationScheduler getFeatureDecorationScheduler() {
+		return this.featureDecorationScheduler;
+	}
+
+	public PathCache getPathCache() {
+		return this.pathCache;
+	}
+
+	public PathNodeTypeCache getPathNodeTypeCache() {
+		return this.pathNodeTypeCache;
+	}
+
+	public SectionPortalGraph getSectionPortalGraph() {
+		return this.sectionPortalGraph;
+	}
+
+	public VisibilityCache getVisibilityCache() {
+		return this.visibilityCache;
+	}
+
+	public SharedSensorCache getSharedSensorCache() {
+		return this.sharedSensorCache;
+	}
+
+	public EntityMergeIndex<ItemEntity> getItemMergeIndex() {
+		return this.itemMergeIndex;
+	}
+
+	public EntityMergeIndex<ExperienceOrbEntity> getExperienceOrbMergeIndex() {
+		return this.experienceOrbMergeIndex;
+	}
+
 	public StructureAccessor getStructureAccessor() {
 		return this.structureAccessor;
 	}
@@ -751,7 +833,12 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 		entity.age++;
 		this.getProfiler().push((Supplier<String>)(() -> Registries.ENTITY_TYPE.getId(entity.getType()).toString()));
 		profiler.visit("tickNonPassenger");
-		entity.tick();
+		if (this.activationRange.shouldTick(entity)) {
+			entity.tick();
+		} else {
+			profiler.visit("tickInactive");
+			entity.tickInactive();
+		}
 		this.getProfiler().pop();
 
 		for (Entity entity2 : entity.getPassengerList()) {
@@ -998,6 +1085,8 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 	}
 
 	public void unloadEntities(WorldChunk chunk) {
+		this.pathNodeTypeCache.onChunkUnloaded(chunk.getPos());
+		this.sectionPortalGraph.onChunkUnloaded(chunk.getPos());
 		chunk.clear();
 		chunk.removeChunkTickSchedulers(this);
 	}
@@ -1457,6 +1546,10 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 
 	@Override
 	public void onBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock) {
+		this.pathCache.onBlockChanged(pos);
+		this.pathNodeTypeCache.onBlockChanged(pos);
+		this.sectionPortalGraph.onBlockChanged(pos);
+		this.visibilityCache.onBlockChanged(pos);
 		Optional<RegistryEntry<PointOfInterestType>> optional = PointOfInterestTypes.getTypeForState(oldBlock);
 		Optional<RegistryEntry<PointOfInterestType>> optional2 = PointOfInterestTypes.getTypeForState(newBlock);
 		if (!Objects.equals(optional, optional2)) {
@@ -1529,6 +1622,20 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 			}
 
 			writer.write(String.format(Locale.ROOT, "entities: %s\n", this.entityManager.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "entity_activation: %s\n", this.activationRange.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "async_pathfinding: %s\n", this.asyncPathfinder.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "path_node_types: %s\n", this.pathNodeTypeCache.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "section_portal_graph: %s\n", this.sectionPortalGraph.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "points_of_interest: %s\n", this.getPointOfInterestStorage().getDebugString()));
+			writer.write(String.format(Locale.ROOT, "line_of_sight: %s\n", this.visibilityCache.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "structure_index: %s\n", this.structureLocator.getIndex().getDebugString()));
+			writer.write(String.format(Locale.ROOT, "async_structure_locate: %s\n", this.asyncStructureLocator.getDebugString()));
+			writer.write(String.format(Locale.ROOT, "feature_decoration: %s\n", this.featureDecorationScheduler.getDebugString()));
+			BiomeCache biomeCache = this.chunkManager.getBiomeCache();
+			if (biomeCache != null) {
+				writer.write(String.format(Locale.ROOT, "biome_cache: %s\n", biomeCache.getDebugString()));
+			}
+
 			writer.write(String.format(Locale.ROOT, "block_entity_tickers: %d\n", this.blockEntityTickers.size()));
 			writer.write(String.format(Locale.ROOT, "block_ticks: %d\n", this.getBlockTickScheduler().getTickCount()));
 			writer.write(String.format(Locale.ROOT, "fluid_ticks: %d\n", this.getFluidTickScheduler().getTickCount()));
@@ -1814,6 +1921,7 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 	@Override
 	public void close() throws IOException {
 		super.close();
+		this.asyncStructureLocator.close();
 		this.entityManager.close();
 	}
 
@@ -1899,6 +2007,13 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 				}
 			}
 
+			ServerWorld.this.collisionBroadphase.add(entity);
+			if (entity instanceof ItemEntity) {
+				ServerWorld.this.itemMergeIndex.add(entity);
+			} else if (entity instanceof ExperienceOrbEntity) {
+				ServerWorld.this.experienceOrbMergeIndex.add(entity);
+			}
+
 			entity.updateEventHandler(EntityGameEventHandler::onEntitySetPosCallback);
 		}
 
@@ -1924,11 +2039,34 @@ public class ServerWorld extends World implements StructureWorldAccess, Attachme
 				}
 			}
 
+			ServerWorld.this.collisionBroadphase.remove(entity);
+			if (entity instanceof ItemEntity) {
+				ServerWorld.this.itemMergeIndex.remove(entity);
+			} else if (entity instanceof ExperienceOrbEntity) {
+				ServerWorld.this.experienceOrbMergeIndex.remove(entity);
+			}
+
 			entity.updateEventHandler(EntityGameEventHandler::onEntityRemoval);
 		}
 
 		public void updateLoadStatus(Entity entity) {
 			entity.updateEventHandler(EntityGameEventHandler::onEntitySetPos);
 		}
+
+		public void updatePosition(Entity entity) {
+			if (entity instanceof ItemEntity) {
+				ServerWorld.this.itemMergeIndex.update(entity);
+			} else if (entity instanceof ExperienceOrbEntity) {
+				ServerWorld.this.experienceOrbMergeIndex.update(entity);
+			} else {
+				ServerWorld.this.collisionBroadphase.update(entity);
+			}
+		}
+
+		public void updateSection(Entity entity, long sectionPos) {
+			if (entity instanceof LivingEntity) {
+				ServerWorld.this.sharedSensorCache.onSectionChanged(sectionPos);
+			}
+		}
 	}
 }
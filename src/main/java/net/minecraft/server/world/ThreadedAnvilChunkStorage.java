@@ -84,6 +84,7 @@ import net.minecraft.world.ChunkSerializer;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.SimulationDistanceLevelPropagator;
+import net.minecraft.world.biome.source.BiomeCache;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkProvider;
 import net.minecraft.world.chunk.ChunkStatus;
@@ -125,6 +126,8 @@ public class ThreadedAnvilChunkStorage extends VersionedChunkStorage implements
 	private final ThreadExecutor<Runnable> mainThreadExecutor;
 	private ChunkGenerator chunkGenerator;
 	private final NoiseConfig noiseConfig;
+	@Nullable
+	private final BiomeCache biomeCache;
 	private final StructurePlacementCalculator structurePlacementCalculator;
 	private final Supplier<PersistentStateManager> persistentStateManagerFactory;
 	private final PointOfInterestStorage pointOfInterestStorage;
@@ -177,6 +180,7 @@ public class ThreadedAnvilChunkStorage extends VersionedChunkStorage implements
 			);
 		}
 
+		this.biomeCache = chunkGenerator.getBiomeSource().enableBiomeCache(this.noiseConfig.getMultiNoiseSampler());
 		this.structurePlacementCalculator = chunkGenerator.createStructurePlacementCalculator(
 			dynamicRegistryManager.getWrapperOrThrow(RegistryKeys.STRUCTURE_SET), this.noiseConfig, l
 		);
@@ -210,6 +214,11 @@ public class ThreadedAnvilChunkStorage extends VersionedChunkStorage implements
 		return this.noiseConfig;
 	}
 
+	@Nullable
+	protected BiomeCache getBiomeCache() {
+		return this.biomeCache;
+	}
+
 	public void verifyChunkGenerator() {
 		DataResult<JsonElement> dataResult = ChunkGenerator.CODEC.encodeStart(JsonOps.INSTANCE, this.chunkGenerator);
 		DataResult<ChunkGenerator> dataResult2 = dataResult.flatMap(json -> ChunkGenerator.CODEC.parse(JsonOps.INSTANCE, json));
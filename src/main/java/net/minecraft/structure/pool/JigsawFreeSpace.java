@@ -0,0 +1,143 @@
+package net.minecraft.structure.pool;
+
+import com.google.common.collect.Lists;
+import java.util.Comparator;
+import java.util.List;
+import net.minecraft.util.math.BlockBox;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The space still free for the pieces of a jigsaw structure, that is a box minus the
+ * boxes of the pieces already placed within it.
+ *
+ * <p>The placed boxes are kept in a tree of axis-aligned boxes, each node bounding the
+ * boxes below it, so that checking a candidate piece only looks at the placed boxes
+ * near it. A piece fits if its box lies within the bounds and shares no block with a
+ * placed box, which is the same as the candidate box, contracted by a quarter block,
+ * lying within the free space as a voxel shape.
+ */
+final class JigsawFreeSpace {
+	private static final int MAX_LEAF_SIZE = 8;
+	private final BlockBox bounds;
+	private final JigsawFreeSpace.Node root = new JigsawFreeSpace.Node();
+
+	JigsawFreeSpace(BlockBox bounds) {
+		this.bounds = copy(bounds);
+	}
+
+	/**
+	 * {@return whether {@code box} lies within the bounds without sharing any block
+	 * with the boxes occupied so far}
+	 */
+	boolean fits(BlockBox box) {
+		return box.getMinX() >= this.bounds.getMinX()
+			&& box.getMinY() >= this.bounds.getMinY()
+			&& box.getMinZ() >= this.bounds.getMinZ()
+			&& box.getMaxX() <= this.bounds.getMaxX()
+			&& box.getMaxY() <= this.bounds.getMaxY()
+			&& box.getMaxZ() <= this.bounds.getMaxZ()
+			&& !this.root.intersects(box);
+	}
+
+	/**
+	 * Removes {@code box} from the free space. The box is copied, so it can still be
+	 * moved afterwards.
+	 */
+	void occupy(BlockBox box) {
+		this.root.insert(copy(box));
+	}
+
+	private static BlockBox copy(BlockBox box) {
+		return new BlockBox(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ());
+	}
+
+	static long getVolume(BlockBox box) {
+		return (long)box.getBlockCountX() * (long)box.getBlockCountY() * (long)box.getBlockCountZ();
+	}
+
+	static long getVolumeEncompassing(BlockBox box, BlockBox other) {
+		long l = (long)Math.max(box.getMaxX(), other.getMaxX()) - (long)Math.min(box.getMinX(), other.getMinX()) + 1L;
+		long m = (long)Math.max(box.getMaxY(), other.getMaxY()) - (long)Math.min(box.getMinY(), other.getMinY()) + 1L;
+		long n = (long)Math.max(box.getMaxZ(), other.getMaxZ()) - (long)Math.min(box.getMinZ(), other.getMinZ()) + 1L;
+		return l * m * n;
+	}
+
+	static final class Node {
+		@Nullable
+		private BlockBox bounds;
+		@Nullable
+		private List<BlockBox> boxes = Lists.<BlockBox>newArrayList();
+		@Nullable
+		private JigsawFreeSpace.Node first;
+		@Nullable
+		private JigsawFreeSpace.Node second;
+
+		boolean intersects(BlockBox box) {
+			if (this.bounds == null || !this.bounds.intersects(box)) {
+				return false;
+			} else if (this.boxes != null) {
+				for (BlockBox blockBox : this.boxes) {
+					if (blockBox.intersects(box)) {
+						return true;
+					}
+				}
+
+				return false;
+			} else {
+				return this.first.intersects(box) || this.second.intersects(box);
+			}
+		}
+
+		void insert(BlockBox box) {
+			if (this.bounds == null) {
+				this.bounds = JigsawFreeSpace.copy(box);
+			} else {
+				this.bounds.encompass(box);
+			}
+
+			if (this.boxes != null) {
+				this.boxes.add(box);
+				if (this.boxes.size() > MAX_LEAF_SIZE) {
+					this.split();
+				}
+			} else {
+				long l = JigsawFreeSpace.getVolumeEncompassing(this.first.bounds, box) - JigsawFreeSpace.getVolume(this.first.bounds);
+				long m = JigsawFreeSpace.getVolumeEncompassing(this.second.bounds, box) - JigsawFreeSpace.getVolume(this.second.bounds);
+				if (l < m || l == m && JigsawFreeSpace.getVolume(this.first.bounds) <= JigsawFreeSpace.getVolume(this.second.bounds)) {
+					this.first.insert(box);
+				} else {
+					this.second.insert(box);
+				}
+			}
+		}
+
+		/**
+		 * Splits the boxes of this leaf in two halves along the longest axis of its
+		 * bounds.
+		 */
+		private void split() {
+			int i = this.bounds.getBlockCountX();
+			int j = this.bounds.getBlockCountY();
+			int k = this.bounds.getBlockCountZ();
+			Comparator<BlockBox> comparator;
+			if (i >= j && i >= k) {
+				comparator = Comparator.comparingLong(box -> (long)box.getMinX() + (long)box.getMaxX());
+			} else if (k >= j) {
+				comparator = Comparator.comparingLong(box -> (long)box.getMinZ() + (long)box.getMaxZ());
+			} else {
+				comparator = Comparator.comparingLong(box -> (long)box.getMinY() + (long)box.getMaxY());
+			}
+
+			List<BlockBox> list = this.boxes;
+			list.sort(comparator);
+			this.boxes = null;
+			this.first = new JigsawFreeSpace.Node();
+			this.second = new JigsawFreeSpace.Node();
+			int l = list.size() / 2;
+
+			for (int m = 0; m < list.size(); m++) {
+				(m < l ? this.first : this.second).insert((BlockBox)list.get(m));
+			}
+		}
+	}
+}
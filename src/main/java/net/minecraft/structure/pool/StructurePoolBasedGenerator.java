@@ -1,10 +1,12 @@
 package net.minecraft.structure.pool;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.mojang.logging.LogUtils;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import net.minecraft.block.JigsawBlock;
 import net.minecraft.registry.DynamicRegistryManager;
@@ -21,24 +23,19 @@ import net.minecraft.structure.StructureTemplate;
 import net.minecraft.structure.StructureTemplateManager;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.function.BooleanBiFunction;
 import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Box;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.util.math.random.ChunkRandom;
 import net.minecraft.util.math.random.Random;
-import net.minecraft.util.shape.VoxelShape;
-import net.minecraft.util.shape.VoxelShapes;
 import net.minecraft.world.HeightLimitView;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.gen.StructureAccessor;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.noise.NoiseConfig;
 import net.minecraft.world.gen.structure.Structure;
-import org.apache.commons.lang3.mutable.MutableObject;
 import org.slf4j.Logger;
 
 public class StructurePoolBasedGenerator {
@@ -112,15 +109,17 @@ public class StructurePoolBasedGenerator {
 						List<PoolStructurePiece> list = Lists.<PoolStructurePiece>newArrayList();
 						list.add(poolStructurePiece);
 						if (size > 0) {
-							Box box = new Box(
-								(double)(i - maxDistanceFromCenter),
-								(double)(m - maxDistanceFromCenter),
-								(double)(j - maxDistanceFromCenter),
-								(double)(i + maxDistanceFromCenter + 1),
-								(double)(m + maxDistanceFromCenter + 1),
-								(double)(j + maxDistanceFromCenter + 1)
+							JigsawFreeSpace jigsawFreeSpace = new JigsawFreeSpace(
+								new BlockBox(
+									i - maxDistanceFromCenter,
+									m - maxDistanceFromCenter,
+									j - maxDistanceFromCenter,
+									i + maxDistanceFromCenter,
+									m + maxDistanceFromCenter,
+									j + maxDistanceFromCenter
+								)
 							);
-							VoxelShape voxelShape = VoxelShapes.combineAndSimplify(VoxelShapes.cuboid(box), VoxelShapes.cuboid(Box.from(blockBox)), BooleanBiFunction.ONLY_FIRST);
+							jigsawFreeSpace.occupy(blockBox);
 							generate(
 								context.noiseConfig(),
 								size,
@@ -132,7 +131,7 @@ public class StructurePoolBasedGenerator {
 								registry,
 								poolStructurePiece,
 								list,
-								voxelShape
+								jigsawFreeSpace
 							);
 							list.forEach(collector::addPiece);
 						}
@@ -170,18 +169,18 @@ public class StructurePoolBasedGenerator {
 		Registry<StructurePool> structurePoolRegistry,
 		PoolStructurePiece firstPiece,
 		List<PoolStructurePiece> pieces,
-		VoxelShape pieceShape
+		JigsawFreeSpace freeSpace
 	) {
 		StructurePoolBasedGenerator.StructurePoolGenerator structurePoolGenerator = new StructurePoolBasedGenerator.StructurePoolGenerator(
 			structurePoolRegistry, maxSize, chunkGenerator, structureTemplateManager, pieces, random
 		);
-		structurePoolGenerator.structurePieces.addLast(new StructurePoolBasedGenerator.ShapedPoolStructurePiece(firstPiece, new MutableObject<>(pieceShape), 0));
+		structurePoolGenerator.structurePieces.addLast(new StructurePoolBasedGenerator.ShapedPoolStructurePiece(firstPiece, freeSpace, 0));
 
 		while (!structurePoolGenerator.structurePieces.isEmpty()) {
 			StructurePoolBasedGenerator.ShapedPoolStructurePiece shapedPoolStructurePiece = (StructurePoolBasedGenerator.ShapedPoolStructurePiece)structurePoolGenerator.structurePieces
 				.removeFirst();
 			structurePoolGenerator.generatePiece(
-				shapedPoolStructurePiece.piece, shapedPoolStructurePiece.pieceShape, shapedPoolStructurePiece.currentSize, modifyBoundingBox, heightLimitView, noiseConfig
+				shapedPoolStructurePiece.piece, shapedPoolStructurePiece.freeSpace, shapedPoolStructurePiece.currentSize, modifyBoundingBox, heightLimitView, noiseConfig
 			);
 		}
 	}
@@ -220,12 +219,12 @@ public class StructurePoolBasedGenerator {
 
 	static final class ShapedPoolStructurePiece {
 		final PoolStructurePiece piece;
-		final MutableObject<VoxelShape> pieceShape;
+		final JigsawFreeSpace freeSpace;
 		final int currentSize;
 
-		ShapedPoolStructurePiece(PoolStructurePiece piece, MutableObject<VoxelShape> pieceShape, int currentSize) {
+		ShapedPoolStructurePiece(PoolStructurePiece piece, JigsawFreeSpace freeSpace, int currentSize) {
 			this.piece = piece;
-			this.pieceShape = pieceShape;
+			this.freeSpace = freeSpace;
 			this.currentSize = currentSize;
 		}
 	}
@@ -238,6 +237,7 @@ public class StructurePoolBasedGenerator {
 		private final List<? super PoolStructurePiece> children;
 		private final Random random;
 		final Deque<StructurePoolBasedGenerator.ShapedPoolStructurePiece> structurePieces = Queues.<StructurePoolBasedGenerator.ShapedPoolStructurePiece>newArrayDeque();
+		private final Map<StructurePoolElement, BlockBox[]> boundingBoxes = Maps.<StructurePoolElement, BlockBox[]>newIdentityHashMap();
 
 		StructurePoolGenerator(
 			Registry<StructurePool> registry,
@@ -256,14 +256,14 @@ public class StructurePoolBasedGenerator {
 		}
 
 		void generatePiece(
-			PoolStructurePiece piece, MutableObject<VoxelShape> pieceShape, int minY, boolean modifyBoundingBox, HeightLimitView world, NoiseConfig noiseConfig
+			PoolStructurePiece piece, JigsawFreeSpace freeSpace, int minY, boolean modifyBoundingBox, HeightLimitView world, NoiseConfig noiseConfig
 		) {
 			StructurePoolElement structurePoolElement = piece.getPoolElement();
 			BlockPos blockPos = piece.getPos();
 			BlockRotation blockRotation = piece.getRotation();
 			StructurePool.Projection projection = structurePoolElement.getProjection();
 			boolean bl = projection == StructurePool.Projection.RIGID;
-			MutableObject<VoxelShape> mutableObject = new MutableObject<>();
+			JigsawFreeSpace jigsawFreeSpace = null;
 			BlockBox blockBox = piece.getBoundingBox();
 			int i = blockBox.getMinY();
 
@@ -291,14 +291,15 @@ public class StructurePoolBasedGenerator {
 								.warn("Empty or non-existent fallback pool: {}", registryEntry2.getKey().map(key -> key.getValue().toString()).orElse("<unregistered>"));
 						} else {
 							boolean bl2 = blockBox.contains(blockPos3);
-							MutableObject<VoxelShape> mutableObject2;
+							JigsawFreeSpace jigsawFreeSpace2;
 							if (bl2) {
-								mutableObject2 = mutableObject;
-								if (mutableObject.getValue() == null) {
-									mutableObject.setValue(VoxelShapes.cuboid(Box.from(blockBox)));
+								if (jigsawFreeSpace == null) {
+									jigsawFreeSpace = new JigsawFreeSpace(blockBox);
 								}
+
+								jigsawFreeSpace2 = jigsawFreeSpace;
 							} else {
-								mutableObject2 = pieceShape;
+								jigsawFreeSpace2 = freeSpace;
 							}
 
 							List<StructurePoolElement> list = Lists.<StructurePoolElement>newArrayList();
@@ -317,7 +318,7 @@ public class StructurePoolBasedGenerator {
 									List<StructureTemplate.StructureBlockInfo> list2 = structurePoolElement2.getStructureBlockInfos(
 										this.structureTemplateManager, BlockPos.ORIGIN, blockRotation2, this.random
 									);
-									BlockBox blockBox2 = structurePoolElement2.getBoundingBox(this.structureTemplateManager, BlockPos.ORIGIN, blockRotation2);
+									BlockBox blockBox2 = this.getBoundingBox(structurePoolElement2, blockRotation2);
 									int l;
 									if (modifyBoundingBox && blockBox2.getBlockCountY() <= 16) {
 										l = list2.stream().mapToInt(blockInfo -> {
@@ -340,7 +341,7 @@ public class StructurePoolBasedGenerator {
 										if (JigsawBlock.attachmentMatches(structureBlockInfo, structureBlockInfo2)) {
 											BlockPos blockPos4 = structureBlockInfo2.pos();
 											BlockPos blockPos5 = blockPos3.subtract(blockPos4);
-											BlockBox blockBox3 = structurePoolElement2.getBoundingBox(this.structureTemplateManager, blockPos5, blockRotation2);
+											BlockBox blockBox3 = blockBox2.offset(blockPos5.getX(), blockPos5.getY(), blockPos5.getZ());
 											int m = blockBox3.getMinY();
 											StructurePool.Projection projection2 = structurePoolElement2.getProjection();
 											boolean bl3 = projection2 == StructurePool.Projection.RIGID;
@@ -365,8 +366,8 @@ public class StructurePoolBasedGenerator {
 												blockBox4.encompass(new BlockPos(blockBox4.getMinX(), blockBox4.getMinY() + r, blockBox4.getMinZ()));
 											}
 
-											if (!VoxelShapes.matchesAnywhere(mutableObject2.getValue(), VoxelShapes.cuboid(Box.from(blockBox4).contract(0.25)), BooleanBiFunction.ONLY_SECOND)) {
-												mutableObject2.setValue(VoxelShapes.combine(mutableObject2.getValue(), VoxelShapes.cuboid(Box.from(blockBox4)), BooleanBiFunction.ONLY_FIRST));
+											if (jigsawFreeSpace2.fits(blockBox4)) {
+												jigsawFreeSpace2.occupy(blockBox4);
 												int r = piece.getGroundLevelDelta();
 												int s;
 												if (bl3) {
@@ -395,7 +396,7 @@ public class StructurePoolBasedGenerator {
 												poolStructurePiece.addJunction(new JigsawJunction(blockPos2.getX(), t - n + s, blockPos2.getZ(), -o, projection));
 												this.children.add(poolStructurePiece);
 												if (minY + 1 <= this.maxSize) {
-													this.structurePieces.addLast(new StructurePoolBasedGenerator.ShapedPoolStructurePiece(poolStructurePiece, mutableObject2, minY + 1));
+													this.structurePieces.addLast(new StructurePoolBasedGenerator.ShapedPoolStructurePiece(poolStructurePiece, jigsawFreeSpace2, minY + 1));
 												}
 												continue label129;
 											}
@@ -409,6 +410,23 @@ public class StructurePoolBasedGenerator {
 			}
 		}
 
+		/**
+		 * {@return the bounding box of {@code element} placed at the origin with {@code
+		 * rotation}}, calculated once per element and rotation for the whole structure.
+		 * The bounding boxes of pool elements only move with their position, so the box
+		 * at any other position is this one offset by it.
+		 */
+		private BlockBox getBoundingBox(StructurePoolElement element, BlockRotation rotation) {
+			BlockBox[] blockBoxs = (BlockBox[])this.boundingBoxes.computeIfAbsent(element, elementx -> new BlockBox[BlockRotation.values().length]);
+			BlockBox blockBox = blockBoxs[rotation.ordinal()];
+			if (blockBox == null) {
+				blockBox = element.getBoundingBox(this.structureTemplateManager, BlockPos.ORIGIN, rotation);
+				blockBoxs[rotation.ordinal()] = blockBox;
+			}
+
+			return blockBox;
+		}
+
 		private static RegistryKey<StructurePool> getPoolKey(StructureTemplate.StructureBlockInfo blockInfo) {
 			return RegistryKey.of(RegistryKeys.TEMPLATE_POOL, new Identifier(blockInfo.nbt().getString("pool")));
 		}
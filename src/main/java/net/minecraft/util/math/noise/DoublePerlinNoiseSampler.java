@@ -79,6 +79,33 @@ public class DoublePerlinNoiseSampler {
 		return (this.firstSampler.sample(x, y, z) + this.secondSampler.sample(d, e, f)) * this.amplitude;
 	}
 
+	/**
+	 * Samples this noise at every point of {@code xs}, {@code ys} and {@code zs},
+	 * storing the results in {@code densities}.
+	 * 
+	 * <p>The results are identical to those of {@link #sample(double, double, double)}.
+	 */
+	public void sample(double[] xs, double[] ys, double[] zs, double[] densities) {
+		int i = densities.length;
+		double[] ds = new double[i];
+		double[] es = new double[i];
+		double[] fs = new double[i];
+		double[] gs = new double[i];
+
+		for (int j = 0; j < i; j++) {
+			ds[j] = xs[j] * 1.0181268882175227;
+			es[j] = ys[j] * 1.0181268882175227;
+			fs[j] = zs[j] * 1.0181268882175227;
+		}
+
+		this.firstSampler.sample(xs, ys, zs, densities);
+		this.secondSampler.sample(ds, es, fs, gs);
+
+		for (int j = 0; j < i; j++) {
+			densities[j] = (densities[j] + gs[j]) * this.amplitude;
+		}
+	}
+
 	public NoiseParameters copy() {
 		return this.parameters;
 	}
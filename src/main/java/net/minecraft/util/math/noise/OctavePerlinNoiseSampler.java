@@ -166,6 +166,36 @@ public class OctavePerlinNoiseSampler {
 		return d;
 	}
 
+	/**
+	 * Samples this noise at every point of {@code xs}, {@code ys} and {@code zs},
+	 * storing the results in {@code densities}.
+	 * 
+	 * <p>The results are identical to those of {@link #sample(double, double, double)},
+	 * but every octave is sampled at all points before moving on to the next one, so
+	 * the loops over the points stay small enough to be unrolled by the JIT.
+	 */
+	public void sample(double[] xs, double[] ys, double[] zs, double[] densities) {
+		Arrays.fill(densities, 0.0);
+		double[] ds = new double[densities.length];
+		double d = this.lacunarity;
+		double e = this.persistence;
+
+		for (int i = 0; i < this.octaveSamplers.length; i++) {
+			PerlinNoiseSampler perlinNoiseSampler = this.octaveSamplers[i];
+			if (perlinNoiseSampler != null) {
+				perlinNoiseSampler.sampleOctave(xs, ys, zs, d, ds);
+				double f = this.amplitudes.getDouble(i);
+
+				for (int j = 0; j < densities.length; j++) {
+					densities[j] += f * ds[j] * e;
+				}
+			}
+
+			d *= 2.0;
+			e /= 2.0;
+		}
+	}
+
 	public double method_40556(double d) {
 		return this.getTotalAmplitude(d + 2.0);
 	}
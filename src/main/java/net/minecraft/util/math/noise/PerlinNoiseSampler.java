@@ -62,6 +62,33 @@ public final class PerlinNoiseSampler {
 		return this.sample(i, j, k, g, h - n, l, h);
 	}
 
+	/**
+	 * Samples this noise as an octave of an {@link OctavePerlinNoiseSampler} at the
+	 * coordinates of {@code xs}, {@code ys} and {@code zs} multiplied by {@code
+	 * lacunarity}, storing the results in {@code densities}.
+	 * 
+	 * <p>This is equivalent to calling {@link #sample(double, double, double, double, double)}
+	 * for every point with the coordinates passed through {@link
+	 * OctavePerlinNoiseSampler#maintainPrecision} and a {@code yScale} of {@code 0.0},
+	 * but keeps the permutation table and origin in registers across the points.
+	 */
+	void sampleOctave(double[] xs, double[] ys, double[] zs, double lacunarity, double[] densities) {
+		double d = this.originX;
+		double e = this.originY;
+		double f = this.originZ;
+
+		for (int i = 0; i < densities.length; i++) {
+			double g = OctavePerlinNoiseSampler.maintainPrecision(xs[i] * lacunarity) + d;
+			double h = OctavePerlinNoiseSampler.maintainPrecision(ys[i] * lacunarity) + e;
+			double l = OctavePerlinNoiseSampler.maintainPrecision(zs[i] * lacunarity) + f;
+			int j = MathHelper.floor(g);
+			int k = MathHelper.floor(h);
+			int m = MathHelper.floor(l);
+			double n = h - (double)k;
+			densities[i] = this.sample(j, k, m, g - (double)j, n, l - (double)m, n);
+		}
+	}
+
 	public double sampleDerivative(double x, double y, double z, double[] ds) {
 		double d = x + this.originX;
 		double e = y + this.originY;
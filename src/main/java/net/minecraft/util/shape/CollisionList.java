@@ -0,0 +1,129 @@
+package net.minecraft.util.shape;
+
+import java.util.Arrays;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Direction;
+
+/**
+ * A reusable, ordered list of collision shapes against which entity movement is
+ * resolved without allocating.
+ *
+ * <p>Full cube block collisions, which make up the bulk of the shapes an entity
+ * collides with, are stored as the integer coordinates of their block in a
+ * primitive array instead of as offset voxel shapes. Any other shape is kept as
+ * a {@link VoxelShape}.
+ *
+ * <p>Entries keep the order in which they were added, as the result of
+ * {@link VoxelShapes#calculateMaxOffset} depends on the order of its shapes once
+ * the remaining distance falls below {@value VoxelShapes#MIN_SIZE}.
+ */
+public final class CollisionList {
+	private VoxelShape[] shapes = new VoxelShape[16];
+	private int[] cubes = new int[48];
+	private int size;
+
+	public void clear() {
+		Arrays.fill(this.shapes, 0, this.size, null);
+		this.size = 0;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public void add(VoxelShape shape) {
+		this.ensureCapacity();
+		this.shapes[this.size++] = shape;
+	}
+
+	/**
+	 * Adds the full cube of the block at the given position, the same as adding
+	 * {@code VoxelShapes.fullCube().offset(x, y, z)}.
+	 */
+	public void addFullCube(int x, int y, int z) {
+		this.ensureCapacity();
+		int i = this.size * 3;
+		this.cubes[i] = x;
+		this.cubes[i + 1] = y;
+		this.cubes[i + 2] = z;
+		this.shapes[this.size++] = null;
+	}
+
+	private void ensureCapacity() {
+		if (this.size == this.shapes.length) {
+			this.shapes = (VoxelShape[])Arrays.copyOf(this.shapes, this.size * 2);
+			this.cubes = Arrays.copyOf(this.cubes, this.size * 6);
+		}
+	}
+
+	/**
+	 * Equivalent to {@link VoxelShapes#calculateMaxOffset} over the shapes of this
+	 * list, with the entity box given by its coordinates.
+	 */
+	public double calculateMaxOffset(Direction.Axis axis, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double maxDist) {
+		Box box = null;
+
+		for (int i = 0; i < this.size; i++) {
+			if (Math.abs(maxDist) < 1.0E-7) {
+				return 0.0;
+			}
+
+			VoxelShape voxelShape = this.shapes[i];
+			if (voxelShape != null) {
+				if (box == null) {
+					box = new Box(minX, minY, minZ, maxX, maxY, maxZ);
+				}
+
+				maxDist = voxelShape.calculateMaxDistance(axis, box, maxDist);
+			} else {
+				int j = i * 3;
+				double d = (double)this.cubes[j];
+				double e = (double)this.cubes[j + 1];
+				double f = (double)this.cubes[j + 2];
+				maxDist = switch (axis) {
+					case X -> overlaps(minY, maxY, e) && overlaps(minZ, maxZ, f) ? calculateCubeMaxDistance(minX, maxX, d, maxDist) : maxDist;
+					case Y -> overlaps(minX, maxX, d) && overlaps(minZ, maxZ, f) ? calculateCubeMaxDistance(minY, maxY, e, maxDist) : maxDist;
+					case Z -> overlaps(minX, maxX, d) && overlaps(minY, maxY, e) ? calculateCubeMaxDistance(minZ, maxZ, f, maxDist) : maxDist;
+				};
+			}
+		}
+
+		return maxDist;
+	}
+
+	/**
+	 * {@return whether the box range overlaps the cube range on an axis the
+	 * movement is perpendicular to}
+	 *
+	 * <p>Mirrors the voxel index range computed by {@link VoxelShape#calculateMaxDistance}
+	 * for a shape with the points {@code cubeMin} and {@code cubeMin + 1}.
+	 */
+	private static boolean overlaps(double boxMin, double boxMax, double cubeMin) {
+		return boxMin + 1.0E-7 < cubeMin + 1.0 && boxMax - 1.0E-7 >= cubeMin;
+	}
+
+	private static double calculateCubeMaxDistance(double boxMin, double boxMax, double cubeMin, double maxDist) {
+		if (maxDist > 0.0) {
+			if (boxMax - 1.0E-7 < cubeMin) {
+				double d = cubeMin - boxMax;
+				if (d >= -1.0E-7) {
+					maxDist = Math.min(maxDist, d);
+				}
+			}
+		} else if (maxDist < 0.0) {
+			double d = cubeMin + 1.0;
+			if (boxMin + 1.0E-7 >= d) {
+				double e = d - boxMin;
+				if (e <= 1.0E-7) {
+					maxDist = Math.max(maxDist, e);
+				}
+			}
+		}
+
+		return maxDist;
+	}
+}
@@ -7,6 +7,7 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
@@ -16,6 +17,7 @@ import net.minecraft.enchantment.EnchantmentLevelEntry;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.effect.StatusEffect;
 import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.entity.passive.MerchantEntity;
 import net.minecraft.item.DyeItem;
 import net.minecraft.item.DyeableArmorItem;
 import net.minecraft.item.DyeableItem;
@@ -41,6 +43,7 @@ import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.random.Random;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.gen.structure.Structure;
 import org.jetbrains.annotations.Nullable;
 
@@ -938,6 +941,27 @@ public class TradeOffers {
 				return null;
 			} else {
 				ServerWorld serverWorld = (ServerWorld)entity.getWorld();
+				if (serverWorld.getGameRules().getBoolean(GameRules.ASYNC_STRUCTURE_LOCATE)) {
+					ItemStack itemStack = FilledMapItem.createPendingExplorationMap(
+						serverWorld, this.structure, entity.getBlockPos(), 100, true, (byte)2, this.iconType
+					);
+					CompletableFuture<Boolean> completableFuture = FilledMapItem.locatePendingExplorationMap(serverWorld, itemStack);
+					if (completableFuture.isDone() && Boolean.FALSE.equals(completableFuture.join())) {
+						return null;
+					}
+
+					itemStack.setCustomName(Text.translatable(this.nameKey));
+					TradeOffer tradeOffer = new TradeOffer(
+						new ItemStack(Items.EMERALD, this.price), new ItemStack(Items.COMPASS), itemStack, this.maxUses, this.experience, 0.2F
+					);
+					completableFuture.thenAccept(found -> {
+						if (Boolean.FALSE.equals(found) && entity instanceof MerchantEntity merchantEntity) {
+							merchantEntity.getOffers().remove(tradeOffer);
+						}
+					});
+					return tradeOffer;
+				}
+
 				BlockPos blockPos = serverWorld.locateStructure(this.structure, entity.getBlockPos(), 100, true);
 				if (blockPos != null) {
 					ItemStack itemStack = FilledMapItem.createMap(serverWorld, blockPos.getX(), blockPos.getZ(), (byte)2, true, true);
@@ -13,6 +13,7 @@ import net.minecraft.util.math.Box;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.shape.CollisionList;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
 import org.jetbrains.annotations.Nullable;
@@ -33,7 +34,13 @@ public class BlockCollisionSpliterator<T> extends AbstractIterator<T> {
 	public BlockCollisionSpliterator(
 		CollisionView world, @Nullable Entity entity, Box box, boolean forEntity, BiFunction<BlockPos.Mutable, VoxelShape, T> resultFunction
 	) {
-		this.context = entity == null ? ShapeContext.absent() : ShapeContext.of(entity);
+		this(world, entity == null ? ShapeContext.absent() : ShapeContext.of(entity), box, forEntity, resultFunction);
+	}
+
+	public BlockCollisionSpliterator(
+		CollisionView world, ShapeContext context, Box box, boolean forEntity, BiFunction<BlockPos.Mutable, VoxelShape, T> resultFunction
+	) {
+		this.context = context;
 		this.pos = new BlockPos.Mutable();
 		this.boxShape = VoxelShapes.cuboid(box);
 		this.world = world;
@@ -97,4 +104,63 @@ public class BlockCollisionSpliterator<T> extends AbstractIterator<T> {
 
 		return this.endOfData();
 	}
+
+	/**
+	 * Adds the block collisions of {@code entity} within {@code box} to {@code collisions}.
+	 * 
+	 * <p>This yields the same shapes in the same order as iterating
+	 * {@link CollisionView#getBlockCollisions}, but full cubes are added by their
+	 * block position instead of as offset shapes, and no iterator or intermediate
+	 * shape is allocated for full cubes and empty shapes.
+	 */
+	public static void collect(CollisionView world, @Nullable Entity entity, Box box, CollisionList collisions) {
+		ShapeContext shapeContext = entity == null ? ShapeContext.absent() : ShapeContext.of(entity);
+		BlockPos.Mutable mutable = new BlockPos.Mutable();
+		VoxelShape voxelShape = null;
+		BlockView blockView = null;
+		long l = ChunkPos.MARKER;
+		int i = MathHelper.floor(box.minX - 1.0E-7) - 1;
+		int j = MathHelper.floor(box.maxX + 1.0E-7) + 1;
+		int k = MathHelper.floor(box.minY - 1.0E-7) - 1;
+		int m = MathHelper.floor(box.maxY + 1.0E-7) + 1;
+		int n = MathHelper.floor(box.minZ - 1.0E-7) - 1;
+		int o = MathHelper.floor(box.maxZ + 1.0E-7) + 1;
+
+		for (int p = n; p <= o; p++) {
+			for (int q = k; q <= m; q++) {
+				for (int r = i; r <= j; r++) {
+					int s = (r == i || r == j ? 1 : 0) + (q == k || q == m ? 1 : 0) + (p == n || p == o ? 1 : 0);
+					if (s != 3) {
+						long t = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(r), ChunkSectionPos.getSectionCoord(p));
+						if (t != l) {
+							blockView = world.getChunkAsView(ChunkSectionPos.getSectionCoord(r), ChunkSectionPos.getSectionCoord(p));
+							l = t;
+						}
+
+						if (blockView != null) {
+							mutable.set(r, q, p);
+							BlockState blockState = blockView.getBlockState(mutable);
+							if ((s != 1 || blockState.exceedsCube()) && (s != 2 || blockState.isOf(Blocks.MOVING_PISTON))) {
+								VoxelShape voxelShape2 = blockState.getCollisionShape(world, mutable, shapeContext);
+								if (voxelShape2 == VoxelShapes.fullCube()) {
+									if (box.intersects((double)r, (double)q, (double)p, (double)r + 1.0, (double)q + 1.0, (double)p + 1.0)) {
+										collisions.addFullCube(r, q, p);
+									}
+								} else if (!voxelShape2.isEmpty()) {
+									if (voxelShape == null) {
+										voxelShape = VoxelShapes.cuboid(box);
+									}
+
+									VoxelShape voxelShape3 = voxelShape2.offset((double)r, (double)q, (double)p);
+									if (VoxelShapes.matchesAnywhere(voxelShape3, voxelShape, BooleanBiFunction.AND)) {
+										collisions.add(voxelShape3);
+									}
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
 }
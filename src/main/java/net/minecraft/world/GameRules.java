@@ -203,6 +203,55 @@ public class GameRules {
 	public static final Key<BooleanRule> DO_VINES_SPREAD = register(
 		"doVinesSpread", Category.UPDATES, BooleanRule.create(true)
 	);
+	/**
+	 * Whether mobs recalculate their paths on worker threads, following their
+	 * previous path until the new one is found.
+	 * 
+	 * @see net.minecraft.entity.ai.pathing.AsyncPathfinder
+	 */
+	public static final Key<BooleanRule> ASYNC_PATHFINDING = register("asyncPathfinding", Category.MOBS, BooleanRule.create(false));
+	/**
+	 * Whether mobs route paths to far away targets over the chunk sections between
+	 * them first, and search the blocks only up to the next waypoint of the route.
+	 * 
+	 * @see net.minecraft.entity.ai.pathing.SectionPortalGraph
+	 */
+	public static final Key<BooleanRule> HIERARCHICAL_PATHFINDING = register("hierarchicalPathfinding", Category.MOBS, BooleanRule.create(false));
+	/**
+	 * Whether the line of sight checks between the same eye positions share their
+	 * result within a tick, regardless of which entity checks.
+	 * 
+	 * @see net.minecraft.entity.ai.VisibilityCache
+	 */
+	public static final Key<BooleanRule> SHARED_LINE_OF_SIGHT = register("sharedLineOfSight", Category.MOBS, BooleanRule.create(false));
+	/**
+	 * Whether {@code /locate structure} and explorer maps search for structures on
+	 * worker threads. The command then reports its result once the search finishes,
+	 * and explorer maps are given out blank and filled in within a player's
+	 * inventory once their search finishes.
+	 * 
+	 * @see net.minecraft.server.world.AsyncStructureLocator
+	 */
+	public static final Key<BooleanRule> ASYNC_STRUCTURE_LOCATE = register("asyncStructureLocate", Category.MISC, BooleanRule.create(false));
+	/**
+	 * Whether the features of chunks are placed on worker threads, several chunks at
+	 * once as long as the chunks around them do not overlap. Features that keep state
+	 * of their own across placements may not be safe to place this way.
+	 * 
+	 * @see net.minecraft.server.world.FeatureDecorationScheduler
+	 */
+	public static final Key<BooleanRule> PARALLEL_FEATURE_DECORATION = register("parallelFeatureDecoration", Category.MISC, BooleanRule.create(false));
+	/**
+	 * The distance to the nearest player beyond which monsters only receive an
+	 * inactive tick, or {@code 0} to always fully tick them.
+	 * 
+	 * @see net.minecraft.server.world.EntityActivationRange
+	 */
+	public static final Key<IntRule> MONSTER_ACTIVATION_RANGE = register("monsterActivationRange", Category.MOBS, IntRule.create(0));
+	public static final Key<IntRule> ANIMAL_ACTIVATION_RANGE = register("animalActivationRange", Category.MOBS, IntRule.create(0));
+	public static final Key<IntRule> VILLAGER_ACTIVATION_RANGE = register("villagerActivationRange", Category.MOBS, IntRule.create(0));
+	public static final Key<IntRule> WATER_ACTIVATION_RANGE = register("waterActivationRange", Category.MOBS, IntRule.create(0));
+	public static final Key<IntRule> MISC_ACTIVATION_RANGE = register("miscActivationRange", Category.MISC, IntRule.create(0));
 	private final Map<Key<?>, Rule<?>> rules;
 
 	private static <T extends Rule<T>> Key<T> register(String name, Category category, Type<T> type) {
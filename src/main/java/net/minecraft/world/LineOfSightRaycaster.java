@@ -0,0 +1,85 @@
+package net.minecraft.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.ShapeContext;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.hit.HitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Casts the rays of line of sight checks against the collision shapes of the
+ * blocks of a world.
+ *
+ * <p>The blocks are visited in the same order as by {@link BlockView#raycast(RaycastContext)}
+ * with {@link RaycastContext.ShapeType#COLLIDER} and {@link RaycastContext.FluidHandling#NONE},
+ * and a ray is obstructed by the same blocks. The block states are read from the
+ * chunk sections directly though: the chunk is only looked up again when the ray
+ * enters another chunk, and blocks of empty sections or of air are skipped without
+ * computing their shapes, as they have none.
+ */
+public class LineOfSightRaycaster {
+	private final World world;
+	private final Vec3d start;
+	private final Vec3d end;
+	private final ShapeContext context;
+	@Nullable
+	private WorldChunk chunk;
+	private int chunkX;
+	private int chunkZ;
+
+	private LineOfSightRaycaster(World world, Vec3d start, Vec3d end, ShapeContext context) {
+		this.world = world;
+		this.start = start;
+		this.end = end;
+		this.context = context;
+	}
+
+	/**
+	 * {@return whether the collision shape of a block, as seen by {@code entity},
+	 * lies between {@code start} and {@code end}}
+	 */
+	public static boolean isObstructed(World world, Vec3d start, Vec3d end, Entity entity) {
+		if (world.isDebugWorld()) {
+			return world.raycast(new RaycastContext(start, end, RaycastContext.ShapeType.COLLIDER, RaycastContext.FluidHandling.NONE, entity)).getType()
+				!= HitResult.Type.MISS;
+		} else {
+			LineOfSightRaycaster lineOfSightRaycaster = new LineOfSightRaycaster(world, start, end, ShapeContext.of(entity));
+			return BlockView.raycast(start, end, lineOfSightRaycaster, (raycaster, pos) -> raycaster.isObstructedAt(pos) ? Boolean.TRUE : null, raycaster -> Boolean.FALSE);
+		}
+	}
+
+	private boolean isObstructedAt(BlockPos pos) {
+		int i = pos.getY();
+		if (this.world.isOutOfHeightLimit(i)) {
+			return false;
+		} else {
+			int j = ChunkSectionPos.getSectionCoord(pos.getX());
+			int k = ChunkSectionPos.getSectionCoord(pos.getZ());
+			if (this.chunk == null || j != this.chunkX || k != this.chunkZ) {
+				this.chunk = this.world.getChunk(j, k);
+				this.chunkX = j;
+				this.chunkZ = k;
+			}
+
+			int l = this.chunk.getSectionIndex(i);
+			ChunkSection[] chunkSections = this.chunk.getSectionArray();
+			if (l >= 0 && l < chunkSections.length && !chunkSections[l].isEmpty()) {
+				BlockState blockState = chunkSections[l].getBlockState(pos.getX() & 15, i & 15, pos.getZ() & 15);
+				if (blockState.isAir()) {
+					return false;
+				} else {
+					VoxelShape voxelShape = blockState.getCollisionShape(this.world, pos, this.context);
+					return !voxelShape.isEmpty() && voxelShape.raycast(this.start, this.end, pos) != null;
+				}
+			} else {
+				return false;
+			}
+		}
+	}
+}
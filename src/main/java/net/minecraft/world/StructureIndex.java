@@ -0,0 +1,312 @@
+package net.minecraft.world;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonElement;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import it.unimi.dsi.fastutil.longs.Long2BooleanFunction;
+import it.unimi.dsi.fastutil.longs.Long2BooleanLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.RegistryLoader;
+import net.minecraft.registry.RegistryOps;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+import net.minecraft.world.gen.structure.Structure;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Remembers, for the structures of a world, which chunks hold which structure
+ * starts and in which chunks a structure is not able to start at all. The
+ * {@link StructureLocator} uses it to answer the structure presence checks of
+ * locating structures without scanning chunks or checking biomes and pieces again.
+ *
+ * <p>Both are only kept for the chunks used most recently, up to
+ * {@value #MAX_CHUNKS} chunks and {@value #MAX_CHECKS_PER_STRUCTURE} checks per
+ * structure. Only the chunks in which a structure is not able to start are saved
+ * along with the other data of the world, as they are what spares the searches the
+ * most work and are not stored anywhere else; the structure starts are stored in
+ * the chunks themselves and are indexed again as the chunks are loaded. The saved
+ * checks are dropped when the seed of the world or its chunk generator change, or
+ * when the contents of world generation change, see {@link #hashWorldgenContents}.
+ *
+ * <p>The index can be used from other threads than the server thread, to locate
+ * structures asynchronously. The references returned are never modified afterwards.
+ */
+public class StructureIndex extends PersistentState {
+	public static final String ID = "structure_index";
+	private static final int MAX_CHUNKS = 16384;
+	private static final int MAX_CHECKS_PER_STRUCTURE = 16384;
+	private static final String SEED_KEY = "Seed";
+	private static final String CONTENTS_HASH_KEY = "ContentsHash";
+	private static final String IMPOSSIBLE_STARTS_KEY = "ImpossibleStarts";
+	private static final Set<RegistryKey<?>> HASHED_REGISTRIES = Set.of(
+		RegistryKeys.DIMENSION_TYPE,
+		RegistryKeys.STRUCTURE,
+		RegistryKeys.STRUCTURE_SET,
+		RegistryKeys.PROCESSOR_LIST,
+		RegistryKeys.TEMPLATE_POOL,
+		RegistryKeys.CHUNK_GENERATOR_SETTINGS,
+		RegistryKeys.NOISE_PARAMETERS,
+		RegistryKeys.DENSITY_FUNCTION,
+		RegistryKeys.MULTI_NOISE_BIOME_SOURCE_PARAMETER_LIST
+	);
+	private final Registry<Structure> structureRegistry;
+	private final long seed;
+	private final long contentsHash;
+	private final Long2ObjectLinkedOpenHashMap<Object2IntMap<Structure>> structuresByChunkPos = new Long2ObjectLinkedOpenHashMap<>();
+	private final Map<Structure, Long2BooleanLinkedOpenHashMap> generationPossibilityByStructure = new HashMap();
+	private long hits;
+	private long misses;
+
+	public StructureIndex(Registry<Structure> structureRegistry, long seed, long contentsHash) {
+		this.structureRegistry = structureRegistry;
+		this.seed = seed;
+		this.contentsHash = contentsHash;
+	}
+
+	public static StructureIndex fromNbt(Registry<Structure> structureRegistry, long seed, long contentsHash, NbtCompound nbt) {
+		StructureIndex structureIndex = new StructureIndex(structureRegistry, seed, contentsHash);
+		if (nbt.getLong("Seed") == seed && nbt.getLong("ContentsHash") == contentsHash) {
+			NbtCompound nbtCompound = nbt.getCompound("ImpossibleStarts");
+
+			for (String string : nbtCompound.getKeys()) {
+				Structure structure = getStructure(structureRegistry, string);
+				if (structure != null) {
+					Long2BooleanLinkedOpenHashMap long2BooleanLinkedOpenHashMap = structureIndex.getGenerationPossibility(structure);
+
+					for (long l : nbtCompound.getLongArray(string)) {
+						structureIndex.put(long2BooleanLinkedOpenHashMap, l, false);
+					}
+				}
+			}
+		}
+
+		return structureIndex;
+	}
+
+	/**
+	 * {@return a hash of the contents of world generation the saved checks of all
+	 * worlds of a server depend on}
+	 * 
+	 * <p>These are the entries of the registries that structures, their pieces, biome
+	 * sources and noise are made of, written in full since entries only refer to the
+	 * entries of other registries by id, the ids and tags of biomes, the game version,
+	 * and the data packs enabled, as the structure templates they hold are not kept in
+	 * registries. This encodes all of these entries, so it is computed once per server,
+	 * see {@link net.minecraft.server.MinecraftServer#getWorldgenContentsHash}.
+	 */
+	public static long hashWorldgenContents(DynamicRegistryManager registryManager, Collection<String> dataPacks) {
+		RegistryOps<JsonElement> registryOps = RegistryOps.of(JsonOps.INSTANCE, registryManager);
+		Hasher hasher = Hashing.sha256().newHasher();
+
+		for (RegistryLoader.Entry<?> entry : RegistryLoader.DYNAMIC_REGISTRIES) {
+			if (HASHED_REGISTRIES.contains(entry.key())) {
+				hashEntries(hasher, registryOps, registryManager, entry);
+			}
+		}
+
+		Registry<Biome> registry = registryManager.get(RegistryKeys.BIOME);
+		registry.getIds().stream().sorted().forEach(id -> hasher.putString(id.toString(), Charsets.UTF_8));
+		registry.streamTagsAndEntries().sorted(Comparator.comparing(pair -> pair.getFirst().id())).forEach(pair -> {
+			hasher.putString(pair.getFirst().id().toString(), Charsets.UTF_8);
+
+			for (RegistryEntry<Biome> registryEntry : pair.getSecond()) {
+				hasher.putString(registryEntry.getKey().map(key -> key.getValue().toString()).orElse(""), Charsets.UTF_8);
+			}
+		});
+		hasher.putString(SharedConstants.getGameVersion().getId(), Charsets.UTF_8);
+
+		for (String string : dataPacks) {
+			hasher.putString(string, Charsets.UTF_8);
+		}
+
+		return hasher.hash().asLong();
+	}
+
+	/**
+	 * {@return a hash of what the saved checks of a world depend on besides the seed},
+	 * that is the contents of world generation hashed by {@link #hashWorldgenContents}
+	 * and the chunk generator of the world
+	 */
+	public static long hashContents(DynamicRegistryManager registryManager, long worldgenContentsHash, ChunkGenerator chunkGenerator) {
+		RegistryOps<JsonElement> registryOps = RegistryOps.of(JsonOps.INSTANCE, registryManager);
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putLong(worldgenContentsHash);
+		hasher.putString(encode(registryOps, ChunkGenerator.CODEC, chunkGenerator), Charsets.UTF_8);
+		return hasher.hash().asLong();
+	}
+
+	private static <T> void hashEntries(
+		Hasher hasher, RegistryOps<JsonElement> registryOps, DynamicRegistryManager registryManager, RegistryLoader.Entry<T> entry
+	) {
+		hashEntries(hasher, registryOps, registryManager.get(entry.key()), entry.elementCodec());
+	}
+
+	private static <T> void hashEntries(Hasher hasher, RegistryOps<JsonElement> registryOps, Registry<T> registry, Codec<T> codec) {
+		registry.getIds().stream().sorted().forEach(id -> {
+			hasher.putString(id.toString(), Charsets.UTF_8);
+			hasher.putString(encode(registryOps, codec, registry.get(id)), Charsets.UTF_8);
+		});
+	}
+
+	private static <T> String encode(RegistryOps<JsonElement> registryOps, Codec<T> codec, T value) {
+		return (String)codec.encodeStart(registryOps, value).result().map(JsonElement::toString).orElse("");
+	}
+
+	@Nullable
+	private static Structure getStructure(Registry<Structure> structureRegistry, String id) {
+		Identifier identifier = Identifier.tryParse(id);
+		return identifier == null ? null : structureRegistry.get(identifier);
+	}
+
+	@Override
+	public synchronized NbtCompound writeNbt(NbtCompound nbt) {
+		nbt.putLong("Seed", this.seed);
+		nbt.putLong("ContentsHash", this.contentsHash);
+		NbtCompound nbtCompound = new NbtCompound();
+		this.generationPossibilityByStructure.forEach((structure, generationPossibilityByChunkPos) -> {
+			String string = this.getId(structure);
+			if (string != null) {
+				LongList longList = new LongArrayList();
+
+				for (Long2BooleanMap.Entry entry : generationPossibilityByChunkPos.long2BooleanEntrySet()) {
+					if (!entry.getBooleanValue()) {
+						longList.add(entry.getLongKey());
+					}
+				}
+
+				if (!longList.isEmpty()) {
+					nbtCompound.putLongArray(string, longList.toLongArray());
+				}
+			}
+		});
+		nbt.put("ImpossibleStarts", nbtCompound);
+		return nbt;
+	}
+
+	@Nullable
+	private String getId(Structure structure) {
+		Identifier identifier = this.structureRegistry.getId(structure);
+		return identifier == null ? null : identifier.toString();
+	}
+
+	private Long2BooleanLinkedOpenHashMap getGenerationPossibility(Structure structure) {
+		return (Long2BooleanLinkedOpenHashMap)this.generationPossibilityByStructure.computeIfAbsent(structure, structurex -> new Long2BooleanLinkedOpenHashMap());
+	}
+
+	private void put(Long2BooleanLinkedOpenHashMap generationPossibilityByChunkPos, long pos, boolean possible) {
+		generationPossibilityByChunkPos.putAndMoveToLast(pos, possible);
+
+		while (generationPossibilityByChunkPos.size() > MAX_CHECKS_PER_STRUCTURE) {
+			generationPossibilityByChunkPos.removeFirstBoolean();
+		}
+	}
+
+	private void put(long pos, Object2IntMap<Structure> referencesByStructure) {
+		this.structuresByChunkPos.putAndMoveToLast(pos, referencesByStructure);
+
+		while (this.structuresByChunkPos.size() > MAX_CHUNKS) {
+			this.structuresByChunkPos.removeFirst();
+		}
+	}
+
+	/**
+	 * {@return the references of the structure starts in the chunk at {@code pos}, or
+	 * {@code null} if the chunk has not been scanned recently}
+	 */
+	@Nullable
+	public synchronized Object2IntMap<Structure> getStructureReferences(long pos) {
+		Object2IntMap<Structure> object2IntMap = this.structuresByChunkPos.getAndMoveToLast(pos);
+		if (object2IntMap != null) {
+			this.hits++;
+		}
+
+		return object2IntMap;
+	}
+
+	/**
+	 * Indexes the references of the structure starts in the chunk at {@code pos}. The
+	 * map passed must not be modified afterwards.
+	 */
+	public synchronized void putStructureReferences(long pos, Object2IntMap<Structure> referencesByStructure) {
+		this.put(pos, referencesByStructure);
+
+		for (Long2BooleanLinkedOpenHashMap long2BooleanLinkedOpenHashMap : this.generationPossibilityByStructure.values()) {
+			if (long2BooleanLinkedOpenHashMap.containsKey(pos) && !long2BooleanLinkedOpenHashMap.remove(pos)) {
+				this.markDirty();
+			}
+		}
+	}
+
+	/**
+	 * Increments the references of the start of {@code structure} in the chunk at
+	 * {@code pos}, if the chunk is still indexed. A chunk no longer indexed is left
+	 * out, so that it is scanned again in full instead of being indexed with only
+	 * this start.
+	 */
+	public synchronized void incrementReferences(long pos, Structure structure) {
+		Object2IntMap<Structure> object2IntMap = this.structuresByChunkPos.get(pos);
+		if (object2IntMap != null) {
+			Object2IntMap<Structure> object2IntMap2 = new Object2IntOpenHashMap<>(object2IntMap);
+			object2IntMap2.computeInt(structure, (feature, references) -> references == null ? 1 : references + 1);
+			this.put(pos, object2IntMap2);
+		}
+	}
+
+	/**
+	 * {@return whether {@code structure} is able to start in the chunk at {@code pos}},
+	 * checking it with {@code generationPossibility} the first time.
+	 */
+	public boolean isGenerationPossible(Structure structure, long pos, Long2BooleanFunction generationPossibility) {
+		synchronized (this) {
+			Long2BooleanLinkedOpenHashMap long2BooleanLinkedOpenHashMap = (Long2BooleanLinkedOpenHashMap)this.generationPossibilityByStructure.get(structure);
+			if (long2BooleanLinkedOpenHashMap != null && long2BooleanLinkedOpenHashMap.containsKey(pos)) {
+				this.hits++;
+				return long2BooleanLinkedOpenHashMap.getAndMoveToLast(pos);
+			}
+
+			this.misses++;
+		}
+
+		boolean bl = generationPossibility.get(pos);
+		synchronized (this) {
+			this.put(this.getGenerationPossibility(structure), pos, bl);
+			if (!bl) {
+				this.markDirty();
+			}
+
+			return bl;
+		}
+	}
+
+	public synchronized String getDebugString() {
+		int i = 0;
+
+		for (Long2BooleanLinkedOpenHashMap long2BooleanLinkedOpenHashMap : this.generationPossibilityByStructure.values()) {
+			i += long2BooleanLinkedOpenHashMap.size();
+		}
+
+		return String.format(Locale.ROOT, "chunks: %d, checks: %d, hits: %d, misses: %d", this.structuresByChunkPos.size(), i, this.hits, this.misses);
+	}
+}
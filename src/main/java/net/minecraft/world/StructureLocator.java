@@ -3,14 +3,9 @@ package net.minecraft.world;
 import com.mojang.datafixers.DataFixer;
 import com.mojang.logging.LogUtils;
 import it.unimi.dsi.fastutil.longs.Long2BooleanFunction;
-import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
-import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
-import java.util.HashMap;
 import java.util.Map;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.nbt.NbtCompound;
@@ -51,8 +46,7 @@ public class StructureLocator {
 	private final BiomeSource biomeSource;
 	private final long seed;
 	private final DataFixer dataFixer;
-	private final Long2ObjectMap<Object2IntMap<Structure>> cachedStructuresByChunkPos = new Long2ObjectOpenHashMap<>();
-	private final Map<Structure, Long2BooleanMap> generationPossibilityByStructure = new HashMap();
+	private final StructureIndex index;
 
 	public StructureLocator(
 		NbtScannable chunkIoWorker,
@@ -64,7 +58,8 @@ public class StructureLocator {
 		HeightLimitView world,
 		BiomeSource biomeSource,
 		long seed,
-		DataFixer dataFixer
+		DataFixer dataFixer,
+		StructureIndex index
 	) {
 		this.chunkIoWorker = chunkIoWorker;
 		this.registryManager = registryManager;
@@ -76,13 +71,14 @@ public class StructureLocator {
 		this.biomeSource = biomeSource;
 		this.seed = seed;
 		this.dataFixer = dataFixer;
+		this.index = index;
 		this.biomeRegistry = registryManager.get(RegistryKeys.BIOME);
 		this.structureRegistry = registryManager.get(RegistryKeys.STRUCTURE);
 	}
 
 	public StructurePresence getStructurePresence(ChunkPos pos, Structure type, boolean skipReferencedStructures) {
 		long l = pos.toLong();
-		Object2IntMap<Structure> object2IntMap = this.cachedStructuresByChunkPos.get(l);
+		Object2IntMap<Structure> object2IntMap = this.index.getStructureReferences(l);
 		if (object2IntMap != null) {
 			return this.getStructurePresence(object2IntMap, type, skipReferencedStructures);
 		} else {
@@ -90,8 +86,7 @@ public class StructureLocator {
 			if (structurePresence != null) {
 				return structurePresence;
 			} else {
-				boolean bl = ((Long2BooleanMap)this.generationPossibilityByStructure.computeIfAbsent(type, structure2 -> new Long2BooleanOpenHashMap()))
-					.computeIfAbsent(l, (Long2BooleanFunction)(chunkPos -> this.isGenerationPossible(pos, type)));
+				boolean bl = this.index.isGenerationPossible(type, l, (Long2BooleanFunction)(chunkPos -> this.isGenerationPossible(pos, type)));
 				return !bl ? StructurePresence.START_NOT_PRESENT : StructurePresence.CHUNK_LOAD_NEEDED;
 			}
 		}
@@ -222,18 +217,14 @@ public class StructureLocator {
 	}
 
 	private void cache(long pos, Object2IntMap<Structure> referencesByStructure) {
-		this.cachedStructuresByChunkPos.put(pos, createMapIfEmpty(referencesByStructure));
-		this.generationPossibilityByStructure.values().forEach(generationPossibilityByChunkPos -> generationPossibilityByChunkPos.remove(pos));
+		this.index.putStructureReferences(pos, createMapIfEmpty(referencesByStructure));
 	}
 
 	public void incrementReferences(ChunkPos pos, Structure structure) {
-		this.cachedStructuresByChunkPos.compute(pos.toLong(), (posx, referencesByStructure) -> {
-			if (referencesByStructure == null || referencesByStructure.isEmpty()) {
-				referencesByStructure = new Object2IntOpenHashMap();
-			}
+		this.index.incrementReferences(pos.toLong(), structure);
+	}
 
-			referencesByStructure.computeInt(structure, (feature, references) -> references == null ? 1 : references + 1);
-			return referencesByStructure;
-		});
+	public StructureIndex getIndex() {
+		return this.index;
 	}
 }
@@ -0,0 +1,144 @@
+package net.minecraft.world.biome.source;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.util.MultiNoiseUtil;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Caches the biomes a {@link MultiNoiseBiomeSource} samples with the shared noise
+ * sampler of a world, by biome coordinates. The cache does not hold on to the
+ * sampler, which is what keeps it registered with the biome source.
+ *
+ * <p>Structure placement, structure biome checks and biome lookups outside of loaded
+ * chunks sample the same biome positions over and over for neighboring chunks, each
+ * time evaluating all climate noises and searching the parameter tree again.
+ *
+ * <p>The cache is split into segments by regions of {@value #REGION_SIZE} by
+ * {@value #REGION_SIZE} biome columns, so that the lookups for an area mostly go to
+ * one segment, and every segment evicts its least recently used biomes once it holds
+ * {@value #SEGMENT_CAPACITY} of them.
+ */
+public class BiomeCache {
+	private static final int REGION_SIZE = 16;
+	private static final int SEGMENT_COUNT = 64;
+	private static final int SEGMENT_CAPACITY = 4096;
+	private final MultiNoiseBiomeSource biomeSource;
+	private final BiomeCache.Segment[] segments = new BiomeCache.Segment[SEGMENT_COUNT];
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong batchedMisses = new AtomicLong();
+
+	BiomeCache(MultiNoiseBiomeSource biomeSource) {
+		this.biomeSource = biomeSource;
+
+		for (int i = 0; i < SEGMENT_COUNT; i++) {
+			this.segments[i] = new BiomeCache.Segment();
+		}
+	}
+
+	public RegistryEntry<Biome> getBiome(int x, int y, int z, MultiNoiseUtil.MultiNoiseSampler noiseSampler) {
+		BiomeCache.Segment segment = this.getSegment(x, z);
+		long l = BlockPos.asLong(x, y, z);
+		RegistryEntry<Biome> registryEntry = segment.get(l);
+		if (registryEntry != null) {
+			this.hits.incrementAndGet();
+			return registryEntry;
+		} else {
+			this.misses.incrementAndGet();
+			registryEntry = this.biomeSource.getBiomeAtPoint(noiseSampler.sample(x, y, z));
+			segment.put(l, registryEntry);
+			return registryEntry;
+		}
+	}
+
+	/**
+	 * Looks up the biomes at the biome coordinates of {@code xs}, {@code ys} and
+	 * {@code zs}, storing them in {@code biomes}. The biomes missing from the cache are
+	 * sampled in one batch.
+	 */
+	public void getBiomes(int[] xs, int[] ys, int[] zs, MultiNoiseUtil.MultiNoiseSampler noiseSampler, RegistryEntry<Biome>[] biomes) {
+		int i = 0;
+		int[] is = new int[xs.length];
+
+		for (int j = 0; j < xs.length; j++) {
+			RegistryEntry<Biome> registryEntry = this.getSegment(xs[j], zs[j]).get(BlockPos.asLong(xs[j], ys[j], zs[j]));
+			biomes[j] = registryEntry;
+			if (registryEntry == null) {
+				is[i++] = j;
+			}
+		}
+
+		this.hits.addAndGet((long)(xs.length - i));
+		if (i > 0) {
+			this.batchedMisses.addAndGet((long)i);
+			int[] js = new int[i];
+			int[] ks = new int[i];
+			int[] ls = new int[i];
+
+			for (int j = 0; j < i; j++) {
+				js[j] = xs[is[j]];
+				ks[j] = ys[is[j]];
+				ls[j] = zs[is[j]];
+			}
+
+			MultiNoiseUtil.NoiseValuePoint[] noiseValuePoints = noiseSampler.sample(js, ks, ls);
+
+			for (int j = 0; j < i; j++) {
+				RegistryEntry<Biome> registryEntry2 = this.biomeSource.getBiomeAtPoint(noiseValuePoints[j]);
+				biomes[is[j]] = registryEntry2;
+				this.getSegment(js[j], ls[j]).put(BlockPos.asLong(js[j], ks[j], ls[j]), registryEntry2);
+			}
+		}
+	}
+
+	private BiomeCache.Segment getSegment(int x, int z) {
+		int i = Math.floorDiv(x, REGION_SIZE);
+		int j = Math.floorDiv(z, REGION_SIZE);
+		return this.segments[(i * 31 + j) & SEGMENT_COUNT - 1];
+	}
+
+	public String getDebugString() {
+		int i = 0;
+
+		for (BiomeCache.Segment segment : this.segments) {
+			i += segment.size();
+		}
+
+		long l = this.hits.get();
+		long m = this.misses.get() + this.batchedMisses.get();
+		return String.format(
+			Locale.ROOT,
+			"biomes: %d, hits: %d, misses: %d (batched: %d), hit rate: %.1f%%",
+			i,
+			l,
+			m,
+			this.batchedMisses.get(),
+			l + m == 0L ? 0.0 : (double)l * 100.0 / (double)(l + m)
+		);
+	}
+
+	static class Segment {
+		private final Long2ObjectLinkedOpenHashMap<RegistryEntry<Biome>> biomes = new Long2ObjectLinkedOpenHashMap<>();
+
+		@Nullable
+		public synchronized RegistryEntry<Biome> get(long pos) {
+			return this.biomes.getAndMoveToFirst(pos);
+		}
+
+		public synchronized void put(long pos, RegistryEntry<Biome> biome) {
+			this.biomes.putAndMoveToFirst(pos, biome);
+			if (this.biomes.size() > SEGMENT_CAPACITY) {
+				this.biomes.removeLast();
+			}
+		}
+
+		public synchronized int size() {
+			return this.biomes.size();
+		}
+	}
+}
@@ -41,6 +41,17 @@ public abstract class BiomeSource implements BiomeSupplier {
 		return (Set<RegistryEntry<Biome>>)this.biomes.get();
 	}
 
+	/**
+	 * Starts caching the biomes this source samples with {@code sampler}, the shared
+	 * noise sampler of a world.
+	 * 
+	 * @return the cache, or {@code null} if this source does not cache its biomes
+	 */
+	@Nullable
+	public BiomeCache enableBiomeCache(MultiNoiseUtil.MultiNoiseSampler sampler) {
+		return null;
+	}
+
 	public Set<RegistryEntry<Biome>> getBiomesInArea(int x, int y, int z, int radius, MultiNoiseUtil.MultiNoiseSampler sampler) {
 		int i = BiomeCoords.fromBlock(x - radius);
 		int j = BiomeCoords.fromBlock(y - radius);
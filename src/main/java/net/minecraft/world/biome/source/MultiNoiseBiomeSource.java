@@ -1,12 +1,16 @@
 package net.minecraft.world.biome.source;
 
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
 import com.mojang.datafixers.util.Either;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.Lifecycle;
 import com.mojang.serialization.MapCodec;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.entry.RegistryEntry;
@@ -30,6 +34,11 @@ public class MultiNoiseBiomeSource extends BiomeSource {
 		.<MultiNoiseBiomeSource>xmap(MultiNoiseBiomeSource::new, source -> source.biomeEntries)
 		.codec();
 	private final Either<MultiNoiseUtil.Entries<RegistryEntry<Biome>>, RegistryEntry<MultiNoiseBiomeSourceParameterList>> biomeEntries;
+	/**
+	 * The biome caches by the noise sampler they sample with. Biome sources are shared
+	 * between worlds through the dimension options, so every world registers its own.
+	 */
+	private final Map<MultiNoiseUtil.MultiNoiseSampler, BiomeCache> biomeCaches = new MapMaker().weakKeys().makeMap();
 
 	private MultiNoiseBiomeSource(Either<MultiNoiseUtil.Entries<RegistryEntry<Biome>>, RegistryEntry<MultiNoiseBiomeSourceParameterList>> biomeEntries) {
 		this.biomeEntries = biomeEntries;
@@ -62,9 +71,59 @@ public class MultiNoiseBiomeSource extends BiomeSource {
 		return optional.isPresent() && ((RegistryEntry)optional.get()).matchesKey(parameterList);
 	}
 
+	@Override
+	public BiomeCache enableBiomeCache(MultiNoiseUtil.MultiNoiseSampler sampler) {
+		return (BiomeCache)this.biomeCaches.computeIfAbsent(sampler, samplerx -> new BiomeCache(this));
+	}
+
 	@Override
 	public RegistryEntry<Biome> getBiome(int x, int y, int z, MultiNoiseUtil.MultiNoiseSampler noise) {
-		return this.getBiomeAtPoint(noise.sample(x, y, z));
+		BiomeCache biomeCache = this.biomeCaches.isEmpty() ? null : (BiomeCache)this.biomeCaches.get(noise);
+		return biomeCache != null ? biomeCache.getBiome(x, y, z, noise) : this.getBiomeAtPoint(noise.sample(x, y, z));
+	}
+
+	@Override
+	public Set<RegistryEntry<Biome>> getBiomesInArea(int x, int y, int z, int radius, MultiNoiseUtil.MultiNoiseSampler sampler) {
+		BiomeCache biomeCache = this.biomeCaches.isEmpty() ? null : (BiomeCache)this.biomeCaches.get(sampler);
+		if (biomeCache == null) {
+			return super.getBiomesInArea(x, y, z, radius, sampler);
+		} else {
+			int i = BiomeCoords.fromBlock(x - radius);
+			int j = BiomeCoords.fromBlock(y - radius);
+			int k = BiomeCoords.fromBlock(z - radius);
+			int l = BiomeCoords.fromBlock(x + radius);
+			int m = BiomeCoords.fromBlock(y + radius);
+			int n = BiomeCoords.fromBlock(z + radius);
+			int o = l - i + 1;
+			int p = m - j + 1;
+			int q = n - k + 1;
+			int r = o * p * q;
+			int[] is = new int[r];
+			int[] js = new int[r];
+			int[] ks = new int[r];
+			int s = 0;
+
+			for (int t = 0; t < q; t++) {
+				for (int u = 0; u < o; u++) {
+					for (int v = 0; v < p; v++) {
+						is[s] = i + u;
+						js[s] = j + v;
+						ks[s] = k + t;
+						s++;
+					}
+				}
+			}
+
+			RegistryEntry<Biome>[] registryEntries = new RegistryEntry[r];
+			biomeCache.getBiomes(is, js, ks, sampler, registryEntries);
+			Set<RegistryEntry<Biome>> set = Sets.<RegistryEntry<Biome>>newHashSet();
+
+			for (RegistryEntry<Biome> registryEntry : registryEntries) {
+				set.add(registryEntry);
+			}
+
+			return set;
+		}
 	}
 
 	@Debug
@@ -144,7 +144,7 @@ public class MultiNoiseUtil {
 		 * @param point the point of all relevant noises
 		 */
 		public T getValue(NoiseValuePoint point) {
-			return this.getValue(point, SearchTree.TreeNode::getSquaredDistance);
+			return this.tree.get(point);
 		}
 
 		protected T getValue(NoiseValuePoint point, NodeDistanceFunction<T> distanceFunction) {
@@ -234,6 +234,52 @@ public class MultiNoiseUtil {
 			);
 		}
 
+		/**
+		 * Samples the noise values at the biome coordinates of {@code xs}, {@code ys}
+		 * and {@code zs} at once, filling every climate density function for all
+		 * points before moving on to the next one.
+		 *
+		 * <p>The results are the same as calling {@link #sample(int, int, int)} for
+		 * every point.
+		 */
+		public NoiseValuePoint[] sample(int[] xs, int[] ys, int[] zs) {
+			final int i = xs.length;
+			DensityFunction.EachApplier eachApplier = new DensityFunction.EachApplier() {
+				@Override
+				public DensityFunction.NoisePos at(int index) {
+					return new DensityFunction.UnblendedNoisePos(BiomeCoords.toBlock(xs[index]), BiomeCoords.toBlock(ys[index]), BiomeCoords.toBlock(zs[index]));
+				}
+
+				@Override
+				public void fill(double[] densities, DensityFunction densityFunction) {
+					for (int j = 0; j < densities.length; j++) {
+						densities[j] = densityFunction.sample(this.at(j));
+					}
+				}
+			};
+			double[] ds = new double[i];
+			double[] es = new double[i];
+			double[] fs = new double[i];
+			double[] gs = new double[i];
+			double[] hs = new double[i];
+			double[] js = new double[i];
+			this.temperature.fill(ds, eachApplier);
+			this.humidity.fill(es, eachApplier);
+			this.continentalness.fill(fs, eachApplier);
+			this.erosion.fill(gs, eachApplier);
+			this.depth.fill(hs, eachApplier);
+			this.weirdness.fill(js, eachApplier);
+			NoiseValuePoint[] noiseValuePoints = new NoiseValuePoint[i];
+
+			for (int k = 0; k < i; k++) {
+				noiseValuePoints[k] = MultiNoiseUtil.createNoiseValuePoint(
+					(float)ds[k], (float)es[k], (float)fs[k], (float)gs[k], (float)hs[k], (float)js[k]
+				);
+			}
+
+			return noiseValuePoints;
+		}
+
 		public BlockPos findBestSpawnPosition() {
 			return this.spawnTarget.isEmpty() ? BlockPos.ORIGIN : MultiNoiseUtil.findFittestPosition(this.spawnTarget, this);
 		}
@@ -376,13 +422,106 @@ public class MultiNoiseUtil {
 		}
 	}
 
+	/**
+	 * A tree of the noise hypercubes of some entries, each branch enclosing the
+	 * hypercubes below it, used to find the entry closest to a noise point.
+	 * 
+	 * <p>Besides the tree of nodes, the tree is laid out flat for {@link
+	 * #get(NoiseValuePoint)}: the ranges of all nodes are stored in one array, the
+	 * children of every branch are stored next to each other, and the tree is
+	 * traversed with a stack instead of recursive calls. The traversal visits the
+	 * nodes in the same order and breaks ties the same way as the tree of nodes, so
+	 * both give the same entries.
+	 */
 	protected static final class SearchTree<T> {
 		private static final int MAX_NODES_FOR_SIMPLE_TREE = 6;
+		private static final int NODE_RANGES_SIZE = 14;
 		private final TreeNode<T> firstNode;
 		private final ThreadLocal<TreeLeafNode<T>> previousResultNode = new ThreadLocal();
+		/**
+		 * The minimum and maximum of all parameter ranges, {@value #NODE_RANGES_SIZE}
+		 * values per node.
+		 */
+		private final long[] nodeRanges;
+		/**
+		 * The index of the first child and the number of children of every node. Leaves
+		 * have no children.
+		 */
+		private final int[] nodeChildren;
+		private final Object[] nodeValues;
+		private final int depth;
+		private final ThreadLocal<SearchTree.SearchState> searchState;
 
 		private SearchTree(TreeNode<T> firstNode) {
 			this.firstNode = firstNode;
+			int i = countNodes(firstNode);
+			this.nodeRanges = new long[i * 14];
+			this.nodeChildren = new int[i * 2];
+			this.nodeValues = new Object[i];
+			this.storeNode(firstNode, 0);
+			this.flatten(firstNode, 0, 1);
+			this.depth = getDepth(firstNode);
+			this.searchState = ThreadLocal.withInitial(() -> new SearchTree.SearchState(this.depth));
+		}
+
+		private static <T> int countNodes(TreeNode<T> node) {
+			int i = 1;
+			if (node instanceof TreeBranchNode<T> treeBranchNode) {
+				for (TreeNode<T> treeNode : treeBranchNode.subTree) {
+					i += countNodes(treeNode);
+				}
+			}
+
+			return i;
+		}
+
+		private static <T> int getDepth(TreeNode<T> node) {
+			int i = 0;
+			if (node instanceof TreeBranchNode<T> treeBranchNode) {
+				for (TreeNode<T> treeNode : treeBranchNode.subTree) {
+					i = Math.max(i, getDepth(treeNode));
+				}
+			}
+
+			return i + 1;
+		}
+
+		private void storeNode(TreeNode<T> node, int index) {
+			for (int i = 0; i < 7; i++) {
+				this.nodeRanges[index * 14 + i * 2] = node.parameters[i].min();
+				this.nodeRanges[index * 14 + i * 2 + 1] = node.parameters[i].max();
+			}
+
+			if (node instanceof TreeLeafNode<T> treeLeafNode) {
+				this.nodeValues[index] = treeLeafNode.value;
+			}
+		}
+
+		/**
+		 * Stores the children of {@code node}, stored at {@code index}, from {@code
+		 * nextIndex} on, followed by the nodes below them.
+		 * 
+		 * @return the index after the last node stored
+		 */
+		private int flatten(TreeNode<T> node, int index, int nextIndex) {
+			if (node instanceof TreeBranchNode<T> treeBranchNode) {
+				TreeNode<T>[] treeNodes = treeBranchNode.subTree;
+				this.nodeChildren[index * 2] = nextIndex;
+				this.nodeChildren[index * 2 + 1] = treeNodes.length;
+				int i = nextIndex + treeNodes.length;
+
+				for (int j = 0; j < treeNodes.length; j++) {
+					this.storeNode(treeNodes[j], nextIndex + j);
+				}
+
+				for (int j = 0; j < treeNodes.length; j++) {
+					i = this.flatten(treeNodes[j], nextIndex + j, i);
+				}
+
+				return i;
+			} else {
+				return nextIndex;
+			}
 		}
 
 		public static <T> SearchTree<T> create(List<Pair<NoiseHypercube, T>> entries) {
@@ -517,6 +656,84 @@ public class MultiNoiseUtil {
 			}
 		}
 
+		/**
+		 * {@return the value of the leaf closest to {@code point}}
+		 * 
+		 * <p>This gives the same values as {@link #get(NoiseValuePoint,
+		 * NodeDistanceFunction)} with the squared distance, and likewise starts from the
+		 * leaf found last on the current thread.
+		 */
+		public T get(NoiseValuePoint point) {
+			long l = point.temperatureNoise();
+			long m = point.humidityNoise();
+			long n = point.continentalnessNoise();
+			long o = point.erosionNoise();
+			long p = point.depth();
+			long q = point.weirdnessNoise();
+			SearchTree.SearchState searchState = (SearchTree.SearchState)this.searchState.get();
+			int i = searchState.previousResult;
+			if (this.nodeChildren[1] == 0) {
+				i = 0;
+			} else {
+				long r = i < 0 ? Long.MAX_VALUE : this.getSquaredDistance(i, l, m, n, o, p, q, Long.MAX_VALUE);
+				int[] is = searchState.nodes;
+				int[] js = searchState.nextChildren;
+				int j = 0;
+				is[0] = 0;
+				js[0] = 0;
+
+				while (j >= 0) {
+					int k = is[j];
+					int s = js[j];
+					if (s == this.nodeChildren[k * 2 + 1]) {
+						j--;
+					} else {
+						js[j] = s + 1;
+						int t = this.nodeChildren[k * 2] + s;
+						long u = this.getSquaredDistance(t, l, m, n, o, p, q, r);
+						if (r > u) {
+							if (this.nodeChildren[t * 2 + 1] == 0) {
+								r = u;
+								i = t;
+							} else {
+								is[++j] = t;
+								js[j] = 0;
+							}
+						}
+					}
+				}
+			}
+
+			searchState.previousResult = i;
+			return (T)this.nodeValues[i];
+		}
+
+		/**
+		 * {@return the squared distance of the ranges of the node at {@code index} to the
+		 * given noise values, or some value of at least {@code bound} once the distance
+		 * is known to be at least {@code bound}}
+		 */
+		private long getSquaredDistance(int index, long temperature, long humidity, long continentalness, long erosion, long depth, long weirdness, long bound) {
+			long[] ls = this.nodeRanges;
+			int i = index * 14;
+			long l = getSquaredDistance(ls[i], ls[i + 1], temperature)
+				+ getSquaredDistance(ls[i + 2], ls[i + 3], humidity)
+				+ getSquaredDistance(ls[i + 4], ls[i + 5], continentalness);
+			if (l >= bound) {
+				return l;
+			} else {
+				l += getSquaredDistance(ls[i + 6], ls[i + 7], erosion) + getSquaredDistance(ls[i + 8], ls[i + 9], depth);
+				return l >= bound ? l : l + getSquaredDistance(ls[i + 10], ls[i + 11], weirdness) + getSquaredDistance(ls[i + 12], ls[i + 13], 0L);
+			}
+		}
+
+		private static long getSquaredDistance(long min, long max, long noise) {
+			long l = noise - max;
+			long m = min - noise;
+			long n = l > 0L ? l : Math.max(m, 0L);
+			return n * n;
+		}
+
 		public T get(NoiseValuePoint point, NodeDistanceFunction<T> distanceFunction) {
 			long[] ls = point.getNoiseValueList();
 			TreeLeafNode<T> treeLeafNode = this.firstNode
@@ -601,5 +818,16 @@ public class MultiNoiseUtil {
 				return Arrays.toString(this.parameters);
 			}
 		}
+
+		static final class SearchState {
+			int previousResult = -1;
+			final int[] nodes;
+			final int[] nextChildren;
+
+			SearchState(int depth) {
+				this.nodes = new int[depth];
+				this.nextChildren = new int[depth];
+			}
+		}
 	}
 }
@@ -77,8 +77,12 @@ public class WorldBorder {
 	}
 
 	public boolean canCollide(Entity entity, Box box) {
+		return this.canCollide(entity.getX(), entity.getZ(), box);
+	}
+
+	public boolean canCollide(double x, double z, Box box) {
 		double d = Math.max(MathHelper.absMax(box.getXLength(), box.getZLength()), 1.0);
-		return this.getDistanceInsideBorder(entity) < d * 2.0 && this.contains(entity.getX(), entity.getZ(), d);
+		return this.getDistanceInsideBorder(x, z) < d * 2.0 && this.contains(x, z, d);
 	}
 
 	public WorldBorderStage getStage() {
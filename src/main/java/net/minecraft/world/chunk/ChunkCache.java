@@ -76,6 +76,16 @@ public class ChunkCache implements BlockView, CollisionView {
 		}
 	}
 
+	/**
+	 * {@return whether the chunk at the given chunk coordinates was loaded when this
+	 * cache was created}
+	 */
+	public boolean hasChunk(int chunkX, int chunkZ) {
+		int i = chunkX - this.minX;
+		int j = chunkZ - this.minZ;
+		return i >= 0 && i < this.chunks.length && j >= 0 && j < this.chunks[i].length && this.chunks[i][j] != null;
+	}
+
 	@Override
 	public WorldBorder getWorldBorder() {
 		return this.world.getWorldBorder();
@@ -22,6 +22,7 @@ import net.minecraft.util.Util;
 import net.minecraft.util.profiling.jfr.Finishable;
 import net.minecraft.util.profiling.jfr.FlightProfiler;
 import net.minecraft.world.ChunkRegion;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.gen.GenerationStep;
 import net.minecraft.world.gen.chunk.Blender;
@@ -147,13 +148,15 @@ public class ChunkStatus {
 		8,
 		POST_CARVER_HEIGHTMAPS,
 		ChunkType.PROTOCHUNK,
-		(targetStatus, world, generator, chunks, chunk) -> {
-			Heightmap.populateHeightmaps(
-				chunk, EnumSet.of(Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE)
-			);
-			ChunkRegion chunkRegion = new ChunkRegion(world, chunks, targetStatus, 1);
-			generator.generateFeatures(chunkRegion, chunk, world.getStructureAccessor().forRegion(chunkRegion));
-			Blender.tickLeavesAndFluids(chunkRegion, chunk);
+		(targetStatus, executor, world, generator, structureTemplateManager, lightingProvider, fullChunkConverter, chunks, chunk) -> {
+			if (!world.getGameRules().getBoolean(GameRules.PARALLEL_FEATURE_DECORATION)) {
+				generateFeatures(targetStatus, world, generator, chunks, chunk);
+				return CompletableFuture.completedFuture(Either.left(chunk));
+			} else {
+				return world.getFeatureDecorationScheduler()
+					.submit(chunk.getPos(), () -> generateFeatures(targetStatus, world, generator, chunks, chunk))
+					.thenApplyAsync(void_ -> Either.left(chunk), executor);
+			}
 		}
 	);
 	public static final ChunkStatus INITIALIZE_LIGHT = register(
@@ -164,9 +167,9 @@ public class ChunkStatus {
 		POST_CARVER_HEIGHTMAPS,
 		ChunkType.PROTOCHUNK,
 		(targetStatus, executor, world, generator, structureTemplateManager, lightingProvider, fullChunkConverter, chunks, chunk) -> getInitializeLightingFuture(
-				lightingProvider, chunk
+				world, lightingProvider, chunk
 			),
-		(status, world, structureTemplateManager, lightingProvider, fullChunkConverter, chunk) -> getInitializeLightingFuture(lightingProvider, chunk)
+		(status, world, structureTemplateManager, lightingProvider, fullChunkConverter, chunk) -> getInitializeLightingFuture(world, lightingProvider, chunk)
 	);
 	public static final ChunkStatus LIGHT = register(
 		"light",
@@ -235,6 +238,28 @@ public class ChunkStatus {
 	private final ChunkType chunkType;
 	private final EnumSet<Heightmap.Type> heightMapTypes;
 
+	private static void generateFeatures(ChunkStatus targetStatus, ServerWorld world, ChunkGenerator generator, List<Chunk> chunks, Chunk chunk) {
+		Heightmap.populateHeightmaps(
+			chunk, EnumSet.of(Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE)
+		);
+		ChunkRegion chunkRegion = new ChunkRegion(world, chunks, targetStatus, 1);
+		generator.generateFeatures(chunkRegion, chunk, world.getStructureAccessor().forRegion(chunkRegion));
+		Blender.tickLeavesAndFluids(chunkRegion, chunk);
+	}
+
+	/**
+	 * Initializes the light of {@code chunk}, through the feature decoration scheduler
+	 * when decorations run in parallel, so that it does not run while the decoration
+	 * of a neighbor places blocks in the chunk.
+	 */
+	private static CompletableFuture<Either<Chunk, ChunkHolder.Unloaded>> getInitializeLightingFuture(
+		ServerWorld world, ServerLightingProvider lightingProvider, Chunk chunk
+	) {
+		return !world.getGameRules().getBoolean(GameRules.PARALLEL_FEATURE_DECORATION)
+			? getInitializeLightingFuture(lightingProvider, chunk)
+			: world.getFeatureDecorationScheduler().submitChunkTask(chunk.getPos(), () -> getInitializeLightingFuture(lightingProvider, chunk));
+	}
+
 	private static CompletableFuture<Either<Chunk, ChunkHolder.Unloaded>> getInitializeLightingFuture(ServerLightingProvider lightingProvider, Chunk chunk) {
 		chunk.refreshSurfaceY();
 		((ProtoChunk)chunk).setLightingProvider(lightingProvider);
@@ -0,0 +1,171 @@
+package net.minecraft.world.chunk;
+
+import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.Locale;
+import java.util.Map;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.profiler.DummyProfiler;
+import net.minecraft.util.profiler.Profiler;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A chunk cache holding copies of the block states of the chunk sections in its
+ * area, so that it can be read from another thread while the world changes.
+ *
+ * <p>The copies are taken from {@link SnapshotChunkCache.Snapshots}, which copies
+ * every section at most once per tick and shares the copy with all caches created
+ * in that tick. Block states outside the copied sections read as void air, like
+ * those of a missing chunk. The block entities of the chunks are listed when they
+ * are first snapshot in a tick, so the same block entities are found as in a
+ * {@link ChunkCache}, but their own state, such as the lid of a shulker box that
+ * shapes its collision, is read as it is at the time. Block states never reach the
+ * live chunks, which also holds for block collisions, as the cache is its own
+ * chunk view.
+ */
+public class SnapshotChunkCache extends ChunkCache {
+	private static final BlockState VOID_AIR = Blocks.VOID_AIR.getDefaultState();
+	private static final BlockState AIR = Blocks.AIR.getDefaultState();
+	private final int minSectionY;
+	private final int maxSectionY;
+	@Nullable
+	private final PalettedContainer<BlockState>[][][] sections;
+	private final Map<BlockPos, BlockEntity>[][] blockEntities;
+
+	public SnapshotChunkCache(World world, BlockPos minPos, BlockPos maxPos, SnapshotChunkCache.Snapshots snapshots) {
+		super(world, minPos, maxPos);
+		this.minSectionY = Math.max(ChunkSectionPos.getSectionCoord(minPos.getY()), world.getBottomSectionCoord());
+		this.maxSectionY = Math.min(ChunkSectionPos.getSectionCoord(maxPos.getY()), world.getTopSectionCoord() - 1);
+		this.sections = new PalettedContainer[this.chunks.length][][];
+		this.blockEntities = new Map[this.chunks.length][];
+		snapshots.update(world.getTime());
+
+		for (int i = 0; i < this.chunks.length; i++) {
+			this.sections[i] = new PalettedContainer[this.chunks[i].length][];
+			this.blockEntities[i] = new Map[this.chunks[i].length];
+
+			for (int j = 0; j < this.chunks[i].length; j++) {
+				Chunk chunk = this.chunks[i][j];
+				if (chunk != null) {
+					PalettedContainer<BlockState>[] palettedContainers = new PalettedContainer[Math.max(0, this.maxSectionY - this.minSectionY + 1)];
+
+					for (int k = 0; k < palettedContainers.length; k++) {
+						palettedContainers[k] = snapshots.getBlockStates(chunk, this.minSectionY + k);
+					}
+
+					this.sections[i][j] = palettedContainers;
+					this.blockEntities[i][j] = snapshots.getBlockEntities(chunk);
+				}
+			}
+		}
+	}
+
+	@Override
+	public BlockState getBlockState(BlockPos pos) {
+		if (this.isOutOfHeightLimit(pos)) {
+			return AIR;
+		} else {
+			int i = ChunkSectionPos.getSectionCoord(pos.getX()) - this.minX;
+			int j = ChunkSectionPos.getSectionCoord(pos.getZ()) - this.minZ;
+			int k = ChunkSectionPos.getSectionCoord(pos.getY()) - this.minSectionY;
+			if (i >= 0 && i < this.sections.length && j >= 0 && j < this.sections[i].length) {
+				PalettedContainer<BlockState>[] palettedContainers = this.sections[i][j];
+				if (palettedContainers != null && k >= 0 && k < palettedContainers.length) {
+					PalettedContainer<BlockState> palettedContainer = palettedContainers[k];
+					return palettedContainer == null
+						? AIR
+						: palettedContainer.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+				}
+			}
+
+			return VOID_AIR;
+		}
+	}
+
+	@Override
+	public FluidState getFluidState(BlockPos pos) {
+		return this.getBlockState(pos).getFluidState();
+	}
+
+	@Nullable
+	@Override
+	public BlockEntity getBlockEntity(BlockPos pos) {
+		int i = ChunkSectionPos.getSectionCoord(pos.getX()) - this.minX;
+		int j = ChunkSectionPos.getSectionCoord(pos.getZ()) - this.minZ;
+		if (i >= 0 && i < this.blockEntities.length && j >= 0 && j < this.blockEntities[i].length && this.blockEntities[i][j] != null) {
+			BlockEntity blockEntity = (BlockEntity)this.blockEntities[i][j].get(pos);
+			return blockEntity != null && !blockEntity.isRemoved() ? blockEntity : null;
+		} else {
+			return null;
+		}
+	}
+
+	@Override
+	public BlockView getChunkAsView(int chunkX, int chunkZ) {
+		return this;
+	}
+
+	@Override
+	public Profiler getProfiler() {
+		return DummyProfiler.INSTANCE;
+	}
+
+	/**
+	 * The copies of the chunk sections and the lists of block entities taken in the
+	 * current tick, shared by the snapshot chunk caches created in it. Only used on
+	 * the server thread.
+	 */
+	public static class Snapshots {
+		private final Long2ObjectMap<PalettedContainer<BlockState>> blockStates = new Long2ObjectOpenHashMap<>();
+		private final Long2ObjectMap<Map<BlockPos, BlockEntity>> blockEntities = new Long2ObjectOpenHashMap<>();
+		private long time = Long.MIN_VALUE;
+		private long copied;
+		private long shared;
+
+		void update(long time) {
+			if (this.time != time) {
+				this.time = time;
+				this.blockStates.clear();
+				this.blockEntities.clear();
+			}
+		}
+
+		@Nullable
+		PalettedContainer<BlockState> getBlockStates(Chunk chunk, int sectionY) {
+			long l = ChunkSectionPos.asLong(chunk.getPos().x, sectionY, chunk.getPos().z);
+			if (this.blockStates.containsKey(l)) {
+				this.shared++;
+				return this.blockStates.get(l);
+			} else {
+				ChunkSection chunkSection = chunk.getSection(chunk.sectionCoordToIndex(sectionY));
+				PalettedContainer<BlockState> palettedContainer = chunkSection.isEmpty() ? null : chunkSection.getBlockStateContainer().copy();
+				this.blockStates.put(l, palettedContainer);
+				this.copied++;
+				return palettedContainer;
+			}
+		}
+
+		Map<BlockPos, BlockEntity> getBlockEntities(Chunk chunk) {
+			long l = chunk.getPos().toLong();
+			Map<BlockPos, BlockEntity> map = this.blockEntities.get(l);
+			if (map == null) {
+				map = chunk instanceof WorldChunk worldChunk ? ImmutableMap.copyOf(worldChunk.getBlockEntities()) : ImmutableMap.of();
+				this.blockEntities.put(l, map);
+			}
+
+			return map;
+		}
+
+		public String getDebugString() {
+			return String.format(Locale.ROOT, "sections copied: %d, sections shared: %d", this.copied, this.shared);
+		}
+	}
+}
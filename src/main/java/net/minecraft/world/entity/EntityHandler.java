@@ -51,4 +51,23 @@ public interface EntityHandler<T> {
 	void stopTracking(T entity);
 
 	void updateLoadStatus(T entity);
+
+	/**
+	 * Called whenever the position of a managed entity changes.
+	 * 
+	 * @param entity the moved entity
+	 */
+	default void updatePosition(T entity) {
+	}
+
+	/**
+	 * Called whenever a managed entity enters or leaves the chunk section at
+	 * {@code sectionPos}, and for every entity of a section whose tracking status
+	 * changes.
+	 * 
+	 * @param entity the entity
+	 * @param sectionPos the packed position of the chunk section
+	 */
+	default void updateSection(T entity, long sectionPos) {
+	}
 }
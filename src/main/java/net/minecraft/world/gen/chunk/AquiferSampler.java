@@ -1,9 +1,7 @@
 package net.minecraft.world.gen.chunk;
 
-import java.util.Arrays;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
-import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.MathHelper;
@@ -13,7 +11,6 @@ import net.minecraft.world.biome.source.util.VanillaBiomeParameters;
 import net.minecraft.world.dimension.DimensionType;
 import net.minecraft.world.gen.densityfunction.DensityFunction;
 import net.minecraft.world.gen.noise.NoiseRouter;
-import org.apache.commons.lang3.mutable.MutableDouble;
 import org.jetbrains.annotations.Nullable;
 
 public interface AquiferSampler {
@@ -67,6 +64,17 @@ public interface AquiferSampler {
 		FluidLevel getFluidLevel(int x, int y, int z);
 	}
 
+	/**
+	 * Samples the aquifers of a chunk. The water level of a block is decided by the
+	 * closest aquifer centers, one of which is randomly placed within each cell of
+	 * 16 by 12 by 16 blocks.
+	 *
+	 * <p>The centers of all cells of the chunk and its neighbors are placed up front,
+	 * into arrays of block coordinates indexed like the cells, so that looking up the
+	 * centers around a block is only arithmetic on these arrays. The fluid levels of
+	 * the aquifers are still computed the first time they are needed, as most of them
+	 * never are, and then kept by cell.
+	 */
 	public static class Impl implements AquiferSampler {
 		private static final int field_31451 = 10;
 		private static final int field_31452 = 9;
@@ -86,7 +94,9 @@ public interface AquiferSampler {
 		private final DensityFunction fluidTypeNoise;
 		private final RandomSplitter randomDeriver;
 		private final FluidLevel[] waterLevels;
-		private final long[] blockPositions;
+		private final int[] centerX;
+		private final int[] centerY;
+		private final int[] centerZ;
 		private final FluidLevelSampler fluidLevelSampler;
 		private final DensityFunction erosionDensityFunction;
 		private final DensityFunction depthDensityFunction;
@@ -96,6 +106,7 @@ public interface AquiferSampler {
 		private final int startZ;
 		private final int sizeX;
 		private final int sizeZ;
+		private double barrierNoiseValue;
 		private static final int[][] CHUNK_POS_OFFSETS = new int[][]{
 			{0, 0}, {-2, -1}, {-1, -1}, {0, -1}, {1, -1}, {-3, 0}, {-2, 0}, {-1, 0}, {1, 0}, {-2, 1}, {-1, 1}, {0, 1}, {1, 1}
 		};
@@ -129,8 +140,27 @@ public interface AquiferSampler {
 			this.sizeZ = l - this.startZ + 1;
 			int m = this.sizeX * k * this.sizeZ;
 			this.waterLevels = new FluidLevel[m];
-			this.blockPositions = new long[m];
-			Arrays.fill(this.blockPositions, Long.MAX_VALUE);
+			this.centerX = new int[m];
+			this.centerY = new int[m];
+			this.centerZ = new int[m];
+			int n = 0;
+
+			for (int o = 0; o < k; o++) {
+				int p = this.startY + o;
+
+				for (int q = 0; q < this.sizeZ; q++) {
+					int r = this.startZ + q;
+
+					for (int s = 0; s < this.sizeX; s++) {
+						int t = this.startX + s;
+						Random random = this.randomDeriver.split(t, p, r);
+						this.centerX[n] = t * 16 + random.nextInt(10);
+						this.centerY[n] = p * 12 + random.nextInt(9);
+						this.centerZ[n] = r * 16 + random.nextInt(10);
+						n++;
+					}
+				}
+			}
 		}
 
 		private int index(int x, int y, int z) {
@@ -161,46 +191,35 @@ public interface AquiferSampler {
 					int o = Integer.MAX_VALUE;
 					int p = Integer.MAX_VALUE;
 					int q = Integer.MAX_VALUE;
-					long r = 0L;
-					long s = 0L;
-					long t = 0L;
-
-					for (int u = 0; u <= 1; u++) {
-						for (int v = -1; v <= 1; v++) {
-							for (int w = 0; w <= 1; w++) {
-								int x = l + u;
-								int y = m + v;
-								int z = n + w;
-								int aa = this.index(x, y, z);
-								long ab = this.blockPositions[aa];
-								long ac;
-								if (ab != Long.MAX_VALUE) {
-									ac = ab;
-								} else {
-									Random random = this.randomDeriver.split(x, y, z);
-									ac = BlockPos.asLong(x * 16 + random.nextInt(10), y * 12 + random.nextInt(9), z * 16 + random.nextInt(10));
-									this.blockPositions[aa] = ac;
-								}
-
-								int ad = BlockPos.unpackLongX(ac) - i;
-								int ae = BlockPos.unpackLongY(ac) - j;
-								int af = BlockPos.unpackLongZ(ac) - k;
-								int ag = ad * ad + ae * ae + af * af;
-								if (o >= ag) {
+					int r = 0;
+					int s = 0;
+					int t = 0;
+					int u = this.sizeX * this.sizeZ;
+					int v = this.index(l, m - 1, n);
+
+					for (int w = 0; w <= 1; w++) {
+						for (int x = 0; x <= 2; x++) {
+							for (int y = 0; y <= 1; y++) {
+								int z = v + w + x * u + y * this.sizeX;
+								int aa = this.centerX[z] - i;
+								int ab = this.centerY[z] - j;
+								int ac = this.centerZ[z] - k;
+								int ad = aa * aa + ab * ab + ac * ac;
+								if (o >= ad) {
 									t = s;
 									s = r;
-									r = ac;
+									r = z;
 									q = p;
 									p = o;
-									o = ag;
-								} else if (p >= ag) {
+									o = ad;
+								} else if (p >= ad) {
 									t = s;
-									s = ac;
+									s = z;
 									q = p;
-									p = ag;
-								} else if (q >= ag) {
-									t = ac;
-									q = ag;
+									p = ad;
+								} else if (q >= ad) {
+									t = z;
+									q = ad;
 								}
 							}
 						}
@@ -216,9 +235,9 @@ public interface AquiferSampler {
 						this.needsFluidTick = true;
 						return blockState;
 					} else {
-						MutableDouble mutableDouble = new MutableDouble(Double.NaN);
+						this.barrierNoiseValue = Double.NaN;
 						FluidLevel fluidLevel3 = this.getWaterLevel(s);
-						double e = d * this.calculateDensity(pos, mutableDouble, fluidLevel2, fluidLevel3);
+						double e = d * this.calculateDensity(pos, fluidLevel2, fluidLevel3);
 						if (density + e > 0.0) {
 							this.needsFluidTick = false;
 							return null;
@@ -226,7 +245,7 @@ public interface AquiferSampler {
 							FluidLevel fluidLevel4 = this.getWaterLevel(t);
 							double f = maxDistance(o, q);
 							if (f > 0.0) {
-								double g = d * f * this.calculateDensity(pos, mutableDouble, fluidLevel2, fluidLevel4);
+								double g = d * f * this.calculateDensity(pos, fluidLevel2, fluidLevel4);
 								if (density + g > 0.0) {
 									this.needsFluidTick = false;
 									return null;
@@ -235,7 +254,7 @@ public interface AquiferSampler {
 
 							double g = maxDistance(p, q);
 							if (g > 0.0) {
-								double h = d * g * this.calculateDensity(pos, mutableDouble, fluidLevel3, fluidLevel4);
+								double h = d * g * this.calculateDensity(pos, fluidLevel3, fluidLevel4);
 								if (density + h > 0.0) {
 									this.needsFluidTick = false;
 									return null;
@@ -260,9 +279,7 @@ public interface AquiferSampler {
 			return 1.0 - (double)Math.abs(a - i) / 25.0;
 		}
 
-		private double calculateDensity(
-			DensityFunction.NoisePos pos, MutableDouble mutableDouble, FluidLevel fluidLevel, FluidLevel fluidLevel2
-		) {
+		private double calculateDensity(DensityFunction.NoisePos pos, FluidLevel fluidLevel, FluidLevel fluidLevel2) {
 			int i = pos.blockY();
 			BlockState blockState = fluidLevel.getBlockState(i);
 			BlockState blockState2 = fluidLevel2.getBlockState(i);
@@ -301,10 +318,10 @@ public interface AquiferSampler {
 					double px = 2.0;
 					double r;
 					if (!(q < -2.0) && !(q > 2.0)) {
-						double s = mutableDouble.getValue();
+						double s = this.barrierNoiseValue;
 						if (Double.isNaN(s)) {
 							double t = this.barrierNoise.sample(pos);
-							mutableDouble.setValue(t);
+							this.barrierNoiseValue = t;
 							r = t;
 						} else {
 							r = s;
@@ -332,20 +349,13 @@ public interface AquiferSampler {
 			return Math.floorDiv(z, 16);
 		}
 
-		private FluidLevel getWaterLevel(long pos) {
-			int i = BlockPos.unpackLongX(pos);
-			int j = BlockPos.unpackLongY(pos);
-			int k = BlockPos.unpackLongZ(pos);
-			int l = this.getLocalX(i);
-			int m = this.getLocalY(j);
-			int n = this.getLocalZ(k);
-			int o = this.index(l, m, n);
-			FluidLevel fluidLevel = this.waterLevels[o];
+		private FluidLevel getWaterLevel(int index) {
+			FluidLevel fluidLevel = this.waterLevels[index];
 			if (fluidLevel != null) {
 				return fluidLevel;
 			} else {
-				FluidLevel fluidLevel2 = this.getFluidLevel(i, j, k);
-				this.waterLevels[o] = fluidLevel2;
+				FluidLevel fluidLevel2 = this.getFluidLevel(this.centerX[index], this.centerY[index], this.centerZ[index]);
+				this.waterLevels[index] = fluidLevel2;
 				return fluidLevel2;
 			}
 		}
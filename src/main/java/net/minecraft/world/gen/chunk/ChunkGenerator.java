@@ -1,6 +1,7 @@
 package net.minecraft.world.gen.chunk;
 
 import com.google.common.base.Suppliers;
+import com.mojang.datafixers.util.Either;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import it.unimi.dsi.fastutil.ints.IntArraySet;
@@ -16,8 +17,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -150,6 +157,25 @@ public abstract class ChunkGenerator {
 	@Nullable
 	public Pair<BlockPos, RegistryEntry<Structure>> locateStructure(
 		ServerWorld world, RegistryEntryList<Structure> structures, BlockPos center, int radius, boolean skipReferencedStructures
+	) {
+		return this.locateStructure(world, structures, center, radius, skipReferencedStructures, () -> false);
+	}
+
+	/**
+	 * Tries to find the closest structure of a given type near a given block, like
+	 * {@link #locateStructure(ServerWorld, RegistryEntryList, BlockPos, int, boolean)},
+	 * stopping with a {@link CancellationException} once {@code cancelled} returns
+	 * {@code true}.
+	 * 
+	 * <p>This can also be called off the server thread. The chunks are then loaded
+	 * without blocking the server thread, and the references of the structure starts
+	 * are incremented on the server thread.
+	 * 
+	 * @see net.minecraft.server.world.AsyncStructureLocator
+	 */
+	@Nullable
+	public Pair<BlockPos, RegistryEntry<Structure>> locateStructure(
+		ServerWorld world, RegistryEntryList<Structure> structures, BlockPos center, int radius, boolean skipReferencedStructures, BooleanSupplier cancelled
 	) {
 		StructurePlacementCalculator structurePlacementCalculator = world.getChunkManager().getStructurePlacementCalculator();
 		Map<StructurePlacement, Set<RegistryEntry<Structure>>> map = new Object2ObjectArrayMap<>();
@@ -173,7 +199,7 @@ public abstract class ChunkGenerator {
 				if (structurePlacement2 instanceof ConcentricRingsStructurePlacement) {
 					ConcentricRingsStructurePlacement concentricRingsStructurePlacement = (ConcentricRingsStructurePlacement)structurePlacement2;
 					Pair<BlockPos, RegistryEntry<Structure>> pair2 = this.locateConcentricRingsStructure(
-						(Set<RegistryEntry<Structure>>)entry.getValue(), world, structureAccessor, center, skipReferencedStructures, concentricRingsStructurePlacement
+						(Set<RegistryEntry<Structure>>)entry.getValue(), world, structureAccessor, center, skipReferencedStructures, concentricRingsStructurePlacement, cancelled
 					);
 					if (pair2 != null) {
 						BlockPos blockPos = pair2.getFirst();
@@ -193,6 +219,7 @@ public abstract class ChunkGenerator {
 				int j = ChunkSectionPos.getSectionCoord(center.getZ());
 
 				for (int k = 0; k <= radius; k++) {
+					checkCancelled(cancelled);
 					boolean bl = false;
 
 					for (Entry<StructurePlacement, Set<RegistryEntry<Structure>>> entry2 : list) {
@@ -206,7 +233,8 @@ public abstract class ChunkGenerator {
 							k,
 							skipReferencedStructures,
 							structurePlacementCalculator.getStructureSeed(),
-							randomSpreadStructurePlacement
+							randomSpreadStructurePlacement,
+							cancelled
 						);
 						if (pair3 != null) {
 							bl = true;
@@ -235,7 +263,8 @@ public abstract class ChunkGenerator {
 		StructureAccessor structureAccessor,
 		BlockPos center,
 		boolean skipReferencedStructures,
-		ConcentricRingsStructurePlacement placement
+		ConcentricRingsStructurePlacement placement,
+		BooleanSupplier cancelled
 	) {
 		List<ChunkPos> list = world.getChunkManager().getStructurePlacementCalculator().getPlacementPositions(placement);
 		if (list == null) {
@@ -250,7 +279,10 @@ public abstract class ChunkGenerator {
 				double e = mutable.getSquaredDistance(center);
 				boolean bl = pair == null || e < d;
 				if (bl) {
-					Pair<BlockPos, RegistryEntry<Structure>> pair2 = locateStructure(structures, world, structureAccessor, skipReferencedStructures, placement, chunkPos);
+					checkCancelled(cancelled);
+					Pair<BlockPos, RegistryEntry<Structure>> pair2 = locateStructure(
+						structures, world, structureAccessor, skipReferencedStructures, placement, chunkPos, cancelled
+					);
 					if (pair2 != null) {
 						pair = pair2;
 						d = e;
@@ -272,7 +304,8 @@ public abstract class ChunkGenerator {
 		int radius,
 		boolean skipReferencedStructures,
 		long seed,
-		RandomSpreadStructurePlacement placement
+		RandomSpreadStructurePlacement placement,
+		BooleanSupplier cancelled
 	) {
 		int i = placement.getSpacing();
 
@@ -285,7 +318,9 @@ public abstract class ChunkGenerator {
 					int l = centerChunkX + i * j;
 					int m = centerChunkZ + i * k;
 					ChunkPos chunkPos = placement.getStartChunk(seed, l, m);
-					Pair<BlockPos, RegistryEntry<Structure>> pair = locateStructure(structures, world, structureAccessor, skipReferencedStructures, placement, chunkPos);
+					Pair<BlockPos, RegistryEntry<Structure>> pair = locateStructure(
+						structures, world, structureAccessor, skipReferencedStructures, placement, chunkPos, cancelled
+					);
 					if (pair != null) {
 						return pair;
 					}
@@ -303,7 +338,8 @@ public abstract class ChunkGenerator {
 		StructureAccessor structureAccessor,
 		boolean skipReferencedStructures,
 		StructurePlacement placement,
-		ChunkPos pos
+		ChunkPos pos,
+		BooleanSupplier cancelled
 	) {
 		for (RegistryEntry<Structure> registryEntry : structures) {
 			StructurePresence structurePresence = structureAccessor.getStructurePresence(pos, registryEntry.value(), skipReferencedStructures);
@@ -312,9 +348,11 @@ public abstract class ChunkGenerator {
 					return Pair.of(placement.getLocatePos(pos), registryEntry);
 				}
 
-				Chunk chunk = world.getChunk(pos.x, pos.z, ChunkStatus.STRUCTURE_STARTS);
+				Chunk chunk = getStructureStartsChunk(world, pos, cancelled);
 				StructureStart structureStart = structureAccessor.getStructureStart(ChunkSectionPos.from(chunk), registryEntry.value(), chunk);
-				if (structureStart != null && structureStart.hasChildren() && (!skipReferencedStructures || checkNotReferenced(structureAccessor, structureStart))) {
+				if (structureStart != null
+					&& structureStart.hasChildren()
+					&& (!skipReferencedStructures || checkNotReferenced(world, structureAccessor, structureStart, cancelled))) {
 					return Pair.of(placement.getLocatePos(structureStart.getPos()), registryEntry);
 				}
 			}
@@ -323,6 +361,51 @@ public abstract class ChunkGenerator {
 		return null;
 	}
 
+	private static Chunk getStructureStartsChunk(WorldView world, ChunkPos pos, BooleanSupplier cancelled) {
+		if (world instanceof ServerWorld serverWorld && !serverWorld.getServer().isOnThread()) {
+			return (Chunk)((Either)await(
+					serverWorld.getChunkManager().getChunkFutureSyncOnMainThread(pos.x, pos.z, ChunkStatus.STRUCTURE_STARTS, true), cancelled
+				))
+				.map(chunk -> chunk, unloaded -> {
+					throw new IllegalStateException("Chunk not there when requested: " + unloaded);
+				});
+		} else {
+			return world.getChunk(pos.x, pos.z, ChunkStatus.STRUCTURE_STARTS);
+		}
+	}
+
+	private static boolean checkNotReferenced(WorldView world, StructureAccessor structureAccessor, StructureStart start, BooleanSupplier cancelled) {
+		return world instanceof ServerWorld serverWorld && !serverWorld.getServer().isOnThread()
+			? await(serverWorld.getServer().submit(() -> checkNotReferenced(structureAccessor, start)), cancelled)
+			: checkNotReferenced(structureAccessor, start);
+	}
+
+	/**
+	 * Waits for {@code future}, which completes on the server thread, while checking
+	 * {@code cancelled}, so that searches still stop once the server thread no longer
+	 * runs tasks.
+	 */
+	private static <T> T await(CompletableFuture<T> future, BooleanSupplier cancelled) {
+		while (true) {
+			checkCancelled(cancelled);
+
+			try {
+				return (T)future.get(50L, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException var4) {
+			} catch (ExecutionException var5) {
+				throw new CompletionException(var5.getCause());
+			} catch (InterruptedException var6) {
+				throw new CancellationException();
+			}
+		}
+	}
+
+	private static void checkCancelled(BooleanSupplier cancelled) {
+		if (cancelled.getAsBoolean()) {
+			throw new CancellationException();
+		}
+	}
+
 	private static boolean checkNotReferenced(StructureAccessor structureAccessor, StructureStart start) {
 		if (start.isNeverReferenced()) {
 			structureAccessor.incrementReferences(start);
@@ -368,7 +451,11 @@ public abstract class ChunkGenerator {
 							try {
 								world.setCurrentlyGeneratingStructureName(supplier);
 								structureAccessor.getStructureStarts(chunkSectionPos, structure)
-									.forEach(start -> start.place(world, structureAccessor, this, chunkRandom, getBlockBoxForChunk(chunk), chunkPos));
+									.forEach(start -> {
+										synchronized (start) {
+											start.place(world, structureAccessor, this, chunkRandom, getBlockBoxForChunk(chunk), chunkPos);
+										}
+									});
 							} catch (Exception var29) {
 								CrashReport crashReport = CrashReport.create(var29, "Feature placement");
 								crashReport.addElement("Feature").add("Description", supplier::get);
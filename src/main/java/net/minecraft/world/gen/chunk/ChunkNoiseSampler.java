@@ -20,6 +20,7 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.gen.ChainedBlockSource;
 import net.minecraft.world.gen.OreVeinSampler;
 import net.minecraft.world.gen.densityfunction.DensityFunction;
+import net.minecraft.world.gen.densityfunction.DensityFunctionCompiler;
 import net.minecraft.world.gen.densityfunction.DensityFunctionTypes;
 import net.minecraft.world.gen.noise.NoiseConfig;
 import net.minecraft.world.gen.noise.NoiseRouter;
@@ -95,6 +96,19 @@ public class ChunkNoiseSampler implements DensityFunction.EachApplier, DensityFu
 				densities[i] = densityFunction.sample(ChunkNoiseSampler.this);
 			}
 		}
+
+		@Override
+		public void fillPositions(double[] blockXs, double[] blockYs, double[] blockZs) {
+			for (int i = 0; i < ChunkNoiseSampler.this.verticalCellCount + 1; i++) {
+				ChunkNoiseSampler.this.startBlockY = (i + ChunkNoiseSampler.this.minimumCellY) * ChunkNoiseSampler.this.verticalCellBlockCount;
+				ChunkNoiseSampler.this.sampleUniqueIndex++;
+				ChunkNoiseSampler.this.cellBlockY = 0;
+				ChunkNoiseSampler.this.index = i;
+				blockXs[i] = (double)ChunkNoiseSampler.this.blockX();
+				blockYs[i] = (double)ChunkNoiseSampler.this.blockY();
+				blockZs[i] = (double)ChunkNoiseSampler.this.blockZ();
+			}
+		}
 	};
 
 	public static ChunkNoiseSampler create(
@@ -327,6 +341,26 @@ public class ChunkNoiseSampler implements DensityFunction.EachApplier, DensityFu
 		}
 	}
 
+	@Override
+	public void fillPositions(double[] blockXs, double[] blockYs, double[] blockZs) {
+		this.index = 0;
+
+		for (int i = this.verticalCellBlockCount - 1; i >= 0; i--) {
+			this.cellBlockY = i;
+
+			for (int j = 0; j < this.horizontalCellBlockCount; j++) {
+				this.cellBlockX = j;
+
+				for (int k = 0; k < this.horizontalCellBlockCount; k++) {
+					this.cellBlockZ = k;
+					blockXs[this.index] = (double)this.blockX();
+					blockYs[this.index] = (double)this.blockY();
+					blockZs[this.index++] = (double)this.blockZ();
+				}
+			}
+		}
+	}
+
 	/**
 	 * This should be called when the start and end density buffers are
 	 * correctly filled for the current cell.
@@ -448,12 +482,13 @@ public class ChunkNoiseSampler implements DensityFunction.EachApplier, DensityFu
 	 */
 	private DensityFunction getActualDensityFunctionImpl(DensityFunction function) {
 		if (function instanceof DensityFunctionTypes.Wrapping wrapping) {
+			DensityFunction densityFunction = DensityFunctionCompiler.compile(wrapping.wrapped());
 			return (DensityFunction)(switch (wrapping.type()) {
-				case INTERPOLATED -> new DensityInterpolator(wrapping.wrapped());
-				case FLAT_CACHE -> new FlatCache(wrapping.wrapped(), true);
-				case CACHE2D -> new Cache2D(wrapping.wrapped());
-				case CACHE_ONCE -> new CacheOnce(wrapping.wrapped());
-				case CACHE_ALL_IN_CELL -> new CellCache(wrapping.wrapped());
+				case INTERPOLATED -> new DensityInterpolator(densityFunction);
+				case FLAT_CACHE -> new FlatCache(densityFunction, true);
+				case CACHE2D -> new Cache2D(densityFunction);
+				case CACHE_ONCE -> new CacheOnce(densityFunction);
+				case CACHE_ALL_IN_CELL -> new CellCache(densityFunction);
 			});
 		} else {
 			if (this.blender != Blender.getNoBlending()) {
@@ -2,6 +2,7 @@ package net.minecraft.world.gen.chunk;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
@@ -66,6 +67,11 @@ public final class NoiseChunkGenerator extends ChunkGenerator {
 				.apply(instance, instance.stable(NoiseChunkGenerator::new))
 	);
 	private static final BlockState AIR = Blocks.AIR.getDefaultState();
+	/**
+	 * The height in blocks of the vertical bands the noise of a chunk is populated in
+	 * parallel.
+	 */
+	private static final int NOISE_BAND_HEIGHT = 128;
 	private final RegistryEntry<ChunkGeneratorSettings> settings;
 	private final Supplier<AquiferSampler.FluidLevelSampler> fluidLevelSampler;
 
@@ -345,15 +351,104 @@ public final class NoiseChunkGenerator extends ChunkGenerator {
 				set.add(chunkSection);
 			}
 
-			return CompletableFuture.supplyAsync(
+			int n = this.getNoiseBandCellHeight(chunk, generationShapeConfig);
+			CompletableFuture<Chunk> completableFuture;
+			if (n > 0 && n < k) {
+				completableFuture = this.populateNoiseInBands(blender, structureAccessor, noiseConfig, chunk, generationShapeConfig, j, k, n);
+			} else {
+				completableFuture = CompletableFuture.supplyAsync(
 					Util.debugSupplier("wgen_fill_noise", () -> this.populateNoise(blender, structureAccessor, noiseConfig, chunk, j, k)), Util.getMainWorkerExecutor()
+				);
+			}
+
+			return completableFuture.whenCompleteAsync((chunkx, throwable) -> {
+				for (ChunkSection chunkSectionx : set) {
+					chunkSectionx.unlock();
+				}
+			}, executor);
+		}
+	}
+
+	/**
+	 * {@return the number of cells in the height of a band of {@code chunk}}, or
+	 * {@code 0} if the noise of the chunk cannot be populated in bands.
+	 * 
+	 * <p>Every band has to cover whole chunk sections, so that no section is written
+	 * to by two bands. The heightmaps of retrogenerated chunks are not empty, and are
+	 * updated as the blocks are placed, so those chunks are populated in one piece.
+	 */
+	private int getNoiseBandCellHeight(Chunk chunk, GenerationShapeConfig generationShapeConfig) {
+		int i = generationShapeConfig.verticalCellBlockCount();
+		return 16 % i == 0 && Math.floorMod(generationShapeConfig.minimumY(), 16) == 0 && !chunk.hasBelowZeroRetrogen() ? NOISE_BAND_HEIGHT / i : 0;
+	}
+
+	/**
+	 * Populates the noise of {@code chunk} in vertical bands of {@code bandCellHeight}
+	 * cells, each filled in parallel by a chunk noise sampler of its own.
+	 * 
+	 * <p>The density, aquifer and ore vein samples of a block only depend on its
+	 * position, so the bands place the same blocks as a single sampler would, and every
+	 * chunk section receives its blocks in the same order. The heightmap updates of the
+	 * bands are applied once all of them are done.
+	 */
+	private CompletableFuture<Chunk> populateNoiseInBands(
+		Blender blender,
+		StructureAccessor structureAccessor,
+		NoiseConfig noiseConfig,
+		Chunk chunk,
+		GenerationShapeConfig generationShapeConfig,
+		int minimumCellY,
+		int cellHeight,
+		int bandCellHeight
+	) {
+		List<CompletableFuture<NoiseChunkGenerator.NoiseBand>> list = Lists.<CompletableFuture<NoiseChunkGenerator.NoiseBand>>newArrayList();
+
+		for (int i = cellHeight; i > 0; i -= bandCellHeight) {
+			int j = Math.max(0, i - bandCellHeight);
+			int k = minimumCellY + j;
+			int l = i - j;
+			GenerationShapeConfig generationShapeConfig2 = new GenerationShapeConfig(
+				k * generationShapeConfig.verticalCellBlockCount(),
+				l * generationShapeConfig.verticalCellBlockCount(),
+				generationShapeConfig.horizontalSize(),
+				generationShapeConfig.verticalSize()
+			);
+			list.add(
+				CompletableFuture.supplyAsync(
+					Util.debugSupplier("wgen_fill_noise", () -> {
+						ChunkPos chunkPos = chunk.getPos();
+						ChunkNoiseSampler chunkNoiseSampler = new ChunkNoiseSampler(
+							16 / generationShapeConfig2.horizontalCellBlockCount(),
+							noiseConfig,
+							chunkPos.getStartX(),
+							chunkPos.getStartZ(),
+							generationShapeConfig2,
+							StructureWeightSampler.createStructureWeightSampler(structureAccessor, chunkPos),
+							this.settings.value(),
+							(AquiferSampler.FluidLevelSampler)this.fluidLevelSampler.get(),
+							blender
+						);
+						NoiseChunkGenerator.NoiseBand noiseBand = new NoiseChunkGenerator.NoiseBand();
+						this.populateNoise(chunkNoiseSampler, chunk, k, l, noiseBand);
+						return noiseBand;
+					}),
+					Util.getMainWorkerExecutor()
 				)
-				.whenCompleteAsync((chunkx, throwable) -> {
-					for (ChunkSection chunkSectionx : set) {
-						chunkSectionx.unlock();
-					}
-				}, executor);
+			);
 		}
+
+		return Util.combineSafe(list).thenApply(noiseBands -> {
+			chunk.getOrCreateChunkNoiseSampler(chunkx -> this.createChunkNoiseSampler(chunkx, structureAccessor, blender, noiseConfig));
+			Heightmap heightmap = chunk.getHeightmap(Heightmap.Type.OCEAN_FLOOR_WG);
+			Heightmap heightmap2 = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE_WG);
+
+			for (NoiseChunkGenerator.NoiseBand noiseBand : noiseBands) {
+				noiseBand.oceanFloor.apply(heightmap);
+				noiseBand.worldSurface.apply(heightmap2);
+			}
+
+			return chunk;
+		});
 	}
 
 	private Chunk populateNoise(Blender blender, StructureAccessor structureAccessor, NoiseConfig noiseConfig, Chunk chunk, int minimumCellY, int cellHeight) {
@@ -362,6 +457,16 @@ public final class NoiseChunkGenerator extends ChunkGenerator {
 		);
 		Heightmap heightmap = chunk.getHeightmap(Heightmap.Type.OCEAN_FLOOR_WG);
 		Heightmap heightmap2 = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE_WG);
+		this.populateNoise(chunkNoiseSampler, chunk, minimumCellY, cellHeight, (x, y, z, state) -> {
+			heightmap.trackUpdate(x, y, z, state);
+			heightmap2.trackUpdate(x, y, z, state);
+		});
+		return chunk;
+	}
+
+	private void populateNoise(
+		ChunkNoiseSampler chunkNoiseSampler, Chunk chunk, int minimumCellY, int cellHeight, NoiseChunkGenerator.BlockTracker blockTracker
+	) {
 		ChunkPos chunkPos = chunk.getPos();
 		int i = chunkPos.getStartX();
 		int j = chunkPos.getStartZ();
@@ -414,8 +519,7 @@ public final class NoiseChunkGenerator extends ChunkGenerator {
 								blockState = this.getBlockState(chunkNoiseSampler, x, t, aa, blockState);
 								if (blockState != AIR && !SharedConstants.isOutsideGenerationArea(chunk.getPos())) {
 									chunkSection.setBlockState(y, u, ab, blockState, false);
-									heightmap.trackUpdate(y, t, ab, blockState);
-									heightmap2.trackUpdate(y, t, ab, blockState);
+									blockTracker.trackUpdate(y, t, ab, blockState);
 									if (aquiferSampler.needsFluidTick() && !blockState.getFluidState().isEmpty()) {
 										mutable.set(x, t, aa);
 										chunk.markBlockForPostProcessing(mutable);
@@ -431,7 +535,6 @@ public final class NoiseChunkGenerator extends ChunkGenerator {
 		}
 
 		chunkNoiseSampler.stopInterpolation();
-		return chunk;
 	}
 
 	private BlockState getBlockState(ChunkNoiseSampler chunkNoiseSampler, int x, int y, int z, BlockState state) {
@@ -463,4 +566,61 @@ public final class NoiseChunkGenerator extends ChunkGenerator {
 			SpawnHelper.populateEntities(region, registryEntry, chunkPos, chunkRandom);
 		}
 	}
+
+	/**
+	 * Receives the blocks placed while populating noise, from the top to the bottom of
+	 * every column.
+	 */
+	@FunctionalInterface
+	interface BlockTracker {
+		void trackUpdate(int x, int y, int z, BlockState state);
+	}
+
+	/**
+	 * The heightmap updates of a band of a chunk populated in parallel with the other
+	 * bands.
+	 */
+	static class NoiseBand implements NoiseChunkGenerator.BlockTracker {
+		final NoiseChunkGenerator.TopBlocks oceanFloor = new NoiseChunkGenerator.TopBlocks(Heightmap.Type.OCEAN_FLOOR_WG);
+		final NoiseChunkGenerator.TopBlocks worldSurface = new NoiseChunkGenerator.TopBlocks(Heightmap.Type.WORLD_SURFACE_WG);
+
+		@Override
+		public void trackUpdate(int x, int y, int z, BlockState state) {
+			this.oceanFloor.trackUpdate(x, y, z, state);
+			this.worldSurface.trackUpdate(x, y, z, state);
+		}
+	}
+
+	/**
+	 * The topmost block of every column matching the predicate of a heightmap.
+	 * 
+	 * <p>Noise only places blocks into empty heightmaps from the top down, so only the
+	 * first block of a column matching the predicate ever changes the heightmap.
+	 */
+	static class TopBlocks {
+		private final Predicate<BlockState> predicate;
+		private final int[] heights = new int[256];
+		private final BlockState[] states = new BlockState[256];
+
+		TopBlocks(Heightmap.Type type) {
+			this.predicate = type.getBlockPredicate();
+		}
+
+		public void trackUpdate(int x, int y, int z, BlockState state) {
+			int i = z << 4 | x;
+			if (this.states[i] == null && this.predicate.test(state)) {
+				this.heights[i] = y;
+				this.states[i] = state;
+			}
+		}
+
+		public void apply(Heightmap heightmap) {
+			for (int i = 0; i < 256; i++) {
+				BlockState blockState = this.states[i];
+				if (blockState != null) {
+					heightmap.trackUpdate(i & 15, this.heights[i], i >> 4, blockState);
+				}
+			}
+		}
+	}
 }
@@ -1,6 +1,7 @@
 package net.minecraft.world.gen.densityfunction;
 
 import com.mojang.serialization.Codec;
+import java.util.Arrays;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.entry.RegistryElementCodec;
 import net.minecraft.registry.entry.RegistryEntry;
@@ -137,6 +138,25 @@ public interface DensityFunction {
 		 * @implNote This can have side effects.
 		 */
 		void fill(double[] densities, DensityFunction densityFunction);
+
+		/**
+		 * Stores the coordinates of the block positions of the density array in
+		 * {@code blockXs}, {@code blockYs} and {@code blockZs}, in the order
+		 * {@link #fill} visits them.
+		 * 
+		 * <p>This lets a density function only depending on the block position, like
+		 * noise, sample all positions at once instead of one at a time.
+		 * 
+		 * @implNote This has the same side effects as {@link #fill}.
+		 */
+		default void fillPositions(double[] blockXs, double[] blockYs, double[] blockZs) {
+			for (int i = 0; i < blockXs.length; i++) {
+				NoisePos noisePos = this.at(i);
+				blockXs[i] = (double)noisePos.blockX();
+				blockYs[i] = (double)noisePos.blockY();
+				blockZs[i] = (double)noisePos.blockZ();
+			}
+		}
 	}
 
 	public static record Noise(RegistryEntry<DoublePerlinNoiseSampler.NoiseParameters> noiseData, @Nullable DoublePerlinNoiseSampler noise) {
@@ -151,6 +171,18 @@ public interface DensityFunction {
 			return this.noise == null ? 0.0 : this.noise.sample(x, y, z);
 		}
 
+		/**
+		 * Samples this noise at every point of {@code xs}, {@code ys} and {@code zs},
+		 * storing the results in {@code densities}.
+		 */
+		public void sample(double[] xs, double[] ys, double[] zs, double[] densities) {
+			if (this.noise == null) {
+				Arrays.fill(densities, 0.0);
+			} else {
+				this.noise.sample(xs, ys, zs, densities);
+			}
+		}
+
 		public double getMaxValue() {
 			return this.noise == null ? 2.0 : this.noise.getMaxValue();
 		}
@@ -0,0 +1,967 @@
+package net.minecraft.world.gen.densityfunction;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.mojang.logging.LogUtils;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.util.dynamic.CodecHolder;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.noise.DoublePerlinNoiseSampler;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+
+/**
+ * Compiles density functions into the bytecode of hidden classes.
+ *
+ * <p>Interpreting a density function walks a tree of small records with an
+ * interface call per node, and a {@link net.minecraft.world.gen.chunk.ChunkNoiseSampler}
+ * does so thousands of times per chunk. The compiler turns the operations of such a
+ * tree into the methods of one generated class: constant operands are folded into the
+ * instructions, the arithmetic of the operations is inlined, and noise is sampled
+ * straight from its {@link DoublePerlinNoiseSampler}. Every other function, such as
+ * the caches and interpolators of a chunk noise sampler, splines and end islands, is
+ * kept and called from the generated code.
+ *
+ * <p>The generated code performs the same floating point operations in the same order
+ * as the interpreter, and calls the kept functions and {@link DensityFunction.EachApplier#at}
+ * in the same order, both when sampling and when filling, so its results are
+ * bit-identical to those of the interpreter.
+ *
+ * <p>A generated class only depends on the shape of the compiled tree, that is its
+ * operations, their constants and where the kept functions and noise samplers go, and
+ * receives the latter when it is instantiated. The nodes of the tree are records, so
+ * trees of the same shape are equal, and the classes are cached by their root node.
+ * The trees of every chunk thus share one class per wrapped function, found without
+ * describing the tree as a string. Large subtrees are
+ * generated as methods of their own to keep every method small enough to be compiled
+ * by the JIT.
+ */
+public final class DensityFunctionCompiler {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	/**
+	 * The minimum number of nodes of a tree worth compiling.
+	 */
+	private static final int MIN_COMPILED_SIZE = 3;
+	/**
+	 * The maximum number of nodes of a subtree generated inline into the method of its
+	 * parent.
+	 */
+	private static final int MAX_INLINED_SIZE = 32;
+	private static final String CLASS_NAME = "net/minecraft/world/gen/densityfunction/CompiledDensityFunction";
+	private static final String SUPER_NAME = Type.getInternalName(DensityFunctionCompiler.CompiledFunction.class);
+	private static final String COMPILER_NAME = Type.getInternalName(DensityFunctionCompiler.class);
+	private static final String FUNCTION_NAME = Type.getInternalName(DensityFunction.class);
+	private static final String FUNCTION_DESCRIPTOR = Type.getDescriptor(DensityFunction.class);
+	private static final String POSITIONAL_NAME = Type.getInternalName(DensityFunctionTypes.Positional.class);
+	private static final String POSITIONAL_DESCRIPTOR = Type.getDescriptor(DensityFunctionTypes.Positional.class);
+	private static final String SAMPLER_NAME = Type.getInternalName(DoublePerlinNoiseSampler.class);
+	private static final String SAMPLER_DESCRIPTOR = Type.getDescriptor(DoublePerlinNoiseSampler.class);
+	private static final String NOISE_POS_NAME = Type.getInternalName(DensityFunction.NoisePos.class);
+	private static final String APPLIER_NAME = Type.getInternalName(DensityFunction.EachApplier.class);
+	private static final String MATH_HELPER_NAME = Type.getInternalName(MathHelper.class);
+	private static final String SAMPLE_DESCRIPTOR = "(" + Type.getDescriptor(DensityFunction.NoisePos.class) + ")D";
+	private static final String FILL_DESCRIPTOR = "([D" + Type.getDescriptor(DensityFunction.EachApplier.class) + ")V";
+	private static final String AT_DESCRIPTOR = "(I)" + Type.getDescriptor(DensityFunction.NoisePos.class);
+	private static final String POSITIONAL_APPLY_DESCRIPTOR = "(" + Type.getDescriptor(DensityFunction.NoisePos.class) + "D)D";
+	private static final Map<DensityFunctionCompiler.Node, Optional<MethodHandle>> CONSTRUCTORS = new ConcurrentHashMap();
+
+	private DensityFunctionCompiler() {
+	}
+
+	/**
+	 * {@return a compiled function sampling the same values as {@code function}}, or
+	 * {@code function} itself if it is not worth compiling or cannot be compiled.
+	 */
+	public static DensityFunction compile(DensityFunction function) {
+		if (function instanceof DensityFunctionCompiler.CompiledFunction) {
+			return function;
+		} else {
+			DensityFunctionCompiler.TreeBuilder treeBuilder = new DensityFunctionCompiler.TreeBuilder();
+			DensityFunctionCompiler.Node node = treeBuilder.build(function);
+			if (node.size() < MIN_COMPILED_SIZE) {
+				return function;
+			} else {
+				Optional<MethodHandle> optional = (Optional<MethodHandle>)CONSTRUCTORS.computeIfAbsent(node, root -> define(root, treeBuilder.leafTypes));
+				if (optional.isEmpty()) {
+					return function;
+				} else {
+					try {
+						return (DensityFunction)((MethodHandle)optional.get()).invoke(function, treeBuilder.leaves.toArray());
+					} catch (Throwable var6) {
+						LOGGER.error("Failed to instantiate compiled density function {}", function, var6);
+						return function;
+					}
+				}
+			}
+		}
+	}
+
+	private static Optional<MethodHandle> define(DensityFunctionCompiler.Node root, List<String> leafTypes) {
+		try {
+			byte[] bs = new DensityFunctionCompiler.ClassGenerator(root, leafTypes).generate();
+			MethodHandles.Lookup lookup = LOOKUP.defineHiddenClass(bs, true);
+			return Optional.of(
+				lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, DensityFunction.class, Object[].class))
+					.asType(MethodType.methodType(DensityFunction.class, DensityFunction.class, Object[].class))
+			);
+		} catch (Throwable var5) {
+			LOGGER.warn("Failed to compile density function {}, interpreting it instead", root, var5);
+			return Optional.empty();
+		}
+	}
+
+	static double halfNegative(double density) {
+		return density > 0.0 ? density : density * 0.5;
+	}
+
+	static double quarterNegative(double density) {
+		return density > 0.0 ? density : density * 0.25;
+	}
+
+	static double squeeze(double density) {
+		double d = MathHelper.clamp(density, -1.0, 1.0);
+		return d / 2.0 - d * d * d / 24.0;
+	}
+
+	static record BinaryNode(
+		DensityFunctionTypes.BinaryOperationLike.Type type,
+		DensityFunctionCompiler.Node argument1,
+		DensityFunctionCompiler.Node argument2,
+		double argument2Min,
+		double argument2Max
+	) implements DensityFunctionCompiler.Node {
+		@Override
+		public int size() {
+			return 1 + this.argument1.size() + this.argument2.size();
+		}
+	}
+
+	static record ClampNode(DensityFunctionCompiler.Node input, double min, double max) implements DensityFunctionCompiler.UnaryLikeNode {
+		@Override
+		public int size() {
+			return 1 + this.input.size();
+		}
+	}
+
+	/**
+	 * The class all generated classes extend, holding the function it was compiled
+	 * from.
+	 */
+	abstract static class CompiledFunction implements DensityFunction {
+		protected final DensityFunction function;
+
+		protected CompiledFunction(DensityFunction function) {
+			this.function = function;
+		}
+
+		@Override
+		public DensityFunction apply(DensityFunctionVisitor visitor) {
+			return this.function.apply(visitor);
+		}
+
+		@Override
+		public double minValue() {
+			return this.function.minValue();
+		}
+
+		@Override
+		public double maxValue() {
+			return this.function.maxValue();
+		}
+
+		@Override
+		public CodecHolder<? extends DensityFunction> getCodecHolder() {
+			return this.function.getCodecHolder();
+		}
+
+		public String toString() {
+			return "Compiled[" + this.function + "]";
+		}
+	}
+
+	static class ClassGenerator {
+		private final DensityFunctionCompiler.Node root;
+		private final List<String> leafTypes;
+		private final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				return "java/lang/Object";
+			}
+		};
+		private final Map<DensityFunctionCompiler.Node, String> sampleMethods = new IdentityHashMap();
+		private final Map<DensityFunctionCompiler.Node, String> fillMethods = new IdentityHashMap();
+		private final Deque<DensityFunctionCompiler.Node> pendingSampleMethods = new ArrayDeque();
+		private final Deque<DensityFunctionCompiler.Node> pendingFillMethods = new ArrayDeque();
+
+		ClassGenerator(DensityFunctionCompiler.Node root, List<String> leafTypes) {
+			this.root = root;
+			this.leafTypes = leafTypes;
+		}
+
+		public byte[] generate() {
+			this.classWriter.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null, SUPER_NAME, null);
+
+			for (int i = 0; i < this.leafTypes.size(); i++) {
+				this.classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "leaf" + i, (String)this.leafTypes.get(i), null, null).visitEnd();
+			}
+
+			this.generateConstructor();
+			this.generateSampleMethod("sample", Opcodes.ACC_PUBLIC, this.root);
+			this.generateFillMethod("fill", Opcodes.ACC_PUBLIC, this.root);
+
+			while (!this.pendingSampleMethods.isEmpty() || !this.pendingFillMethods.isEmpty()) {
+				if (!this.pendingSampleMethods.isEmpty()) {
+					DensityFunctionCompiler.Node node = (DensityFunctionCompiler.Node)this.pendingSampleMethods.poll();
+					this.generateSampleMethod((String)this.sampleMethods.get(node), Opcodes.ACC_PRIVATE, node);
+				} else {
+					DensityFunctionCompiler.Node node = (DensityFunctionCompiler.Node)this.pendingFillMethods.poll();
+					this.generateFillMethod((String)this.fillMethods.get(node), Opcodes.ACC_PRIVATE, node);
+				}
+			}
+
+			this.classWriter.visitEnd();
+			return this.classWriter.toByteArray();
+		}
+
+		private void generateConstructor() {
+			MethodVisitor methodVisitor = this.classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + FUNCTION_DESCRIPTOR + "[Ljava/lang/Object;)V", null, null);
+			methodVisitor.visitCode();
+			methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+			methodVisitor.visitVarInsn(Opcodes.ALOAD, 1);
+			methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER_NAME, "<init>", "(" + FUNCTION_DESCRIPTOR + ")V", false);
+
+			for (int i = 0; i < this.leafTypes.size(); i++) {
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+				methodVisitor.visitLdcInsn(i);
+				methodVisitor.visitInsn(Opcodes.AALOAD);
+				methodVisitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getType((String)this.leafTypes.get(i)).getInternalName());
+				methodVisitor.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, "leaf" + i, (String)this.leafTypes.get(i));
+			}
+
+			methodVisitor.visitInsn(Opcodes.RETURN);
+			methodVisitor.visitMaxs(0, 0);
+			methodVisitor.visitEnd();
+		}
+
+		private void generateSampleMethod(String name, int access, DensityFunctionCompiler.Node node) {
+			DensityFunctionCompiler.MethodContext methodContext = new DensityFunctionCompiler.MethodContext(
+				this.classWriter.visitMethod(access, name, SAMPLE_DESCRIPTOR, null, null), node, 2
+			);
+			methodContext.methodVisitor.visitCode();
+			this.emitSample(methodContext, node, 1);
+			methodContext.methodVisitor.visitInsn(Opcodes.DRETURN);
+			methodContext.methodVisitor.visitMaxs(0, 0);
+			methodContext.methodVisitor.visitEnd();
+		}
+
+		private void generateFillMethod(String name, int access, DensityFunctionCompiler.Node node) {
+			DensityFunctionCompiler.MethodContext methodContext = new DensityFunctionCompiler.MethodContext(
+				this.classWriter.visitMethod(access, name, FILL_DESCRIPTOR, null, null), node, 3
+			);
+			methodContext.methodVisitor.visitCode();
+			this.emitFill(methodContext, node, 1);
+			methodContext.methodVisitor.visitInsn(Opcodes.RETURN);
+			methodContext.methodVisitor.visitMaxs(0, 0);
+			methodContext.methodVisitor.visitEnd();
+		}
+
+		/**
+		 * Emits the instructions pushing the value of {@code node} at the position in
+		 * the local variable {@code posSlot}.
+		 */
+		private void emitSample(DensityFunctionCompiler.MethodContext context, DensityFunctionCompiler.Node node, int posSlot) {
+			MethodVisitor methodVisitor = context.methodVisitor;
+			if (node != context.node && node.size() > MAX_INLINED_SIZE) {
+				String string = (String)this.sampleMethods.get(node);
+				if (string == null) {
+					string = "sample" + this.sampleMethods.size();
+					this.sampleMethods.put(node, string);
+					this.pendingSampleMethods.add(node);
+				}
+
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, posSlot);
+				methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, CLASS_NAME, string, SAMPLE_DESCRIPTOR, false);
+			} else if (node instanceof DensityFunctionCompiler.ConstantNode constantNode) {
+				methodVisitor.visitLdcInsn(constantNode.value());
+			} else if (node instanceof DensityFunctionCompiler.KeptNode keptNode) {
+				this.emitLeaf(methodVisitor, keptNode.function());
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, posSlot);
+				methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, FUNCTION_NAME, "sample", SAMPLE_DESCRIPTOR, true);
+			} else if (node instanceof DensityFunctionCompiler.LinearNode linearNode) {
+				this.emitSample(context, linearNode.input(), posSlot);
+				this.emitUnary(methodVisitor, linearNode);
+			} else if (node instanceof DensityFunctionCompiler.UnaryNode unaryNode) {
+				this.emitSample(context, unaryNode.input(), posSlot);
+				this.emitUnary(methodVisitor, unaryNode);
+			} else if (node instanceof DensityFunctionCompiler.ClampNode clampNode) {
+				this.emitSample(context, clampNode.input(), posSlot);
+				this.emitUnary(methodVisitor, clampNode);
+			} else if (node instanceof DensityFunctionCompiler.BinaryNode binaryNode) {
+				this.emitSample(context, binaryNode.argument1(), posSlot);
+				if (binaryNode.type() == DensityFunctionTypes.BinaryOperationLike.Type.ADD) {
+					this.emitSample(context, binaryNode.argument2(), posSlot);
+					methodVisitor.visitInsn(Opcodes.DADD);
+				} else {
+					int i = context.allocate(2);
+					methodVisitor.visitVarInsn(Opcodes.DSTORE, i);
+					this.emitBinaryShortCircuit(context, binaryNode, i, () -> this.emitSample(context, binaryNode.argument2(), posSlot));
+				}
+			} else if (node instanceof DensityFunctionCompiler.RangeChoiceNode rangeChoiceNode) {
+				this.emitSample(context, rangeChoiceNode.input(), posSlot);
+				int i = context.allocate(2);
+				methodVisitor.visitVarInsn(Opcodes.DSTORE, i);
+				this.emitRangeChoice(
+					context,
+					rangeChoiceNode,
+					i,
+					() -> this.emitSample(context, rangeChoiceNode.whenInRange(), posSlot),
+					() -> this.emitSample(context, rangeChoiceNode.whenOutOfRange(), posSlot)
+				);
+			} else if (node instanceof DensityFunctionCompiler.YClampedGradientNode yClampedGradientNode) {
+				this.emitBlockCoord(methodVisitor, posSlot, "blockY");
+				methodVisitor.visitLdcInsn((double)yClampedGradientNode.fromY());
+				methodVisitor.visitLdcInsn((double)yClampedGradientNode.toY());
+				methodVisitor.visitLdcInsn(yClampedGradientNode.fromValue());
+				methodVisitor.visitLdcInsn(yClampedGradientNode.toValue());
+				methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH_HELPER_NAME, "clampedMap", "(DDDDD)D", false);
+			} else if (node instanceof DensityFunctionCompiler.NoiseNode noiseNode) {
+				if (noiseNode.sampler() < 0) {
+					methodVisitor.visitLdcInsn(0.0);
+				} else {
+					this.emitLeaf(methodVisitor, noiseNode.sampler());
+					this.emitScaledBlockCoord(methodVisitor, posSlot, "blockX", noiseNode.xzScale());
+					this.emitScaledBlockCoord(methodVisitor, posSlot, "blockY", noiseNode.yScale());
+					this.emitScaledBlockCoord(methodVisitor, posSlot, "blockZ", noiseNode.xzScale());
+					methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SAMPLER_NAME, "sample", "(DDD)D", false);
+				}
+			} else if (node instanceof DensityFunctionCompiler.ShiftedNoiseNode shiftedNoiseNode) {
+				if (shiftedNoiseNode.sampler() >= 0) {
+					this.emitLeaf(methodVisitor, shiftedNoiseNode.sampler());
+				}
+
+				this.emitScaledBlockCoord(methodVisitor, posSlot, "blockX", shiftedNoiseNode.xzScale());
+				this.emitSample(context, shiftedNoiseNode.shiftX(), posSlot);
+				methodVisitor.visitInsn(Opcodes.DADD);
+				this.emitScaledBlockCoord(methodVisitor, posSlot, "blockY", shiftedNoiseNode.yScale());
+				this.emitSample(context, shiftedNoiseNode.shiftY(), posSlot);
+				methodVisitor.visitInsn(Opcodes.DADD);
+				this.emitScaledBlockCoord(methodVisitor, posSlot, "blockZ", shiftedNoiseNode.xzScale());
+				this.emitSample(context, shiftedNoiseNode.shiftZ(), posSlot);
+				methodVisitor.visitInsn(Opcodes.DADD);
+				if (shiftedNoiseNode.sampler() >= 0) {
+					methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SAMPLER_NAME, "sample", "(DDD)D", false);
+				} else {
+					methodVisitor.visitInsn(Opcodes.POP2);
+					methodVisitor.visitInsn(Opcodes.POP2);
+					methodVisitor.visitInsn(Opcodes.POP2);
+					methodVisitor.visitLdcInsn(0.0);
+				}
+			} else if (node instanceof DensityFunctionCompiler.ShiftNode shiftNode) {
+				if (shiftNode.sampler() < 0) {
+					methodVisitor.visitLdcInsn(0.0);
+				} else {
+					this.emitLeaf(methodVisitor, shiftNode.sampler());
+					switch (shiftNode.type()) {
+						case SHIFT:
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockX", 0.25);
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockY", 0.25);
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockZ", 0.25);
+							break;
+						case SHIFT_A:
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockX", 0.25);
+							methodVisitor.visitLdcInsn(0.0);
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockZ", 0.25);
+							break;
+						case SHIFT_B:
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockZ", 0.25);
+							this.emitScaledBlockCoord(methodVisitor, posSlot, "blockX", 0.25);
+							methodVisitor.visitLdcInsn(0.0);
+					}
+
+					methodVisitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, SAMPLER_NAME, "sample", "(DDD)D", false);
+					methodVisitor.visitLdcInsn(4.0);
+					methodVisitor.visitInsn(Opcodes.DMUL);
+				}
+			} else {
+				if (!(node instanceof DensityFunctionCompiler.PositionalNode positionalNode)) {
+					throw new IllegalArgumentException("Unknown node " + node);
+				}
+
+				this.emitLeaf(methodVisitor, positionalNode.function());
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, posSlot);
+				this.emitSample(context, positionalNode.input(), posSlot);
+				methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, POSITIONAL_NAME, "apply", POSITIONAL_APPLY_DESCRIPTOR, true);
+			}
+		}
+
+		/**
+		 * Emits the instructions filling the array in the local variable {@code arraySlot}
+		 * with the values of {@code node}, the way {@link DensityFunction#fill} of the
+		 * interpreted function does.
+		 */
+		private void emitFill(DensityFunctionCompiler.MethodContext context, DensityFunctionCompiler.Node node, int arraySlot) {
+			MethodVisitor methodVisitor = context.methodVisitor;
+			if (node != context.node && node.size() > MAX_INLINED_SIZE) {
+				String string = (String)this.fillMethods.get(node);
+				if (string == null) {
+					string = "fill" + this.fillMethods.size();
+					this.fillMethods.put(node, string);
+					this.pendingFillMethods.add(node);
+				}
+
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+				methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, CLASS_NAME, string, FILL_DESCRIPTOR, false);
+			} else if (node instanceof DensityFunctionCompiler.ConstantNode constantNode) {
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+				methodVisitor.visitLdcInsn(constantNode.value());
+				methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Arrays", "fill", "([DD)V", false);
+			} else if (node instanceof DensityFunctionCompiler.UnaryLikeNode unaryLikeNode) {
+				this.emitFill(context, unaryLikeNode.input(), arraySlot);
+				this.emitLoop(context, arraySlot, i -> {
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+					methodVisitor.visitInsn(Opcodes.DALOAD);
+					this.emitUnary(methodVisitor, unaryLikeNode);
+					methodVisitor.visitInsn(Opcodes.DASTORE);
+				});
+			} else if (node instanceof DensityFunctionCompiler.BinaryNode binaryNode) {
+				this.emitFill(context, binaryNode.argument1(), arraySlot);
+				if (binaryNode.type() == DensityFunctionTypes.BinaryOperationLike.Type.ADD) {
+					int j = context.allocate(1);
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitInsn(Opcodes.ARRAYLENGTH);
+					methodVisitor.visitIntInsn(Opcodes.NEWARRAY, Opcodes.T_DOUBLE);
+					methodVisitor.visitVarInsn(Opcodes.ASTORE, j);
+					this.emitFill(context, binaryNode.argument2(), j);
+					this.emitLoop(context, arraySlot, i -> {
+						methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+						methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+						methodVisitor.visitInsn(Opcodes.DUP2);
+						methodVisitor.visitInsn(Opcodes.DALOAD);
+						methodVisitor.visitVarInsn(Opcodes.ALOAD, j);
+						methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+						methodVisitor.visitInsn(Opcodes.DALOAD);
+						methodVisitor.visitInsn(Opcodes.DADD);
+						methodVisitor.visitInsn(Opcodes.DASTORE);
+					});
+				} else {
+					this.emitLoop(context, arraySlot, i -> {
+						int k = context.allocate(2);
+						methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+						methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+						methodVisitor.visitInsn(Opcodes.DALOAD);
+						methodVisitor.visitVarInsn(Opcodes.DSTORE, k);
+						methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+						methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+						this.emitBinaryShortCircuit(context, binaryNode, k, () -> this.emitSampleAt(context, binaryNode.argument2(), i));
+						methodVisitor.visitInsn(Opcodes.DASTORE);
+					});
+				}
+			} else if (node instanceof DensityFunctionCompiler.RangeChoiceNode rangeChoiceNode) {
+				this.emitFill(context, rangeChoiceNode.input(), arraySlot);
+				this.emitLoop(context, arraySlot, i -> {
+					int j = context.allocate(2);
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+					methodVisitor.visitInsn(Opcodes.DALOAD);
+					methodVisitor.visitVarInsn(Opcodes.DSTORE, j);
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+					this.emitRangeChoice(
+						context,
+						rangeChoiceNode,
+						j,
+						() -> this.emitSampleAt(context, rangeChoiceNode.whenInRange(), i),
+						() -> this.emitSampleAt(context, rangeChoiceNode.whenOutOfRange(), i)
+					);
+					methodVisitor.visitInsn(Opcodes.DASTORE);
+				});
+			} else if (node instanceof DensityFunctionCompiler.PositionalNode positionalNode) {
+				this.emitFill(context, positionalNode.input(), arraySlot);
+				this.emitLoop(context, arraySlot, i -> {
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+					this.emitLeaf(methodVisitor, positionalNode.function());
+					this.emitAt(methodVisitor, i);
+					methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+					methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+					methodVisitor.visitInsn(Opcodes.DALOAD);
+					methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, POSITIONAL_NAME, "apply", POSITIONAL_APPLY_DESCRIPTOR, true);
+					methodVisitor.visitInsn(Opcodes.DASTORE);
+				});
+			} else {
+				if (!(node instanceof DensityFunctionCompiler.FilledNode filledNode)) {
+					throw new IllegalArgumentException("Unknown node " + node);
+				}
+
+				this.emitLeaf(methodVisitor, filledNode.function());
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+				methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+				methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, FUNCTION_NAME, "fill", FILL_DESCRIPTOR, true);
+			}
+		}
+
+		/**
+		 * Emits the instructions pushing the value of {@code node} at the position the
+		 * applier returns for the index in the local variable {@code indexSlot}.
+		 */
+		private void emitSampleAt(DensityFunctionCompiler.MethodContext context, DensityFunctionCompiler.Node node, int indexSlot) {
+			int i = context.allocate(1);
+			this.emitAt(context.methodVisitor, indexSlot);
+			context.methodVisitor.visitVarInsn(Opcodes.ASTORE, i);
+			this.emitSample(context, node, i);
+		}
+
+		private void emitAt(MethodVisitor methodVisitor, int indexSlot) {
+			methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+			methodVisitor.visitVarInsn(Opcodes.ILOAD, indexSlot);
+			methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, APPLIER_NAME, "at", AT_DESCRIPTOR, true);
+		}
+
+		/**
+		 * Emits the min, max or mul operation of {@code node} on the value of its first
+		 * argument in the local variable {@code valueSlot}, sampling its second argument
+		 * only when the interpreter does.
+		 */
+		private void emitBinaryShortCircuit(
+			DensityFunctionCompiler.MethodContext context, DensityFunctionCompiler.BinaryNode node, int valueSlot, Runnable argument2Emitter
+		) {
+			MethodVisitor methodVisitor = context.methodVisitor;
+			Label label = new Label();
+			Label label2 = new Label();
+			methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+			switch (node.type()) {
+				case MAX:
+					methodVisitor.visitLdcInsn(node.argument2Max());
+					methodVisitor.visitInsn(Opcodes.DCMPL);
+					methodVisitor.visitJumpInsn(Opcodes.IFLE, label);
+					methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+					methodVisitor.visitJumpInsn(Opcodes.GOTO, label2);
+					methodVisitor.visitLabel(label);
+					methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+					argument2Emitter.run();
+					methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "max", "(DD)D", false);
+					break;
+				case MIN:
+					methodVisitor.visitLdcInsn(node.argument2Min());
+					methodVisitor.visitInsn(Opcodes.DCMPG);
+					methodVisitor.visitJumpInsn(Opcodes.IFGE, label);
+					methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+					methodVisitor.visitJumpInsn(Opcodes.GOTO, label2);
+					methodVisitor.visitLabel(label);
+					methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+					argument2Emitter.run();
+					methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "min", "(DD)D", false);
+					break;
+				case MUL:
+					methodVisitor.visitInsn(Opcodes.DCONST_0);
+					methodVisitor.visitInsn(Opcodes.DCMPL);
+					methodVisitor.visitJumpInsn(Opcodes.IFNE, label);
+					methodVisitor.visitInsn(Opcodes.DCONST_0);
+					methodVisitor.visitJumpInsn(Opcodes.GOTO, label2);
+					methodVisitor.visitLabel(label);
+					methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+					argument2Emitter.run();
+					methodVisitor.visitInsn(Opcodes.DMUL);
+					break;
+				default:
+					throw new IllegalArgumentException("Not a short circuiting operation: " + node.type());
+			}
+
+			methodVisitor.visitLabel(label2);
+		}
+
+		private void emitRangeChoice(
+			DensityFunctionCompiler.MethodContext context,
+			DensityFunctionCompiler.RangeChoiceNode node,
+			int valueSlot,
+			Runnable whenInRangeEmitter,
+			Runnable whenOutOfRangeEmitter
+		) {
+			MethodVisitor methodVisitor = context.methodVisitor;
+			Label label = new Label();
+			Label label2 = new Label();
+			methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+			methodVisitor.visitLdcInsn(node.minInclusive());
+			methodVisitor.visitInsn(Opcodes.DCMPL);
+			methodVisitor.visitJumpInsn(Opcodes.IFLT, label);
+			methodVisitor.visitVarInsn(Opcodes.DLOAD, valueSlot);
+			methodVisitor.visitLdcInsn(node.maxExclusive());
+			methodVisitor.visitInsn(Opcodes.DCMPG);
+			methodVisitor.visitJumpInsn(Opcodes.IFGE, label);
+			whenInRangeEmitter.run();
+			methodVisitor.visitJumpInsn(Opcodes.GOTO, label2);
+			methodVisitor.visitLabel(label);
+			whenOutOfRangeEmitter.run();
+			methodVisitor.visitLabel(label2);
+		}
+
+		/**
+		 * Emits the operation of a linear, unary or clamp node on the value on top of
+		 * the stack.
+		 */
+		private void emitUnary(MethodVisitor methodVisitor, DensityFunctionCompiler.UnaryLikeNode node) {
+			if (node instanceof DensityFunctionCompiler.LinearNode linearNode) {
+				methodVisitor.visitLdcInsn(linearNode.argument());
+				methodVisitor.visitInsn(linearNode.mul() ? Opcodes.DMUL : Opcodes.DADD);
+			} else if (node instanceof DensityFunctionCompiler.ClampNode clampNode) {
+				methodVisitor.visitLdcInsn(clampNode.min());
+				methodVisitor.visitLdcInsn(clampNode.max());
+				methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH_HELPER_NAME, "clamp", "(DDD)D", false);
+			} else {
+				if (!(node instanceof DensityFunctionCompiler.UnaryNode unaryNode)) {
+					throw new IllegalArgumentException("Not a unary node: " + node);
+				}
+
+				switch (unaryNode.type()) {
+					case ABS:
+						methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "abs", "(D)D", false);
+						break;
+					case SQUARE:
+						methodVisitor.visitInsn(Opcodes.DUP2);
+						methodVisitor.visitInsn(Opcodes.DMUL);
+						break;
+					case CUBE:
+						methodVisitor.visitInsn(Opcodes.DUP2);
+						methodVisitor.visitInsn(Opcodes.DUP2);
+						methodVisitor.visitInsn(Opcodes.DMUL);
+						methodVisitor.visitInsn(Opcodes.DMUL);
+						break;
+					case HALF_NEGATIVE:
+						methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, COMPILER_NAME, "halfNegative", "(D)D", false);
+						break;
+					case QUARTER_NEGATIVE:
+						methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, COMPILER_NAME, "quarterNegative", "(D)D", false);
+						break;
+					case SQUEEZE:
+						methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, COMPILER_NAME, "squeeze", "(D)D", false);
+				}
+			}
+		}
+
+		private void emitLoop(DensityFunctionCompiler.MethodContext context, int arraySlot, DensityFunctionCompiler.LoopBodyEmitter body) {
+			MethodVisitor methodVisitor = context.methodVisitor;
+			int i = context.allocate(1);
+			Label label = new Label();
+			Label label2 = new Label();
+			methodVisitor.visitInsn(Opcodes.ICONST_0);
+			methodVisitor.visitVarInsn(Opcodes.ISTORE, i);
+			methodVisitor.visitLabel(label);
+			methodVisitor.visitVarInsn(Opcodes.ILOAD, i);
+			methodVisitor.visitVarInsn(Opcodes.ALOAD, arraySlot);
+			methodVisitor.visitInsn(Opcodes.ARRAYLENGTH);
+			methodVisitor.visitJumpInsn(Opcodes.IF_ICMPGE, label2);
+			body.emit(i);
+			methodVisitor.visitIincInsn(i, 1);
+			methodVisitor.visitJumpInsn(Opcodes.GOTO, label);
+			methodVisitor.visitLabel(label2);
+		}
+
+		private void emitLeaf(MethodVisitor methodVisitor, int leaf) {
+			methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+			methodVisitor.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, "leaf" + leaf, (String)this.leafTypes.get(leaf));
+		}
+
+		private void emitBlockCoord(MethodVisitor methodVisitor, int posSlot, String coord) {
+			methodVisitor.visitVarInsn(Opcodes.ALOAD, posSlot);
+			methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, NOISE_POS_NAME, coord, "()I", true);
+			methodVisitor.visitInsn(Opcodes.I2D);
+		}
+
+		private void emitScaledBlockCoord(MethodVisitor methodVisitor, int posSlot, String coord, double scale) {
+			this.emitBlockCoord(methodVisitor, posSlot, coord);
+			methodVisitor.visitLdcInsn(scale);
+			methodVisitor.visitInsn(Opcodes.DMUL);
+		}
+	}
+
+	static record ConstantNode(double value) implements DensityFunctionCompiler.Node {
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+
+	/**
+	 * A function called from the generated code as it is.
+	 */
+	static record KeptNode(int function) implements DensityFunctionCompiler.FilledNode {
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+
+	static record LinearNode(DensityFunctionCompiler.Node input, boolean mul, double argument) implements DensityFunctionCompiler.UnaryLikeNode {
+		@Override
+		public int size() {
+			return 1 + this.input.size();
+		}
+	}
+
+	@FunctionalInterface
+	interface LoopBodyEmitter {
+		void emit(int indexSlot);
+	}
+
+	static class MethodContext {
+		final MethodVisitor methodVisitor;
+		/**
+		 * The node the method is generated for.
+		 */
+		final DensityFunctionCompiler.Node node;
+		private int nextLocal;
+
+		MethodContext(MethodVisitor methodVisitor, DensityFunctionCompiler.Node node, int firstLocal) {
+			this.methodVisitor = methodVisitor;
+			this.node = node;
+			this.nextLocal = firstLocal;
+		}
+
+		int allocate(int size) {
+			int i = this.nextLocal;
+			this.nextLocal += size;
+			return i;
+		}
+	}
+
+	/**
+	 * A node of the tree a class is generated for. Nodes are records holding the
+	 * indices of their leaves rather than the leaves, so they are equal if their
+	 * subtrees have the same shape.
+	 */
+	sealed interface Node
+		permits DensityFunctionCompiler.UnaryLikeNode,
+		DensityFunctionCompiler.FilledNode,
+		DensityFunctionCompiler.BinaryNode,
+		DensityFunctionCompiler.ConstantNode,
+		DensityFunctionCompiler.PositionalNode,
+		DensityFunctionCompiler.RangeChoiceNode {
+		int size();
+	}
+
+	/**
+	 * A linear, unary or clamp node, applying its operation to each value of its input.
+	 */
+	sealed interface UnaryLikeNode
+		extends DensityFunctionCompiler.Node
+		permits DensityFunctionCompiler.LinearNode,
+		DensityFunctionCompiler.UnaryNode,
+		DensityFunctionCompiler.ClampNode {
+		DensityFunctionCompiler.Node input();
+	}
+
+	/**
+	 * A node filled by calling its interpreted function.
+	 */
+	sealed interface FilledNode
+		extends DensityFunctionCompiler.Node
+		permits DensityFunctionCompiler.KeptNode,
+		DensityFunctionCompiler.NoiseNode,
+		DensityFunctionCompiler.ShiftNode,
+		DensityFunctionCompiler.ShiftedNoiseNode,
+		DensityFunctionCompiler.YClampedGradientNode {
+		/**
+		 * {@return the leaf holding the interpreted function}
+		 */
+		int function();
+	}
+
+	/**
+	 * @param sampler the leaf holding the noise sampler, or {@code -1} if the noise is
+	 * missing and samples {@code 0.0}
+	 * @param function the leaf holding the interpreted function
+	 */
+	static record NoiseNode(int sampler, double xzScale, double yScale, int function) implements DensityFunctionCompiler.FilledNode {
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+
+	static record PositionalNode(DensityFunctionCompiler.Node input, int function) implements DensityFunctionCompiler.Node {
+		@Override
+		public int size() {
+			return 1 + this.input.size();
+		}
+	}
+
+	static record RangeChoiceNode(
+		DensityFunctionCompiler.Node input,
+		double minInclusive,
+		double maxExclusive,
+		DensityFunctionCompiler.Node whenInRange,
+		DensityFunctionCompiler.Node whenOutOfRange
+	) implements DensityFunctionCompiler.Node {
+		@Override
+		public int size() {
+			return 1 + this.input.size() + this.whenInRange.size() + this.whenOutOfRange.size();
+		}
+	}
+
+	static record ShiftNode(DensityFunctionCompiler.ShiftType type, int sampler, int function) implements DensityFunctionCompiler.FilledNode {
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+
+	static enum ShiftType {
+		SHIFT,
+		SHIFT_A,
+		SHIFT_B;
+	}
+
+	static record ShiftedNoiseNode(
+		DensityFunctionCompiler.Node shiftX,
+		DensityFunctionCompiler.Node shiftY,
+		DensityFunctionCompiler.Node shiftZ,
+		double xzScale,
+		double yScale,
+		int sampler,
+		int function
+	) implements DensityFunctionCompiler.FilledNode {
+		@Override
+		public int size() {
+			return 1 + this.shiftX.size() + this.shiftY.size() + this.shiftZ.size();
+		}
+	}
+
+	/**
+	 * Builds the tree of a density function, collecting the functions and noise
+	 * samplers the generated class receives.
+	 */
+	static class TreeBuilder {
+		final List<Object> leaves = Lists.<Object>newArrayList();
+		final List<String> leafTypes = Lists.<String>newArrayList();
+		private final Map<String, Map<Object, Integer>> leafIndices = Maps.<String, Map<Object, Integer>>newHashMap();
+
+		DensityFunctionCompiler.Node build(DensityFunction function) {
+			if (function instanceof DensityFunctionTypes.Constant constant) {
+				return new DensityFunctionCompiler.ConstantNode(constant.value());
+			} else if (function == DensityFunctionTypes.BlendAlpha.INSTANCE) {
+				return new DensityFunctionCompiler.ConstantNode(1.0);
+			} else if (function == DensityFunctionTypes.BlendOffset.INSTANCE || function == DensityFunctionTypes.Beardifier.INSTANCE) {
+				return new DensityFunctionCompiler.ConstantNode(0.0);
+			} else if (function instanceof DensityFunctionTypes.Wrapping wrapping) {
+				return this.build(wrapping.wrapped());
+			} else if (function instanceof DensityFunctionTypes.RegistryEntryHolder registryEntryHolder) {
+				return this.build(registryEntryHolder.function().value());
+			} else if (function instanceof DensityFunctionTypes.LinearOperation linearOperation) {
+				DensityFunctionCompiler.Node node = this.build(linearOperation.input());
+				return (DensityFunctionCompiler.Node)(node instanceof DensityFunctionCompiler.ConstantNode constantNode
+					? new DensityFunctionCompiler.ConstantNode(linearOperation.apply(constantNode.value()))
+					: new DensityFunctionCompiler.LinearNode(
+						node, linearOperation.specificType() == DensityFunctionTypes.LinearOperation.SpecificType.MUL, linearOperation.argument()
+					));
+			} else if (function instanceof DensityFunctionTypes.UnaryOperation unaryOperation) {
+				DensityFunctionCompiler.Node node = this.build(unaryOperation.input());
+				return (DensityFunctionCompiler.Node)(node instanceof DensityFunctionCompiler.ConstantNode constantNode
+					? new DensityFunctionCompiler.ConstantNode(unaryOperation.apply(constantNode.value()))
+					: new DensityFunctionCompiler.UnaryNode(node, unaryOperation.type()));
+			} else if (function instanceof DensityFunctionTypes.Clamp clamp) {
+				DensityFunctionCompiler.Node node = this.build(clamp.input());
+				return (DensityFunctionCompiler.Node)(node instanceof DensityFunctionCompiler.ConstantNode constantNode
+					? new DensityFunctionCompiler.ConstantNode(clamp.apply(constantNode.value()))
+					: new DensityFunctionCompiler.ClampNode(node, clamp.minValue(), clamp.maxValue()));
+			} else if (function instanceof DensityFunctionTypes.BinaryOperation binaryOperation) {
+				return new DensityFunctionCompiler.BinaryNode(
+					binaryOperation.type(),
+					this.build(binaryOperation.argument1()),
+					this.build(binaryOperation.argument2()),
+					binaryOperation.argument2().minValue(),
+					binaryOperation.argument2().maxValue()
+				);
+			} else if (function instanceof DensityFunctionTypes.RangeChoice rangeChoice) {
+				return new DensityFunctionCompiler.RangeChoiceNode(
+					this.build(rangeChoice.input()),
+					rangeChoice.minInclusive(),
+					rangeChoice.maxExclusive(),
+					this.build(rangeChoice.whenInRange()),
+					this.build(rangeChoice.whenOutOfRange())
+				);
+			} else if (function instanceof DensityFunctionTypes.YClampedGradient yClampedGradient) {
+				return new DensityFunctionCompiler.YClampedGradientNode(
+					yClampedGradient.fromY(), yClampedGradient.toY(), yClampedGradient.fromValue(), yClampedGradient.toValue(), this.addFunction(function)
+				);
+			} else if (function instanceof DensityFunctionTypes.Noise noise) {
+				return new DensityFunctionCompiler.NoiseNode(this.addSampler(noise.noise()), noise.xzScale(), noise.yScale(), this.addFunction(function));
+			} else if (function instanceof DensityFunctionTypes.ShiftedNoise shiftedNoise) {
+				return new DensityFunctionCompiler.ShiftedNoiseNode(
+					this.build(shiftedNoise.shiftX()),
+					this.build(shiftedNoise.shiftY()),
+					this.build(shiftedNoise.shiftZ()),
+					shiftedNoise.xzScale(),
+					shiftedNoise.yScale(),
+					this.addSampler(shiftedNoise.noise()),
+					this.addFunction(function)
+				);
+			} else if (function instanceof DensityFunctionTypes.Shift shift) {
+				return new DensityFunctionCompiler.ShiftNode(DensityFunctionCompiler.ShiftType.SHIFT, this.addSampler(shift.offsetNoise()), this.addFunction(function));
+			} else if (function instanceof DensityFunctionTypes.ShiftA shiftA) {
+				return new DensityFunctionCompiler.ShiftNode(DensityFunctionCompiler.ShiftType.SHIFT_A, this.addSampler(shiftA.offsetNoise()), this.addFunction(function));
+			} else if (function instanceof DensityFunctionTypes.ShiftB shiftB) {
+				return new DensityFunctionCompiler.ShiftNode(DensityFunctionCompiler.ShiftType.SHIFT_B, this.addSampler(shiftB.offsetNoise()), this.addFunction(function));
+			} else if (function instanceof DensityFunctionTypes.BlendDensity || function instanceof DensityFunctionTypes.WeirdScaledSampler) {
+				DensityFunctionTypes.Positional positional = (DensityFunctionTypes.Positional)function;
+				return new DensityFunctionCompiler.PositionalNode(this.build(positional.input()), this.addLeaf(positional, POSITIONAL_DESCRIPTOR));
+			} else {
+				return new DensityFunctionCompiler.KeptNode(this.addFunction(function));
+			}
+		}
+
+		private int addFunction(DensityFunction function) {
+			return this.addLeaf(function, FUNCTION_DESCRIPTOR);
+		}
+
+		/**
+		 * {@return the leaf holding the sampler of {@code noise}}, or {@code -1} if it
+		 * has none.
+		 */
+		private int addSampler(DensityFunction.Noise noise) {
+			return noise.noise() == null ? -1 : this.addLeaf(noise.noise(), SAMPLER_DESCRIPTOR);
+		}
+
+		private int addLeaf(Object leaf, String type) {
+			return (Integer)((Map)this.leafIndices.computeIfAbsent(type, typex -> new IdentityHashMap())).computeIfAbsent(leaf, leafx -> {
+				this.leaves.add(leafx);
+				this.leafTypes.add(type);
+				return this.leaves.size() - 1;
+			});
+		}
+	}
+
+	static record UnaryNode(DensityFunctionCompiler.Node input, DensityFunctionTypes.UnaryOperation.Type type) implements DensityFunctionCompiler.UnaryLikeNode {
+		@Override
+		public int size() {
+			return 1 + this.input.size();
+		}
+	}
+
+	static record YClampedGradientNode(int fromY, int toY, double fromValue, double toValue, int function) implements DensityFunctionCompiler.FilledNode {
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+}
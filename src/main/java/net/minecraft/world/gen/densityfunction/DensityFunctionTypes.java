@@ -754,7 +754,19 @@ public final class DensityFunctionTypes {
 
 		@Override
 		public void fill(double[] densities, EachApplier applier) {
-			applier.fill(densities, this);
+			int i = densities.length;
+			double[] ds = new double[i];
+			double[] es = new double[i];
+			double[] fs = new double[i];
+			applier.fillPositions(ds, es, fs);
+
+			for (int j = 0; j < i; j++) {
+				ds[j] *= this.xzScale;
+				es[j] *= this.yScale;
+				fs[j] *= this.xzScale;
+			}
+
+			this.noise.sample(ds, es, fs, densities);
 		}
 
 		@Override
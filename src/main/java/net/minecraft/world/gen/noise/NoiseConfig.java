@@ -16,6 +16,7 @@ import net.minecraft.util.math.random.RandomSplitter;
 import net.minecraft.world.biome.source.util.MultiNoiseUtil;
 import net.minecraft.world.gen.chunk.ChunkGeneratorSettings;
 import net.minecraft.world.gen.densityfunction.DensityFunction;
+import net.minecraft.world.gen.densityfunction.DensityFunctionCompiler;
 import net.minecraft.world.gen.densityfunction.DensityFunctionTypes;
 import net.minecraft.world.gen.surfacebuilder.SurfaceBuilder;
 
@@ -130,12 +131,12 @@ public final class NoiseConfig {
 			}
 		};
 		this.multiNoiseSampler = new MultiNoiseUtil.MultiNoiseSampler(
-			this.noiseRouter.temperature().apply(densityFunctionVisitor),
-			this.noiseRouter.vegetation().apply(densityFunctionVisitor),
-			this.noiseRouter.continents().apply(densityFunctionVisitor),
-			this.noiseRouter.erosion().apply(densityFunctionVisitor),
-			this.noiseRouter.depth().apply(densityFunctionVisitor),
-			this.noiseRouter.ridges().apply(densityFunctionVisitor),
+			DensityFunctionCompiler.compile(this.noiseRouter.temperature().apply(densityFunctionVisitor)),
+			DensityFunctionCompiler.compile(this.noiseRouter.vegetation().apply(densityFunctionVisitor)),
+			DensityFunctionCompiler.compile(this.noiseRouter.continents().apply(densityFunctionVisitor)),
+			DensityFunctionCompiler.compile(this.noiseRouter.erosion().apply(densityFunctionVisitor)),
+			DensityFunctionCompiler.compile(this.noiseRouter.depth().apply(densityFunctionVisitor)),
+			DensityFunctionCompiler.compile(this.noiseRouter.ridges().apply(densityFunctionVisitor)),
 			chunkGeneratorSettings.spawnTarget()
 		);
 	}
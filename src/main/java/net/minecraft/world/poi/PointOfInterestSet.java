@@ -6,6 +6,7 @@ import com.google.common.collect.Sets;
 import com.mojang.logging.LogUtils;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectFunction;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Map.Entry;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -62,6 +64,42 @@ public class PointOfInterestSet {
 			.filter(occupationStatus.getPredicate());
 	}
 
+	/**
+	 * Runs {@code action} on the points of interest of this set matching {@code predicate}
+	 * and {@code occupationStatus}, in the order of {@link #get}, until it returns {@code false}.
+	 * 
+	 * @return whether every matching point of interest was visited
+	 */
+	public boolean forEach(
+		Predicate<RegistryEntry<PointOfInterestType>> predicate, PointOfInterestStorage.OccupationStatus occupationStatus, Predicate<PointOfInterest> action
+	) {
+		Predicate<? super PointOfInterest> predicate2 = occupationStatus.getPredicate();
+
+		for (Entry<RegistryEntry<PointOfInterestType>, Set<PointOfInterest>> entry : this.pointsOfInterestByType.entrySet()) {
+			if (predicate.test(entry.getKey())) {
+				for (PointOfInterest pointOfInterest : entry.getValue()) {
+					if (predicate2.test(pointOfInterest) && !action.test(pointOfInterest)) {
+						return false;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds the number of points of interest of each type in this set to {@code counts}.
+	 */
+	void countTypes(Reference2IntMap<RegistryEntry<PointOfInterestType>> counts) {
+		for (Entry<RegistryEntry<PointOfInterestType>, Set<PointOfInterest>> entry : this.pointsOfInterestByType.entrySet()) {
+			int i = entry.getValue().size();
+			if (i > 0) {
+				counts.mergeInt(entry.getKey(), i, Integer::sum);
+			}
+		}
+	}
+
 	public void add(BlockPos pos, RegistryEntry<PointOfInterestType> type) {
 		if (this.add(new PointOfInterest(pos, type, this.updateListener))) {
 			LOGGER.debug("Added POI of type {} @ {}", type.getKey().map(key -> key.getValue().toString()).orElse("[unregistered]"), pos);
@@ -80,6 +118,7 @@ public class PointOfInterestSet {
 			}
 
 			Util.error("POI data mismatch: already registered at " + blockPos);
+			((Set)this.pointsOfInterestByType.get(pointOfInterest.getType())).remove(pointOfInterest);
 		}
 
 		this.pointsOfInterestByPos.put(s, poi);
@@ -1,14 +1,23 @@
 package net.minecraft.world.poi;
 
+import com.google.common.collect.Lists;
 import com.mojang.datafixers.DataFixer;
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.longs.Long2ByteMap;
 import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
@@ -34,30 +43,169 @@ import net.minecraft.world.WorldView;
 import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.ChunkStatus;
 import net.minecraft.world.storage.SerializingRegionBasedStorage;
+import org.jetbrains.annotations.Nullable;
 
 public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointOfInterestSet> {
 	public static final int field_30265 = 6;
 	public static final int field_30266 = 1;
 	private final PointOfInterestDistanceTracker pointOfInterestDistanceTracker;
 	private final LongSet preloadedChunks = new LongOpenHashSet();
+	private final PointOfInterestStorage.TypeIndex typeIndex = new PointOfInterestStorage.TypeIndex();
+	/**
+	 * The {@linkplain #modificationCount modification count} at the last change of the
+	 * points of interest of each chunk, cleared once it grows past {@value #MAX_TRACKED_CHUNKS}
+	 * chunks.
+	 */
+	private final Long2LongMap chunkModificationCounts = new Long2LongOpenHashMap();
+	private static final int MAX_TRACKED_CHUNKS = 65536;
+	private long modificationCount;
+	private int modificationEpoch;
+	private long queryCount;
+	private long skippedQueryCount;
 
 	public PointOfInterestStorage(Path path, DataFixer dataFixer, boolean dsync, DynamicRegistryManager registryManager, HeightLimitView world) {
 		super(path, PointOfInterestSet::createCodec, PointOfInterestSet::new, dataFixer, DataFixTypes.POI_CHUNK, dsync, registryManager, world);
 		this.pointOfInterestDistanceTracker = new PointOfInterestDistanceTracker();
 	}
 
+	/**
+	 * Runs {@code action} on the points of interest in the square of the given radius
+	 * around {@code pos}, in the order of {@link #getInSquare}, until it returns
+	 * {@code false}.
+	 * 
+	 * <p>Chunks without any point of interest of a type matching {@code typePredicate}
+	 * are skipped through the {@linkplain PointOfInterestStorage.TypeIndex type index}.
+	 * 
+	 * @return whether every matching point of interest was visited
+	 */
+	private boolean forEachInSquare(
+		Predicate<RegistryEntry<PointOfInterestType>> typePredicate,
+		BlockPos pos,
+		int radius,
+		OccupationStatus occupationStatus,
+		Predicate<PointOfInterest> action
+	) {
+		this.queryCount++;
+		int i = Math.floorDiv(radius, 16) + 1;
+		int j = ChunkSectionPos.getSectionCoord(pos.getX());
+		int k = ChunkSectionPos.getSectionCoord(pos.getZ());
+		Predicate<PointOfInterest> predicate = poi -> {
+			BlockPos blockPos2 = poi.getPos();
+			return Math.abs(blockPos2.getX() - pos.getX()) > radius || Math.abs(blockPos2.getZ() - pos.getZ()) > radius || action.test(poi);
+		};
+
+		for (int l = k - i; l <= k + i; l++) {
+			for (int m = j - i; m <= j + i; m++) {
+				if (!this.forEachInChunk(typePredicate, m, l, occupationStatus, predicate)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private boolean forEachInChunk(
+		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, int chunkX, int chunkZ, OccupationStatus occupationStatus, Predicate<PointOfInterest> action
+	) {
+		if (!this.typeIndex.hasAny(chunkX, chunkZ, typePredicate)) {
+			return true;
+		} else {
+			for (int i = this.world.getBottomSectionCoord(); i < this.world.getTopSectionCoord(); i++) {
+				Optional<PointOfInterestSet> optional = this.get(ChunkSectionPos.asLong(chunkX, i, chunkZ));
+				if (optional.isPresent() && !((PointOfInterestSet)optional.get()).forEach(typePredicate, occupationStatus, action)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * {@return the point of interest nearest to {@code pos} within the given radius}
+	 * 
+	 * <p>Of several points of interest at the same distance, the one first in the order
+	 * of {@link #getInCircle} is returned, like the {@code min} of that stream. Chunks are
+	 * visited from the inside out, and a chunk is skipped once it cannot hold a point of
+	 * interest that is closer, or as close and earlier in that order.
+	 */
+	private Optional<PointOfInterest> getNearest(
+		Predicate<RegistryEntry<PointOfInterestType>> typePredicate,
+		Predicate<BlockPos> posPredicate,
+		BlockPos pos,
+		int radius,
+		OccupationStatus occupationStatus
+	) {
+		this.queryCount++;
+		int i = Math.floorDiv(radius, 16) + 1;
+		int j = i * 2 + 1;
+		int k = ChunkSectionPos.getSectionCoord(pos.getX());
+		int l = ChunkSectionPos.getSectionCoord(pos.getZ());
+		double d = (double)(radius * radius);
+		PointOfInterestStorage.NearestSearch nearestSearch = new PointOfInterestStorage.NearestSearch(pos, radius, posPredicate);
+
+		for (int m = 0; m <= i; m++) {
+			for (int n = l - m; n <= l + m; n++) {
+				for (int o = k - m; o <= k + m; o++) {
+					if (Math.abs(n - l) == m || Math.abs(o - k) == m) {
+						double e = getMinSquaredDistance(pos, o, n);
+						int p = (n - l + i) * j + o - k + i;
+						if (!(e > d) && nearestSearch.canImprove(e, p)) {
+							nearestSearch.setOrder(p);
+							this.forEachInChunk(typePredicate, o, n, occupationStatus, nearestSearch);
+						}
+					}
+				}
+			}
+		}
+
+		return Optional.ofNullable(nearestSearch.nearest);
+	}
+
+	private static double getMinSquaredDistance(BlockPos pos, int chunkX, int chunkZ) {
+		int i = ChunkSectionPos.getBlockCoord(chunkX);
+		int j = ChunkSectionPos.getBlockCoord(chunkZ);
+		int k = Math.max(0, Math.max(i - pos.getX(), pos.getX() - (i + 15)));
+		int l = Math.max(0, Math.max(j - pos.getZ(), pos.getZ() - (j + 15)));
+		return (double)k * (double)k + (double)l * (double)l;
+	}
+
 	public void add(BlockPos pos, RegistryEntry<PointOfInterestType> type) {
-		this.getOrCreate(ChunkSectionPos.toLong(pos)).add(pos, type);
+		long l = ChunkSectionPos.toLong(pos);
+		PointOfInterestSet pointOfInterestSet = this.getOrCreate(l);
+		Optional<RegistryEntry<PointOfInterestType>> optional = pointOfInterestSet.getType(pos);
+		pointOfInterestSet.add(pos, type);
+		if (optional.isEmpty()) {
+			this.typeIndex.add(l, type);
+		} else if (!((RegistryEntry)optional.get()).equals(type)) {
+			this.typeIndex.remove(l, (RegistryEntry<PointOfInterestType>)optional.get());
+			this.typeIndex.add(l, type);
+		}
 	}
 
 	public void remove(BlockPos pos) {
-		this.get(ChunkSectionPos.toLong(pos)).ifPresent(poiSet -> poiSet.remove(pos));
+		long l = ChunkSectionPos.toLong(pos);
+		this.get(l).ifPresent(poiSet -> {
+			Optional<RegistryEntry<PointOfInterestType>> optional = poiSet.getType(pos);
+			poiSet.remove(pos);
+			optional.ifPresent(type -> this.typeIndex.remove(l, type));
+		});
 	}
 
 	public long count(
 		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, BlockPos pos, int radius, OccupationStatus occupationStatus
 	) {
-		return this.getInCircle(typePredicate, pos, radius, occupationStatus).count();
+		int i = radius * radius;
+		long[] ls = new long[1];
+		this.forEachInSquare(typePredicate, pos, radius, occupationStatus, poi -> {
+			if (poi.getPos().getSquaredDistance(pos) <= (double)i) {
+				ls[0]++;
+			}
+
+			return true;
+		});
+		return ls[0];
 	}
 
 	public boolean hasTypeAt(RegistryKey<PointOfInterestType> type, BlockPos pos) {
@@ -68,7 +216,10 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, BlockPos pos, int radius, OccupationStatus occupationStatus
 	) {
 		int i = Math.floorDiv(radius, 16) + 1;
-		return ChunkPos.stream(new ChunkPos(pos), i).flatMap(chunkPos -> this.getInChunk(typePredicate, chunkPos, occupationStatus)).filter(poi -> {
+		return ChunkPos.stream(new ChunkPos(pos), i)
+			.filter(chunkPos -> this.typeIndex.hasAny(chunkPos.x, chunkPos.z, typePredicate))
+			.flatMap(chunkPos -> this.getInChunk(typePredicate, chunkPos, occupationStatus))
+			.filter(poi -> {
 			BlockPos blockPos2 = poi.getPos();
 			return Math.abs(blockPos2.getX() - pos.getX()) <= radius && Math.abs(blockPos2.getZ() - pos.getZ()) <= radius;
 		});
@@ -121,8 +272,17 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		int radius,
 		OccupationStatus occupationStatus
 	) {
-		return this.getTypesAndPositions(typePredicate, posPredicate, pos, radius, occupationStatus)
-			.sorted(Comparator.comparingDouble(pair -> ((BlockPos)pair.getSecond()).getSquaredDistance(pos)));
+		int i = radius * radius;
+		List<Pair<RegistryEntry<PointOfInterestType>, BlockPos>> list = Lists.<Pair<RegistryEntry<PointOfInterestType>, BlockPos>>newArrayList();
+		this.forEachInSquare(typePredicate, pos, radius, occupationStatus, poi -> {
+			if (poi.getPos().getSquaredDistance(pos) <= (double)i && posPredicate.test(poi.getPos())) {
+				list.add(Pair.of(poi.getType(), poi.getPos()));
+			}
+
+			return true;
+		});
+		list.sort(Comparator.comparingDouble(pair -> ((BlockPos)pair.getSecond()).getSquaredDistance(pos)));
+		return list.stream();
 	}
 
 	public Optional<BlockPos> getPosition(
@@ -132,23 +292,35 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		int radius,
 		OccupationStatus occupationStatus
 	) {
-		return this.getPositions(typePredicate, posPredicate, pos, radius, occupationStatus).findFirst();
+		return this.getFirst(typePredicate, pos, radius, occupationStatus, poi -> posPredicate.test(poi.getPos())).map(PointOfInterest::getPos);
+	}
+
+	private Optional<PointOfInterest> getFirst(
+		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, BlockPos pos, int radius, OccupationStatus occupationStatus, Predicate<PointOfInterest> predicate
+	) {
+		int i = radius * radius;
+		PointOfInterest[] pointOfInterests = new PointOfInterest[1];
+		this.forEachInSquare(typePredicate, pos, radius, occupationStatus, poi -> {
+			if (poi.getPos().getSquaredDistance(pos) <= (double)i && predicate.test(poi)) {
+				pointOfInterests[0] = poi;
+				return false;
+			} else {
+				return true;
+			}
+		});
+		return Optional.ofNullable(pointOfInterests[0]);
 	}
 
 	public Optional<BlockPos> getNearestPosition(
 		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, BlockPos pos, int radius, OccupationStatus occupationStatus
 	) {
-		return this.getInCircle(typePredicate, pos, radius, occupationStatus)
-			.map(PointOfInterest::getPos)
-			.min(Comparator.comparingDouble(blockPos2 -> blockPos2.getSquaredDistance(pos)));
+		return this.getNearest(typePredicate, blockPos -> true, pos, radius, occupationStatus).map(PointOfInterest::getPos);
 	}
 
 	public Optional<Pair<RegistryEntry<PointOfInterestType>, BlockPos>> getNearestTypeAndPosition(
 		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, BlockPos pos, int radius, OccupationStatus occupationStatus
 	) {
-		return this.getInCircle(typePredicate, pos, radius, occupationStatus)
-			.min(Comparator.comparingDouble(poi -> poi.getPos().getSquaredDistance(pos)))
-			.map(poi -> Pair.of(poi.getType(), poi.getPos()));
+		return this.getNearest(typePredicate, blockPos -> true, pos, radius, occupationStatus).map(poi -> Pair.of(poi.getType(), poi.getPos()));
 	}
 
 	public Optional<BlockPos> getNearestPosition(
@@ -158,18 +330,13 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		int radius,
 		OccupationStatus occupationStatus
 	) {
-		return this.getInCircle(typePredicate, pos, radius, occupationStatus)
-			.map(PointOfInterest::getPos)
-			.filter(posPredicate)
-			.min(Comparator.comparingDouble(blockPos2 -> blockPos2.getSquaredDistance(pos)));
+		return this.getNearest(typePredicate, posPredicate, pos, radius, occupationStatus).map(PointOfInterest::getPos);
 	}
 
 	public Optional<BlockPos> getPosition(
 		Predicate<RegistryEntry<PointOfInterestType>> typePredicate, BiPredicate<RegistryEntry<PointOfInterestType>, BlockPos> biPredicate, BlockPos pos, int radius
 	) {
-		return this.getInCircle(typePredicate, pos, radius, OccupationStatus.HAS_SPACE)
-			.filter(poi -> biPredicate.test(poi.getType(), poi.getPos()))
-			.findFirst()
+		return this.getFirst(typePredicate, pos, radius, OccupationStatus.HAS_SPACE, poi -> biPredicate.test(poi.getType(), poi.getPos()))
 			.map(poi -> {
 				poi.reserveTicket();
 				return poi.getPos();
@@ -184,7 +351,17 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		int radius,
 		Random random
 	) {
-		List<PointOfInterest> list = Util.copyShuffled(this.getInCircle(typePredicate, pos, radius, occupationStatus), random);
+		int i = radius * radius;
+		ObjectArrayList<PointOfInterest> objectArrayList = new ObjectArrayList<>();
+		this.forEachInSquare(typePredicate, pos, radius, occupationStatus, poi -> {
+			if (poi.getPos().getSquaredDistance(pos) <= (double)i) {
+				objectArrayList.add(poi);
+			}
+
+			return true;
+		});
+		Util.shuffle(objectArrayList, random);
+		List<PointOfInterest> list = objectArrayList;
 		return list.stream().filter(poi -> positionPredicate.test(poi.getPos())).findFirst().map(PointOfInterest::getPos);
 	}
 
@@ -218,7 +395,7 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		return optional == null
 			? false
 			: (Boolean)optional.map(
-					poiSet -> poiSet.get(entry -> entry.isIn(PointOfInterestTypeTags.VILLAGE), OccupationStatus.IS_OCCUPIED).findAny().isPresent()
+					poiSet -> !poiSet.forEach(entry -> entry.isIn(PointOfInterestTypeTags.VILLAGE), OccupationStatus.IS_OCCUPIED, poi -> false)
 				)
 				.orElse(false);
 	}
@@ -229,14 +406,78 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		this.pointOfInterestDistanceTracker.update();
 	}
 
+	/**
+	 * Starts watching the points of interest of the chunks within {@code radius}
+	 * blocks of {@code pos} for changes.
+	 *
+	 * @see #hasChanged
+	 */
+	public PointOfInterestStorage.Watch watch(BlockPos pos, int radius) {
+		return new PointOfInterestStorage.Watch(
+			pos.toImmutable(),
+			ChunkSectionPos.getSectionCoord(pos.getX() - radius),
+			ChunkSectionPos.getSectionCoord(pos.getZ() - radius),
+			ChunkSectionPos.getSectionCoord(pos.getX() + radius),
+			ChunkSectionPos.getSectionCoord(pos.getZ() + radius),
+			this.modificationCount,
+			this.modificationEpoch
+		);
+	}
+
+	/**
+	 * {@return whether a point of interest of a chunk watched by {@code watch} was
+	 * added, removed, loaded or had its tickets changed since the watch started}
+	 */
+	public boolean hasChanged(PointOfInterestStorage.Watch watch) {
+		if (watch.modificationCount() == this.modificationCount) {
+			return false;
+		} else if (watch.epoch() != this.modificationEpoch) {
+			return true;
+		} else {
+			for (int i = watch.minChunkX(); i <= watch.maxChunkX(); i++) {
+				for (int j = watch.minChunkZ(); j <= watch.maxChunkZ(); j++) {
+					if (this.chunkModificationCounts.get(ChunkPos.toLong(i, j)) > watch.modificationCount()) {
+						return true;
+					}
+				}
+			}
+
+			return false;
+		}
+	}
+
+	private void onChanged(long sectionPos) {
+		if (this.chunkModificationCounts.size() >= MAX_TRACKED_CHUNKS) {
+			this.chunkModificationCounts.clear();
+			this.modificationEpoch++;
+		}
+
+		this.chunkModificationCounts.put(ChunkPos.toLong(ChunkSectionPos.unpackX(sectionPos), ChunkSectionPos.unpackZ(sectionPos)), ++this.modificationCount);
+	}
+
+	/**
+	 * Records that a query was skipped since the points of interest it would visit
+	 * have not changed.
+	 */
+	public void onQuerySkipped() {
+		this.skippedQueryCount++;
+	}
+
+	public String getDebugString() {
+		return String.format(Locale.ROOT, "queries: %d, skipped queries: %d", this.queryCount, this.skippedQueryCount);
+	}
+
 	@Override
 	protected void onUpdate(long pos) {
 		super.onUpdate(pos);
+		this.onChanged(pos);
 		this.pointOfInterestDistanceTracker.update(pos, this.pointOfInterestDistanceTracker.getInitialLevel(pos), false);
 	}
 
 	@Override
 	protected void onLoad(long pos) {
+		this.onChanged(pos);
+		this.typeIndex.markDirty(pos);
 		this.pointOfInterestDistanceTracker.update(pos, this.pointOfInterestDistanceTracker.getInitialLevel(pos), false);
 	}
 
@@ -251,6 +492,7 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 				this.scanAndPopulate(chunkSection, sectionPos, pointOfInterestSet::add);
 			}
 		});
+		this.typeIndex.markDirty(sectionPos.asLong());
 	}
 
 	private static boolean shouldScan(ChunkSection chunkSection) {
@@ -283,6 +525,14 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 			.forEach(chunkPos -> world.getChunk(chunkPos.x, chunkPos.z, ChunkStatus.EMPTY));
 	}
 
+	/**
+	 * A watch over the points of interest of an area, started by {@link #watch}.
+	 *
+	 * @param center the position the watched area was centered on
+	 */
+	public static record Watch(BlockPos center, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, long modificationCount, int epoch) {
+	}
+
 	public static enum OccupationStatus {
 		HAS_SPACE(PointOfInterest::hasSpace),
 		IS_OCCUPIED(PointOfInterest::isOccupied),
@@ -299,6 +549,137 @@ public class PointOfInterestStorage extends SerializingRegionBasedStorage<PointO
 		}
 	}
 
+	/**
+	 * Collects the point of interest nearest to a position, keeping the first of several
+	 * at the same distance in the order of {@link PointOfInterestStorage#getInCircle}.
+	 */
+	static class NearestSearch implements Predicate<PointOfInterest> {
+		private final BlockPos pos;
+		private final double maxSquaredDistance;
+		private final Predicate<BlockPos> posPredicate;
+		@Nullable
+		PointOfInterest nearest;
+		private double nearestSquaredDistance = Double.MAX_VALUE;
+		private int nearestOrder = Integer.MAX_VALUE;
+		private int order;
+
+		NearestSearch(BlockPos pos, int radius, Predicate<BlockPos> posPredicate) {
+			this.pos = pos;
+			this.maxSquaredDistance = (double)(radius * radius);
+			this.posPredicate = posPredicate;
+		}
+
+		/**
+		 * {@return whether a point of interest at least {@code minSquaredDistance} away
+		 * in the chunk of the given order can replace the nearest one found so far}
+		 */
+		boolean canImprove(double minSquaredDistance, int order) {
+			return minSquaredDistance < this.nearestSquaredDistance || minSquaredDistance == this.nearestSquaredDistance && order < this.nearestOrder;
+		}
+
+		void setOrder(int order) {
+			this.order = order;
+		}
+
+		@Override
+		public boolean test(PointOfInterest poi) {
+			double d = poi.getPos().getSquaredDistance(this.pos);
+			if (d <= this.maxSquaredDistance
+				&& (d < this.nearestSquaredDistance || d == this.nearestSquaredDistance && this.order < this.nearestOrder)
+				&& this.posPredicate.test(poi.getPos())) {
+				this.nearest = poi;
+				this.nearestSquaredDistance = d;
+				this.nearestOrder = this.order;
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Counts the points of interest of each type per chunk, so that queries can skip
+	 * the chunks without any point of interest of the types they look for.
+	 *
+	 * <p>Adding and removing a point of interest updates the count of its type, and
+	 * adding one over a point of interest of another type moves the count from the old
+	 * type to the new one. A type is removed from the counts of a chunk once none of it
+	 * is left. The counts of a chunk are recomputed from its sections when it is next
+	 * queried after any of its sections were loaded or rescanned.
+	 */
+	final class TypeIndex {
+		private final Long2ObjectMap<Reference2IntMap<RegistryEntry<PointOfInterestType>>> typeCounts = new Long2ObjectOpenHashMap<>();
+		private final LongSet dirtyChunks = new LongOpenHashSet();
+
+		void markDirty(long sectionPos) {
+			this.dirtyChunks.add(ChunkPos.toLong(ChunkSectionPos.unpackX(sectionPos), ChunkSectionPos.unpackZ(sectionPos)));
+		}
+
+		void add(long sectionPos, RegistryEntry<PointOfInterestType> type) {
+			long l = ChunkPos.toLong(ChunkSectionPos.unpackX(sectionPos), ChunkSectionPos.unpackZ(sectionPos));
+			if (!this.dirtyChunks.contains(l)) {
+				((Reference2IntMap)this.typeCounts.computeIfAbsent(l, chunkPos -> new Reference2IntOpenHashMap())).mergeInt(type, 1, Integer::sum);
+			}
+		}
+
+		void remove(long sectionPos, RegistryEntry<PointOfInterestType> type) {
+			long l = ChunkPos.toLong(ChunkSectionPos.unpackX(sectionPos), ChunkSectionPos.unpackZ(sectionPos));
+			if (!this.dirtyChunks.contains(l)) {
+				Reference2IntMap<RegistryEntry<PointOfInterestType>> reference2IntMap = this.typeCounts.get(l);
+				if (reference2IntMap != null) {
+					int i = reference2IntMap.getInt(type) - 1;
+					if (i > 0) {
+						reference2IntMap.put(type, i);
+					} else {
+						reference2IntMap.removeInt(type);
+						if (reference2IntMap.isEmpty()) {
+							this.typeCounts.remove(l);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * {@return whether the chunk has a point of interest of a type matching {@code typePredicate}}
+		 * Loads the points of interest of the chunk if needed, like {@link PointOfInterestStorage#getInChunk}.
+		 */
+		boolean hasAny(int chunkX, int chunkZ, Predicate<RegistryEntry<PointOfInterestType>> typePredicate) {
+			long l = ChunkPos.toLong(chunkX, chunkZ);
+			PointOfInterestStorage.this.get(ChunkSectionPos.asLong(chunkX, PointOfInterestStorage.this.world.getBottomSectionCoord(), chunkZ));
+			if (this.dirtyChunks.remove(l)) {
+				this.update(l, chunkX, chunkZ);
+			}
+
+			Reference2IntMap<RegistryEntry<PointOfInterestType>> reference2IntMap = this.typeCounts.get(l);
+			if (reference2IntMap != null) {
+				for (RegistryEntry<PointOfInterestType> registryEntry : reference2IntMap.keySet()) {
+					if (typePredicate.test(registryEntry)) {
+						return true;
+					}
+				}
+			}
+
+			return false;
+		}
+
+		private void update(long chunkPos, int chunkX, int chunkZ) {
+			Reference2IntMap<RegistryEntry<PointOfInterestType>> reference2IntMap = new Reference2IntOpenHashMap<>();
+
+			for (int i = PointOfInterestStorage.this.world.getBottomSectionCoord(); i < PointOfInterestStorage.this.world.getTopSectionCoord(); i++) {
+				Optional<PointOfInterestSet> optional = PointOfInterestStorage.this.getIfLoaded(ChunkSectionPos.asLong(chunkX, i, chunkZ));
+				if (optional != null && optional.isPresent()) {
+					((PointOfInterestSet)optional.get()).countTypes(reference2IntMap);
+				}
+			}
+
+			if (reference2IntMap.isEmpty()) {
+				this.typeCounts.remove(chunkPos);
+			} else {
+				this.typeCounts.put(chunkPos, reference2IntMap);
+			}
+		}
+	}
+
 	final class PointOfInterestDistanceTracker extends SectionDistanceLevelPropagator {
 		private final Long2ByteMap distances = new Long2ByteOpenHashMap();
 